@@ -0,0 +1,69 @@
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Compara dos ficheros de resultados JMH en JSON (mvn -Pjmh -DskipTests verify -> target/jmh-result.json)
+ * y muestra la variación de cada benchmark. Con un umbral, termina con código 1 si alguno empeora más de ese %.
+ *
+ * Uso (sin compilar, Java 21): java benchmark/JmhCompare.java <base.json> <candidate.json> [maxRegressionPercent]
+ */
+public class JmhCompare {
+
+    private static final Pattern ENTRY = Pattern.compile(
+            "\"benchmark\"\\s*:\\s*\"([^\"]+)\"(.*?)\"primaryMetric\"\\s*:\\s*\\{\\s*\"score\"\\s*:\\s*([^,]+),.*?\"scoreUnit\"\\s*:\\s*\"([^\"]+)\"",
+            Pattern.DOTALL);
+    private static final Pattern PARAMS = Pattern.compile("\"params\"\\s*:\\s*\\{([^}]*)}", Pattern.DOTALL);
+
+    private record Score(double value, String unit) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: JmhCompare <base.json> <candidate.json> [maxRegressionPercent]");
+            System.exit(2);
+        }
+        var base = read(Path.of(args[0]));
+        var candidate = read(Path.of(args[1]));
+        var maxRegression = args.length > 2 ? Double.parseDouble(args[2]) : Double.NaN;
+
+        var regressions = 0;
+        System.out.printf("%-70s %14s %14s %9s%n", "Benchmark", "base", "candidate", "change");
+        for (var entry : candidate.entrySet()) {
+            var before = base.get(entry.getKey());
+            var after = entry.getValue();
+            if (before == null) {
+                System.out.printf("%-70s %14s %14.3f %9s  %s%n", entry.getKey(), "-", after.value(), "new", after.unit());
+                continue;
+            }
+            // En modos de tiempo (avgt, sample, ss) más es peor; en throughput (ops/...) más es mejor
+            var change = (after.value() - before.value()) / before.value() * 100;
+            var worse = after.unit().startsWith("ops/") ? -change : change;
+            var flag = !Double.isNaN(maxRegression) && worse > maxRegression ? "  REGRESSION" : "";
+            if (!flag.isEmpty()) {
+                regressions++;
+            }
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%%  %s%s%n",
+                    entry.getKey(), before.value(), after.value(), change, after.unit(), flag);
+        }
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> read(Path file) throws Exception {
+        var results = new LinkedHashMap<String, Score>();
+        var matcher = ENTRY.matcher(Files.readString(file));
+        while (matcher.find()) {
+            var name = matcher.group(1).replace("org.demo.benchmark.", "");
+            var params = PARAMS.matcher(matcher.group(2));
+            if (params.find()) {
+                name += " [" + params.group(1).replaceAll("[\"\\s]", "").replace(":", "=") + "]";
+            }
+            results.put(name, new Score(Double.parseDouble(matcher.group(3).replace("\"", "")), matcher.group(4)));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,101 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generador de carga para comparar el modo de hilos de plataforma con el de hilos virtuales
+ * (ships.threads.virtual.enabled). Lanza N clientes concurrentes en bucle cerrado contra la API
+ * y muestra throughput y percentiles de latencia.
+ *
+ * Uso (sin compilar, Java 21): java benchmark/ThreadModeBenchmark.java <baseUrl> <token> [concurrency] [seconds] [path]
+ */
+public class ThreadModeBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: ThreadModeBenchmark <baseUrl> <token> [concurrency] [seconds] [path]");
+            System.exit(1);
+        }
+        var baseUrl = args[0];
+        var token = args[1];
+        var concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 400;
+        var seconds = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+        var path = args.length > 4 ? args[4] : "/v1/space-ships?size=20&total=false&page=";
+
+        var client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        // Calentamiento: JIT, pool de conexiones y cachés
+        run(client, baseUrl, token, path, Math.min(concurrency, 50), 5);
+        var result = run(client, baseUrl, token, path, concurrency, seconds);
+
+        var latencies = result.latenciesMicros();
+        Arrays.sort(latencies);
+        System.out.printf("concurrency=%d duration=%ds requests=%d errors=%d%n",
+                concurrency, seconds, latencies.length, result.errors());
+        System.out.printf("throughput=%.1f req/s p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms%n",
+                latencies.length / (double) seconds,
+                percentile(latencies, 0.50), percentile(latencies, 0.90),
+                percentile(latencies, 0.99), latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1000.0);
+    }
+
+    private record Result(long[] latenciesMicros, long errors) {
+    }
+
+    private static Result run(HttpClient client, String baseUrl, String token, String path,
+                              int concurrency, int seconds) throws InterruptedException {
+        var deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        var samples = new ConcurrentLinkedQueue<long[]>();
+        var errors = new AtomicLong();
+
+        try (var clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                clients.submit(() -> {
+                    var local = new ArrayList<Long>();
+                    while (System.nanoTime() < deadline) {
+                        // Si la ruta termina en "=" se completa con una página aleatoria
+                        var target = path.endsWith("=") ? path + ThreadLocalRandom.current().nextInt(10) : path;
+                        var request = HttpRequest.newBuilder(URI.create(baseUrl + target))
+                                .header("Authorization", "Bearer " + token)
+                                .timeout(Duration.ofSeconds(30))
+                                .GET()
+                                .build();
+                        var start = System.nanoTime();
+                        try {
+                            var response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            } else {
+                                local.add((System.nanoTime() - start) / 1000);
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    samples.add(local.stream().mapToLong(Long::longValue).toArray());
+                });
+            }
+        }
+
+        return new Result(samples.stream().flatMapToLong(Arrays::stream).toArray(), errors.get());
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        var index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1000.0;
+    }
+}
@@ -0,0 +1,38 @@
+#!/usr/bin/env bash
+# Lanza la misma carga contra la aplicación MVC (Tomcat + JPA) y contra ReactiveApplication
+# (Netty + R2DBC), una después de otra para que no compitan por la CPU.
+# El token se obtiene del login de la aplicación MVC y vale para las dos.
+# Requiere el jar empaquetado (mvn package).
+#
+# Uso: benchmark/run-reactive-vs-mvc.sh [concurrency] [seconds] [path]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+JAR=$(ls target/springboot-ships-backoffice-*.jar | head -1)
+CONCURRENCY=${1:-2000}
+SECONDS_PER_STACK=${2:-30}
+BENCH_PATH=${3:-"/v1/space-ships?size=20&total=false&page="}
+
+login() {
+  curl -s -XPOST "http://localhost:8080/v1/login" -H 'Content-Type: application/json' \
+    -d '{"username":"test@test.com","password":"bWlDb250cmFzZcOxYTEyMw=="}' \
+    | sed -E 's/.*"token":"([^"]+)".*/\1/'
+}
+
+echo "=== MVC (Tomcat + JPA) ==="
+java -jar "$JAR" > target/benchmark-mvc.log 2>&1 &
+APP_PID=$!
+until grep -q "Started Application" target/benchmark-mvc.log; do sleep 1; done
+TOKEN=$(login)
+java benchmark/ThreadModeBenchmark.java http://localhost:8080 "$TOKEN" "$CONCURRENCY" "$SECONDS_PER_STACK" "$BENCH_PATH"
+kill $APP_PID
+wait $APP_PID 2>/dev/null || true
+
+echo "=== WebFlux (Netty + R2DBC) ==="
+java -cp "$JAR" -Dloader.main=org.demo.reactive.ReactiveApplication org.springframework.boot.loader.PropertiesLauncher \
+  > target/benchmark-reactive.log 2>&1 &
+APP_PID=$!
+until grep -q "Started ReactiveApplication" target/benchmark-reactive.log; do sleep 1; done
+java benchmark/ThreadModeBenchmark.java http://localhost:8081 "$TOKEN" "$CONCURRENCY" "$SECONDS_PER_STACK" "$BENCH_PATH"
+kill $APP_PID
+wait $APP_PID 2>/dev/null || true
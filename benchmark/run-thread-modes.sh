@@ -0,0 +1,31 @@
+#!/usr/bin/env bash
+# Arranca la aplicación en modo hilos de plataforma y en modo hilos virtuales
+# y lanza la misma carga contra ambos. Requiere el jar empaquetado (mvn package).
+#
+# Uso: benchmark/run-thread-modes.sh [concurrency] [seconds] [path]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+JAR=$(ls target/springboot-ships-backoffice-*.jar | head -1)
+BASE_URL=${BASE_URL:-http://localhost:8080}
+CONCURRENCY=${1:-400}
+SECONDS_PER_MODE=${2:-30}
+BENCH_PATH=${3:-"/v1/space-ships?size=20&total=false&page="}
+
+login() {
+  curl -s -XPOST "$BASE_URL/v1/login" -H 'Content-Type: application/json' \
+    -d '{"username":"test@test.com","password":"bWlDb250cmFzZcOxYTEyMw=="}' \
+    | sed -E 's/.*"token":"([^"]+)".*/\1/'
+}
+
+for mode in false true; do
+  echo "=== ships.threads.virtual.enabled=$mode ==="
+  java -Dships.threads.virtual.enabled=$mode -jar "$JAR" > "target/benchmark-virtual-$mode.log" 2>&1 &
+  APP_PID=$!
+  until grep -q "Started Application" "target/benchmark-virtual-$mode.log"; do sleep 1; done
+
+  java benchmark/ThreadModeBenchmark.java "$BASE_URL" "$(login)" "$CONCURRENCY" "$SECONDS_PER_MODE" "$BENCH_PATH"
+
+  kill $APP_PID
+  wait $APP_PID 2>/dev/null || true
+done
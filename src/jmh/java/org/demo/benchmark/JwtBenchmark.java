@@ -0,0 +1,83 @@
+package org.demo.benchmark;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.demo.config.cache.CacheConfig;
+import org.demo.config.security.jwt.JwtTokenVerifier;
+import org.demo.config.security.jwt.VerifiedToken;
+import org.demo.service.JwtService;
+import org.demo.service.telemetry.MetricsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.demo.utils.Constants.SUPER_SECRET_KEY;
+
+/**
+ * Generación de tokens y las tres formas de verificarlos: parser nuevo por petición
+ * (filtro original), parser precompilado y verificador con caché de tokens verificados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+
+    private JwtService jwtService;
+    private UsernamePasswordAuthenticationToken authentication;
+    private String token;
+    private JwtParser prebuiltParser;
+    private JwtTokenVerifier cachedVerifier;
+
+    @Setup
+    public void setup() {
+        jwtService = new JwtService();
+        authentication = new UsernamePasswordAuthenticationToken("test@test.com", null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        token = jwtService.generateToken(authentication);
+        prebuiltParser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SUPER_SECRET_KEY.getBytes()))
+                .build();
+
+        Cache<String, VerifiedToken> cache = new CacheConfig().jwtVerifiedTokenCache(10_000, Duration.ofHours(1));
+        cachedVerifier = new JwtTokenVerifier(cache, new MetricsService(new SimpleMeterRegistry(), Tracer.NOOP, List.of()));
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(authentication);
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public String verifyWithParserPerRequest() {
+        return Jwts.parser()
+                .setSigningKey(SUPER_SECRET_KEY.getBytes())
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    @Benchmark
+    public String verifyWithPrebuiltParser() {
+        return prebuiltParser.parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public String verifyWithCache() {
+        return cachedVerifier.verify(token).subject();
+    }
+}
@@ -0,0 +1,116 @@
+package org.demo.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.demo.dto.MovieSpaceShipsDto;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Serialización y lectura de una página de naves en JSON, CBOR y Smile, con ObjectMappers
+ * configurados como los de Spring Boot. El tamaño del cuerpo de cada formato se publica como
+ * métrica secundaria de serializePage ({@link PayloadSize}). La lectura usa {@link PageBody},
+ * lo que haría un cliente que recibe la página.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PageSerializationBenchmark {
+
+    public enum Format {
+        JSON(JsonFactory::new),
+        CBOR(CBORFactory::new),
+        SMILE(SmileFactory::new);
+
+        private final Supplier<JsonFactory> factory;
+
+        Format(Supplier<JsonFactory> factory) {
+            this.factory = factory;
+        }
+    }
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    private Format format;
+
+    private ObjectMapper objectMapper;
+    private Page<MovieSpaceShipsDto> page;
+    private byte[] body;
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record PageBody(List<MovieSpaceShipsDto> content, long totalElements, int totalPages, int number, int size) {
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().factory(format.factory.get()).build();
+        var content = new ArrayList<MovieSpaceShipsDto>(pageSize);
+        for (long id = 1; id <= pageSize; id++) {
+            content.add(new MovieSpaceShipsDto(id, "Ship " + id, "Movie " + id, 0L));
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 10_000);
+        body = objectMapper.writeValueAsBytes(page);
+    }
+
+    /**
+     * Tamaño del cuerpo serializado, que aparece en los resultados como métrica secundaria payloadBytes.
+     * JMH suma los contadores EVENTS de todas las iteraciones de medida y de todos los hilos, así que
+     * cada iteración aporta su parte y el total es el tamaño en bytes.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+        public double payloadBytes;
+        private double share;
+
+        @Setup(Level.Trial)
+        public void setup(BenchmarkParams params) {
+            share = 1.0 / ((double) params.getMeasurement().getCount() * params.getThreads());
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            payloadBytes = 0;
+        }
+
+        void record(byte[] body) {
+            payloadBytes = body.length * share;
+        }
+    }
+
+    @Benchmark
+    public byte[] serializePage(PayloadSize size) throws IOException {
+        var bytes = objectMapper.writeValueAsBytes(page);
+        size.record(bytes);
+        return bytes;
+    }
+
+    @Benchmark
+    public PageBody deserializePage() throws IOException {
+        return objectMapper.readValue(body, PageBody.class);
+    }
+}
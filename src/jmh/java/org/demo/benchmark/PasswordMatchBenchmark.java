@@ -0,0 +1,40 @@
+package org.demo.benchmark;
+
+import org.demo.config.security.PasswordEncoderConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comprobación de contraseña tal y como la hace CustomAuthenticationProvider:
+ * decodificar la contraseña Base64 del login y compararla con el hash BCrypt.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PasswordMatchBenchmark {
+
+    private static final String API_PASSWORD = "bWlDb250cmFzZcOxYTEyMw==";
+
+    private PasswordEncoder passwordEncoder;
+    private String hash;
+
+    @Setup
+    public void setup() {
+        passwordEncoder = new PasswordEncoderConfig().passwordEncoder();
+        hash = passwordEncoder.encode(new String(Base64.getDecoder().decode(API_PASSWORD)));
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches(new String(Base64.getDecoder().decode(API_PASSWORD)), hash);
+    }
+}
@@ -0,0 +1,135 @@
+package org.demo.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.demo.dto.MovieSpaceShipsDto;
+import org.demo.persistance.entities.MovieSpaceShip;
+import org.demo.persistance.repository.MovieSpaceShipRepository;
+import org.demo.service.mapper.SpaceShipMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.LoggerFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecturas de naves con Hibernate sobre H2 en memoria: entidad gestionada + mapper frente a la
+ * proyección directa al DTO de {@link MovieSpaceShipRepository}. Ejecutar con {@code -prof gc}
+ * (por defecto en el perfil jmh) para comparar gc.alloc.rate.norm, los bytes asignados por operación.
+ * Ambas variantes se ejecutan en una transacción de solo lectura, como en la aplicación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProjectionQueryBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private HikariDataSource dataSource;
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTransaction;
+    private long nextId;
+
+    @Setup
+    public void setup() {
+        // Sin la configuración de Spring Boot, logback registraría cada consulta en DEBUG
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        // Pool como en la aplicación: sin él cada transacción abriría una conexión JDBC nueva
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:jmh_projection;MODE=Mysql;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        var factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan(MovieSpaceShip.class.getPackageName());
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", "create-drop"));
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+
+        var transactionManager = new JpaTransactionManager(entityManagerFactory);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int i = 1; i <= ROWS; i++) {
+                entityManager.persist(new MovieSpaceShip(null, "Ship " + i, "Movie " + (i % 50)));
+                if (i % 500 == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        });
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManagerFactory.close();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public List<MovieSpaceShipsDto> pageFromEntities() {
+        var after = nextAfterId();
+        return readOnlyTransaction.execute(status -> entityManager
+                .createQuery("SELECT s FROM MovieSpaceShip s WHERE s.id > :id ORDER BY s.id ASC LIMIT :limit", MovieSpaceShip.class)
+                .setParameter("id", after)
+                .setParameter("limit", pageSize)
+                .getResultList().stream()
+                .map(SpaceShipMapper.MAPPER::mapToDto)
+                .toList());
+    }
+
+    @Benchmark
+    public List<MovieSpaceShipsDto> pageFromProjection() {
+        var after = nextAfterId();
+        return readOnlyTransaction.execute(status -> entityManager
+                .createQuery(MovieSpaceShipRepository.SELECT_DTO + " WHERE s.id > :id ORDER BY s.id ASC LIMIT :limit", MovieSpaceShipsDto.class)
+                .setParameter("id", after)
+                .setParameter("limit", pageSize)
+                .getResultList());
+    }
+
+    @Benchmark
+    public MovieSpaceShipsDto byIdFromEntity() {
+        var id = nextAfterId() + 1;
+        return readOnlyTransaction.execute(status ->
+                SpaceShipMapper.MAPPER.mapToDto(entityManager.find(MovieSpaceShip.class, id)));
+    }
+
+    @Benchmark
+    public MovieSpaceShipsDto byIdFromProjection() {
+        var id = nextAfterId() + 1;
+        return readOnlyTransaction.execute(status -> entityManager
+                .createQuery(MovieSpaceShipRepository.SELECT_DTO + " WHERE s.id = :id", MovieSpaceShipsDto.class)
+                .setParameter("id", id)
+                .getSingleResult());
+    }
+
+    // Recorre la tabla para no leer siempre las mismas filas
+    private long nextAfterId() {
+        nextId = (nextId + pageSize) % (ROWS - pageSize);
+        return nextId;
+    }
+}
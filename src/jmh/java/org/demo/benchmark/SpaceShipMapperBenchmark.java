@@ -0,0 +1,32 @@
+package org.demo.benchmark;
+
+import org.demo.dto.MovieSpaceShipsDto;
+import org.demo.persistance.entities.MovieSpaceShip;
+import org.demo.service.mapper.SpaceShipMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SpaceShipMapperBenchmark {
+
+    private final MovieSpaceShip entity = new MovieSpaceShip(1L, "Millennium Falcon", "Star Wars");
+    private final MovieSpaceShipsDto dto = new MovieSpaceShipsDto(1L, "Millennium Falcon", "Star Wars");
+
+    @Benchmark
+    public MovieSpaceShipsDto mapToDto() {
+        return SpaceShipMapper.MAPPER.mapToDto(entity);
+    }
+
+    @Benchmark
+    public MovieSpaceShip mapToEntity() {
+        return SpaceShipMapper.MAPPER.mapToEntity(dto);
+    }
+}
@@ -0,0 +1,79 @@
+package org.demo.benchmark;
+
+import brave.Tracing;
+import brave.handler.SpanHandler;
+import brave.propagation.ThreadLocalCurrentTraceContext;
+import brave.sampler.Sampler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.brave.bridge.BraveBaggageManager;
+import io.micrometer.tracing.brave.bridge.BraveCurrentTraceContext;
+import io.micrometer.tracing.brave.bridge.BraveTracer;
+import org.demo.config.tracing.AdaptiveSamplingSpanHandler;
+import org.demo.service.telemetry.MetricsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Sobrecoste de MetricsService.executeWithTracing (span Brave + timer) frente a la llamada directa.
+ * Los spans se descartan en memoria: solo se mide el coste en el hilo que llama.
+ * ADAPTIVE muestrea todo y filtra al terminar con {@link AdaptiveSamplingSpanHandler}, como en la aplicación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TracingOverheadBenchmark {
+
+    public enum Sampling {ALWAYS, NEVER, ADAPTIVE}
+
+    @Param({"ALWAYS", "NEVER", "ADAPTIVE"})
+    private Sampling sampling;
+
+    private Tracing tracing;
+    private MetricsService metricsService;
+    private final Supplier<Long> operation = System::nanoTime;
+
+    @Setup
+    public void setup() {
+        var builder = Tracing.newBuilder()
+                .currentTraceContext(ThreadLocalCurrentTraceContext.create())
+                .sampler(sampling == Sampling.NEVER ? Sampler.NEVER_SAMPLE : Sampler.ALWAYS_SAMPLE);
+        if (sampling == Sampling.ADAPTIVE) {
+            builder.addSpanHandler(new AdaptiveSamplingSpanHandler(Duration.ofMillis(500), 0.1, false));
+        }
+        // Sin handler Brave escribe cada span en el log, lo que falsearía la medida
+        tracing = builder.addSpanHandler(new SpanHandler() {
+                })
+                .build();
+        var tracer = new BraveTracer(tracing.tracer(),
+                new BraveCurrentTraceContext(tracing.currentTraceContext()), new BraveBaggageManager());
+        var slos = Arrays.stream(MetricsService.DEFAULT_OPERATION_SLO.split(",")).map(Duration::parse).toList();
+        metricsService = new MetricsService(new SimpleMeterRegistry(), tracer, slos);
+    }
+
+    @TearDown
+    public void tearDown() {
+        tracing.close();
+    }
+
+    @Benchmark
+    public Long bareCall() {
+        return operation.get();
+    }
+
+    @Benchmark
+    public Long executeWithTracing() {
+        return metricsService.executeWithTracing("benchmark", operation);
+    }
+}
@@ -2,9 +2,11 @@ package org.demo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
 
-@SpringBootApplication
+// R2DBC es solo para ReactiveApplication: aquí crearía una H2 embebida y desactivaría el DataSource
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class Application {
 
     public static void main(String[] args) {
@@ -1,28 +1,120 @@
 package org.demo.config.cache;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
-import org.springframework.cache.CacheManager;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.demo.config.security.jwt.VerifiedToken;
+import org.demo.dto.MovieSpaceShipsDto;
+import org.demo.service.UserService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Primary;
 
-import java.util.concurrent.TimeUnit;
-
-import static org.demo.utils.Constants.LOGIN_ATTEMPTS_CACHE;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
-    @Primary
-    @Bean(name = "cacheManagerLogin")
-    public CacheManager cacheManagerLogin() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager(LOGIN_ATTEMPTS_CACHE);
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-                .expireAfterWrite(1, TimeUnit.HOURS)
-                .maximumSize(100));
-        return cacheManager;
+    @Bean(name = "spaceShipByIdCache")
+    public Cache<Long, Optional<MovieSpaceShipsDto>> spaceShipByIdCache(
+            @Value("${ships.cache.by-id.maximum-size:10000}") long maximumSize,
+            @Value("${ships.cache.by-id.ttl:PT10M}") Duration ttl,
+            @Value("${ships.cache.by-id.negative-ttl:PT30S}") Duration negativeTtl) {
+        // Los "no existe" se guardan como Optional.empty() con un TTL más corto
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<Long, Optional<MovieSpaceShipsDto>>() {
+                    @Override
+                    public long expireAfterCreate(Long key, Optional<MovieSpaceShipsDto> value, long currentTime) {
+                        return value.isPresent() ? ttl.toNanos() : negativeTtl.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long key, Optional<MovieSpaceShipsDto> value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long key, Optional<MovieSpaceShipsDto> value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    @Bean(name = "spaceShipSearchCache")
+    public Cache<String, Set<MovieSpaceShipsDto>> spaceShipSearchCache(
+            @Value("${ships.cache.search.maximum-size:2000}") long maximumSize,
+            @Value("${ships.cache.search.ttl:PT5M}") Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    @Bean(name = "userCredentialsCache")
+    public Cache<String, Optional<UserService.Credentials>> userCredentialsCache(
+            @Value("${ships.security.user-cache.maximum-size:10000}") long maximumSize,
+            @Value("${ships.security.user-cache.ttl:PT10M}") Duration ttl,
+            @Value("${ships.security.user-cache.negative-ttl:PT30S}") Duration negativeTtl) {
+        // Igual que spaceShipByIdCache: los emails inexistentes se guardan con un TTL más corto
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Optional<UserService.Credentials>>() {
+                    @Override
+                    public long expireAfterCreate(String key, Optional<UserService.Credentials> value, long currentTime) {
+                        return value.isPresent() ? ttl.toNanos() : negativeTtl.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Optional<UserService.Credentials> value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Optional<UserService.Credentials> value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    @Bean(name = "jwtVerifiedTokenCache")
+    public Cache<String, VerifiedToken> jwtVerifiedTokenCache(
+            @Value("${ships.security.token-cache.maximum-size:10000}") long maximumSize,
+            @Value("${ships.security.token-cache.max-ttl:PT1H}") Duration maxTtl) {
+        // Cada entrada vive como mucho hasta la expiración de su token
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        if (value.expiresAt() == null) {
+                            return maxTtl.toNanos();
+                        }
+                        var untilExpiry = Duration.between(Instant.now(), value.expiresAt());
+                        return Math.max(0, Math.min(untilExpiry.toNanos(), maxTtl.toNanos()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
     }
 }
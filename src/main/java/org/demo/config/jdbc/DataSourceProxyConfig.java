@@ -0,0 +1,67 @@
+package org.demo.config.jdbc;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.NanoTimeStopwatchFactory;
+import net.ttddyy.dsproxy.proxy.ProxyConfig;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.demo.service.telemetry.SqlStatementMetricsListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Envuelve cada pool (Hikari) en un ProxyDataSource de datasource-proxy que mide cada
+ * sentencia con System.nanoTime y la pasa a {@link SqlStatementMetricsListener}.
+ * Se desactiva con {@code ships.metrics.sql.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "ships.metrics.sql.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceProxyConfig {
+
+    // Estático: los BeanPostProcessor se crean antes que el resto de beans
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(ObjectProvider<SqlStatementMetricsListener> listener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Los DataSource que solo delegan (enrutado primaria/réplica) no se miden: sus pools ya lo están
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource
+                        || bean instanceof DelegatingDataSource || bean instanceof AbstractRoutingDataSource) {
+                    return bean;
+                }
+                var proxy = new ProxyDataSource(dataSource);
+                proxy.setProxyConfig(ProxyConfig.Builder.create()
+                        .dataSourceName(beanName)
+                        .queryListener(new LazyListener(listener))
+                        .stopwatchFactory(new NanoTimeStopwatchFactory())
+                        .build());
+                return proxy;
+            }
+        };
+    }
+
+    // El listener (y su MeterRegistry) se resuelve en la primera sentencia, no al crear el DataSource
+    private record LazyListener(ObjectProvider<SqlStatementMetricsListener> listener) implements QueryExecutionListener {
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            var delegate = listener.getIfAvailable();
+            if (delegate != null) {
+                delegate.afterQuery(execInfo, queryInfoList);
+            }
+        }
+    }
+}
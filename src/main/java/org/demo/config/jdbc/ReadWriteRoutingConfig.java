@@ -0,0 +1,81 @@
+package org.demo.config.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.demo.service.datasource.ReadWriteRoutingService;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Dos pools Hikari, {@code primary} (spring.datasource.*) y {@code replica}
+ * (ships.datasource.replica.*), detrás de un único DataSource que JPA usa sin saber nada:
+ * las transacciones readOnly van a la réplica y el resto a la primaria (ver ReadWriteRoutingService).
+ * Cada pool publica sus propias métricas (hikaricp_*{pool}, jdbc_connections_*{name}).
+ * Flyway migra la primaria; con {@code ships.datasource.replica.migrate=true} también la réplica,
+ * para probar en local con dos H2 independientes.
+ */
+@Configuration
+@ConditionalOnProperty(name = "ships.datasource.replica.enabled", havingValue = "true")
+public class ReadWriteRoutingConfig {
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        var dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("ships.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${ships.datasource.replica.url}") String url,
+                                              @Value("${ships.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${ships.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        var dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        // Un pool que solo lee: el driver puede enviar las sentencias a la réplica sin bloqueos de escritura
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReadWriteRoutingService routingService) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, routingService));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "ships.datasource.replica.migrate", havingValue = "true")
+    public FlywayMigrationStrategy replicaMigrationStrategy(@Qualifier("replicaDataSource") DataSource replica) {
+        return flyway -> {
+            flyway.migrate();
+            Flyway.configure()
+                    .configuration(flyway.getConfiguration())
+                    .dataSource(replica)
+                    .load()
+                    .migrate();
+        };
+    }
+}
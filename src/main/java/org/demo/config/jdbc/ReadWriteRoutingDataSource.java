@@ -0,0 +1,46 @@
+package org.demo.config.jdbc;
+
+import org.demo.service.datasource.DataSourceRoute;
+import org.demo.service.datasource.ReadWriteRoutingService;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Entrega conexiones de la primaria o de la réplica según {@link ReadWriteRoutingService#route()}.
+ * Debe usarse detrás de un LazyConnectionDataSourceProxy: la conexión se pide al ejecutar la
+ * primera sentencia, cuando la transacción ya está marcada como readOnly o de escritura.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReadWriteRoutingService routingService;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReadWriteRoutingService routingService) {
+        this.routingService = routingService;
+        setTargetDataSources(Map.of(DataSourceRoute.PRIMARY, primary, DataSourceRoute.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return routingService.route();
+    }
+
+    // No es un pool: así las métricas de pools (hikaricp, jdbc.connections) no cuentan la primaria dos veces
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return (T) this;
+        }
+        throw new SQLException("ReadWriteRoutingDataSource cannot be unwrapped to " + iface.getName());
+    }
+}
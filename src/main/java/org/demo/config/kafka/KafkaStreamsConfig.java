@@ -0,0 +1,76 @@
+package org.demo.config.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.demo.service.kafka.streams.LoginAttemptsTopology;
+import org.demo.service.kafka.streams.LoginLockoutService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadFactory;
+
+import static org.demo.utils.Constants.LOGIN_LOCKOUTS_TOPIC;
+
+/**
+ * Kafka Streams (spring.kafka.streams) con la topología de intentos de login.
+ * El KafkaStreams lo gestiona {@link LoginAttemptsStreamsLifecycle}, no StreamsBuilderFactoryBean.
+ * Se puede desactivar con {@code ships.kafka.streams.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "ships.kafka.streams.enabled", havingValue = "true", matchIfMissing = true)
+public class KafkaStreamsConfig {
+
+    @Bean
+    public LoginAttemptsTopology loginAttemptsTopology(StreamsBuilder streamsBuilder,
+                                                       ObjectMapper objectMapper,
+                                                       @Value("${ships.kafka.streams.login.window:PT15M}") Duration window,
+                                                       @Value("${ships.kafka.streams.login.grace:PT1M}") Duration grace,
+                                                       @Value("${ships.kafka.streams.login.user-threshold:5}") int userThreshold,
+                                                       @Value("${ships.kafka.streams.login.source-threshold:50}") int sourceThreshold) {
+        var topology = new LoginAttemptsTopology(objectMapper, window, grace, userThreshold, sourceThreshold);
+        topology.build(streamsBuilder);
+        return topology;
+    }
+
+    @Bean
+    public StreamsBuilder loginAttemptsStreamsBuilder() {
+        return new StreamsBuilder();
+    }
+
+    /**
+     * Se arranca en segundo plano (ver LoginAttemptsStreamsLifecycle); hasta que llega a RUNNING
+     * las consultas responden 503 y solo se aplica el bloqueo local.
+     * loginAttemptsTopology se recibe para que la topología ya esté en streamsBuilder al construirla.
+     */
+    @Bean
+    public LoginAttemptsStreamsLifecycle loginAttemptsStreams(StreamsBuilder streamsBuilder,
+                                                              LoginAttemptsTopology loginAttemptsTopology,
+                                                              KafkaProperties kafkaProperties,
+                                                              LoginLockoutService loginLockoutService,
+                                                              @Qualifier("backgroundThreadFactory") ThreadFactory threadFactory,
+                                                              @Value("${spring.application.name}") String applicationName,
+                                                              @Value("${ships.kafka.streams.close-timeout:PT10S}") Duration closeTimeout) {
+        var properties = kafkaProperties.buildStreamsProperties();
+        // Igual que la autoconfiguración de Boot: sin application-id se usa el nombre de la aplicación
+        properties.putIfAbsent(StreamsConfig.APPLICATION_ID_CONFIG, applicationName);
+        return new LoginAttemptsStreamsLifecycle(streamsBuilder.build(), properties, loginLockoutService,
+                threadFactory, closeTimeout);
+    }
+
+    // Compactado: por cada usuario u origen basta con conservar la última decisión
+    @Bean
+    public NewTopic loginLockoutsTopic() {
+        return TopicBuilder.name(LOGIN_LOCKOUTS_TOPIC)
+                .partitions(1)
+                .compact()
+                .build();
+    }
+}
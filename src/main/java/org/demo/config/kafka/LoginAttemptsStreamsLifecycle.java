@@ -0,0 +1,88 @@
+package org.demo.config.kafka;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.Topology;
+import org.demo.service.kafka.streams.LoginLockoutService;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Arranca y cierra el KafkaStreams de {@link org.demo.service.kafka.streams.LoginAttemptsTopology}.
+ * KafkaStreams.start() espera a cargar la GlobalKTable desde el broker, así que se lanza en segundo
+ * plano y un broker caído no bloquea el arranque. El cierre espera como mucho
+ * {@code ships.kafka.streams.close-timeout}, de modo que la aplicación se detiene aunque el stream no
+ * haya llegado a arrancar (con StreamsBuilderFactoryBean el start() en segundo plano retenía su
+ * monitor y el stop() del cierre esperaba indefinidamente).
+ */
+@Slf4j
+public class LoginAttemptsStreamsLifecycle implements SmartLifecycle {
+
+    private final Topology topology;
+    private final Map<String, Object> streamsProperties;
+    private final LoginLockoutService loginLockoutService;
+    private final ThreadFactory threadFactory;
+    private final Duration closeTimeout;
+
+    private volatile KafkaStreams kafkaStreams;
+
+    public LoginAttemptsStreamsLifecycle(Topology topology,
+                                         Map<String, Object> streamsProperties,
+                                         LoginLockoutService loginLockoutService,
+                                         ThreadFactory threadFactory,
+                                         Duration closeTimeout) {
+        this.topology = topology;
+        this.streamsProperties = streamsProperties;
+        this.loginLockoutService = loginLockoutService;
+        this.threadFactory = threadFactory;
+        this.closeTimeout = closeTimeout;
+    }
+
+    @Override
+    public void start() {
+        var streams = new KafkaStreams(topology, new StreamsConfig(streamsProperties));
+        streams.setStateListener(loginLockoutService);
+        kafkaStreams = streams;
+        loginLockoutService.streamsStarted(streams);
+        threadFactory.newThread(() -> {
+            try {
+                streams.start();
+            } catch (RuntimeException e) {
+                // p. ej. si la aplicación se cierra antes de que el stream termine de arrancar
+                log.warn("Login attempts stream did not start: {}", e.getMessage());
+            }
+        }).start();
+    }
+
+    @Override
+    public void stop() {
+        var streams = kafkaStreams;
+        if (streams == null) {
+            return;
+        }
+        kafkaStreams = null;
+        loginLockoutService.streamsClosed();
+        // KafkaStreams.start() y close() comparten el monitor de la instancia: si start() sigue esperando
+        // a la GlobalKTable, close() no puede ni empezar. Se cierra desde otro hilo y se espera como mucho
+        // closeTimeout; si no termina, el hilo (daemon) no impide que la JVM salga.
+        var closer = threadFactory.newThread(() -> streams.close(closeTimeout));
+        closer.start();
+        try {
+            closer.join(closeTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (closer.isAlive()) {
+            log.warn("Login attempts stream did not close within {}, leaving it to the JVM shutdown", closeTimeout);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return kafkaStreams != null;
+    }
+}
@@ -1,16 +1,23 @@
 package org.demo.config.rabbitmq;
 
 import org.demo.service.rabbitmq.RabbitMQReceiverService;
+import org.springframework.amqp.core.AcknowledgeMode;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.rabbit.annotation.EnableRabbit;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
-import org.springframework.amqp.rabbit.listener.adapter.MessageListenerAdapter;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 
+import java.time.Duration;
+import java.util.concurrent.ThreadFactory;
+
+import static org.demo.utils.Constants.AUDIT_DEAD_LETTER_QUEUE;
 import static org.demo.utils.Constants.AUDIT_QUEUE;
 
 @Configuration
@@ -22,23 +29,46 @@ public class ConfigureRabbitMq {
         return new Queue(AUDIT_QUEUE, false);
     }
 
+    // Mensajes que RabbitMQReceiverService no ha podido guardar (p. ej. violan una restricción)
+    @Bean
+    public Queue auditDeadLetterQueue() {
+        return new Queue(AUDIT_DEAD_LETTER_QUEUE, true);
+    }
+
+    /**
+     * Consumidores de auditoría en modo batch: cada consumidor entrega un bloque a
+     * {@link RabbitMQReceiverService} al reunir {@code batch-size} mensajes o tras
+     * {@code receive-timeout} sin recibir ninguno nuevo. Con AUTO el ack del bloque se
+     * envía cuando el listener termina, después del commit en base de datos.
+     * Por defecto el bloque coincide con hibernate.jdbc.batch_size, así que se inserta
+     * en un solo batch JDBC.
+     */
     @Bean
     public SimpleMessageListenerContainer container(ConnectionFactory connectionFactory,
-                                                    MessageListenerAdapter listenerAdapter) {
+                                                    RabbitMQReceiverService receiver,
+                                                    @Qualifier("backgroundThreadFactory") ThreadFactory threadFactory,
+                                                    @Value("${ships.audit.consumer.concurrency:2}") int concurrency,
+                                                    @Value("${ships.audit.consumer.max-concurrency:4}") int maxConcurrency,
+                                                    @Value("${ships.audit.consumer.prefetch:250}") int prefetch,
+                                                    @Value("${ships.audit.consumer.batch-size:${ships.bulk.batch-size:50}}") int batchSize,
+                                                    @Value("${ships.audit.consumer.receive-timeout:PT1S}") Duration receiveTimeout) {
         SimpleMessageListenerContainer container = new SimpleMessageListenerContainer();
         container.setConnectionFactory(connectionFactory);
+        // Consumidores en hilos virtuales o de plataforma según ships.threads.virtual.enabled
+        container.setTaskExecutor(new SimpleAsyncTaskExecutor(threadFactory));
         container.setQueueNames(AUDIT_QUEUE);
-        container.setMessageListener(listenerAdapter);
+        container.setConcurrentConsumers(concurrency);
+        container.setMaxConcurrentConsumers(Math.max(concurrency, maxConcurrency));
+        // El prefetch debe cubrir al menos un bloque completo
+        container.setPrefetchCount(Math.max(prefetch, batchSize));
+        container.setConsumerBatchEnabled(true);
+        container.setBatchSize(batchSize);
+        container.setReceiveTimeout(receiveTimeout.toMillis());
+        container.setAcknowledgeMode(AcknowledgeMode.AUTO);
+        container.setMessageListener(receiver);
         return container;
     }
 
-    @Bean
-    public MessageListenerAdapter listenerAdapter(RabbitMQReceiverService receiver, Jackson2JsonMessageConverter messageConverter) {
-        MessageListenerAdapter adapter = new MessageListenerAdapter(receiver, "receiveMessage");
-        adapter.setMessageConverter(messageConverter);
-        return adapter;
-    }
-
     @Bean
     public Jackson2JsonMessageConverter jackson2JsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
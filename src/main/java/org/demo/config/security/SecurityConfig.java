@@ -1,6 +1,7 @@
 package org.demo.config.security;
 
 import org.demo.config.security.jwt.JWTAuthorizationFilter;
+import org.demo.config.security.jwt.JwtTokenVerifier;
 import org.demo.config.security.provider.CustomAuthenticationProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
@@ -32,6 +33,8 @@ public class SecurityConfig {
     private PasswordEncoder passwordEncoder;
     @Autowired
     private CustomAuthenticationProvider customAuthenticationProvider;
+    @Autowired
+    private JwtTokenVerifier jwtTokenVerifier;
 
     private final String[] WHITE_LIST = {
             "/swagger*/**",
@@ -68,7 +71,7 @@ public class SecurityConfig {
     }
 
     public JWTAuthorizationFilter getJwtAuthorizationFilter() {
-        return new JWTAuthorizationFilter(authenticationManager());
+        return new JWTAuthorizationFilter(authenticationManager(), jwtTokenVerifier);
     }
 
 }
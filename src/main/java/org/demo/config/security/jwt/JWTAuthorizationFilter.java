@@ -1,7 +1,6 @@
 package org.demo.config.security.jwt;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.jsonwebtoken.Jwts;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,13 +17,17 @@ import java.io.IOException;
 import java.util.ArrayList;
 
 import static org.demo.utils.Constants.HEADER_AUTHORIZACION_KEY;
-import static org.demo.utils.Constants.SUPER_SECRET_KEY;
 import static org.demo.utils.Constants.TOKEN_BEARER_PREFIX;
 
 public class JWTAuthorizationFilter extends BasicAuthenticationFilter {
 
-    public JWTAuthorizationFilter(AuthenticationManager authManager) {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final JwtTokenVerifier jwtTokenVerifier;
+
+    public JWTAuthorizationFilter(AuthenticationManager authManager, JwtTokenVerifier jwtTokenVerifier) {
         super(authManager);
+        this.jwtTokenVerifier = jwtTokenVerifier;
     }
 
     @Override
@@ -42,12 +45,11 @@ public class JWTAuthorizationFilter extends BasicAuthenticationFilter {
             SecurityContextHolder.getContext().setAuthentication(authentication);
             chain.doFilter(req, res);
         } catch (ServiceException ex) {
-            final ObjectMapper mapper = new ObjectMapper();
             final HttpErrorInfoJson httpErrorInfoDto = FormatUtils.httpErrorInfoFormatted(HttpStatus.UNAUTHORIZED, req, ex);
 
             res.setContentType("application/json;charset=UTF-8");
             res.setStatus(HttpStatus.UNAUTHORIZED.value());
-            res.getWriter().write(mapper.writeValueAsString(httpErrorInfoDto));
+            res.getWriter().write(MAPPER.writeValueAsString(httpErrorInfoDto));
         }
     }
 
@@ -56,17 +58,9 @@ public class JWTAuthorizationFilter extends BasicAuthenticationFilter {
         if (token != null) {
             // Se procesa el token y se recupera el usuario.
             token = token.replace(TOKEN_BEARER_PREFIX, "");
-            try {
-                String user = Jwts.parser()
-                        .setSigningKey(SUPER_SECRET_KEY.getBytes())
-                        .parseClaimsJws(token)
-                        .getBody()
-                        .getSubject();
-                if (user != null) {
-                    return new UsernamePasswordAuthenticationToken(user, null, new ArrayList<>());
-                }
-            } catch (Exception exception) {
-                throw new ServiceException("Authentication was not posible: " + exception.getMessage(), 403);
+            String user = jwtTokenVerifier.verify(token).subject();
+            if (user != null) {
+                return new UsernamePasswordAuthenticationToken(user, null, new ArrayList<>());
             }
 
             return null;
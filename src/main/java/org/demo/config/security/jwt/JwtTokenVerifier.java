@@ -0,0 +1,75 @@
+package org.demo.config.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.demo.exception.ServiceException;
+import org.demo.service.telemetry.MetricsService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Objects;
+
+import static org.demo.utils.Constants.SUPER_SECRET_KEY;
+
+/**
+ * Verifica los tokens Bearer con un parser y una clave construidos una sola vez.
+ * Los tokens ya verificados se guardan (por su SHA-256, nunca el token en claro)
+ * hasta su expiración, de modo que las peticiones repetidas con el mismo token
+ * no vuelven a decodificar ni a comprobar la firma.
+ */
+@Component
+public class JwtTokenVerifier {
+
+    public static final String VERIFIED_TOKEN_CACHE_NAME = "jwtVerifiedTokens";
+
+    private final JwtParser jwtParser;
+    private final Cache<String, VerifiedToken> verifiedTokenCache;
+
+    public JwtTokenVerifier(@Qualifier("jwtVerifiedTokenCache") Cache<String, VerifiedToken> verifiedTokenCache,
+                            MetricsService metricsService) {
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SUPER_SECRET_KEY.getBytes()))
+                .build();
+        this.verifiedTokenCache = verifiedTokenCache;
+
+        metricsService.registerCache(VERIFIED_TOKEN_CACHE_NAME, verifiedTokenCache);
+    }
+
+    public VerifiedToken verify(String token) {
+        var key = digest(token);
+        var verified = verifiedTokenCache.get(key, ignored -> parse(token));
+        // La caché expira con el token, pero puede quedar un margen por la resolución del reloj
+        if (verified.isExpired(Instant.now())) {
+            verifiedTokenCache.invalidate(key);
+            throw new ServiceException("Authentication was not posible: token expired", 403);
+        }
+        return verified;
+    }
+
+    private VerifiedToken parse(String token) {
+        try {
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            var expiresAt = Objects.isNull(claims.getExpiration()) ? null : claims.getExpiration().toInstant();
+            return new VerifiedToken(claims.getSubject(), expiresAt);
+        } catch (Exception exception) {
+            throw new ServiceException("Authentication was not posible: " + exception.getMessage(), 403);
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            var hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.demo.config.security.jwt;
+
+import java.time.Instant;
+
+/**
+ * Resultado de verificar un JWT: el usuario y hasta cuándo es válido el token.
+ */
+public record VerifiedToken(String subject, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+}
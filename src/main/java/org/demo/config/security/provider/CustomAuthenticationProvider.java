@@ -3,11 +3,11 @@ package org.demo.config.security.provider;
 import org.demo.dto.LoginAttemptDto;
 import org.demo.service.UserService;
 import org.demo.service.kafka.KafkaSenderService;
+import org.demo.service.kafka.streams.LoginLockoutService;
+import org.demo.service.security.LoginAttemptService;
+import org.demo.service.security.PasswordVerificationService;
 import org.demo.service.telemetry.MetricsService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -15,28 +15,29 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
-import java.util.Objects;
 
-import static org.demo.utils.Constants.LOGIN_ATTEMPTS_CACHE;
 import static org.demo.utils.Constants.LOGIN_ATTEMPTS_TOPIC;
 
 @Component
 public class CustomAuthenticationProvider implements AuthenticationProvider {
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordVerificationService passwordVerificationService;
 
     @Autowired
-    @Qualifier("cacheManagerLogin")
-    private CacheManager cacheManagerLogin;
+    private LoginAttemptService loginAttemptService;
+
+    @Autowired
+    private LoginLockoutService loginLockoutService;
 
     @Autowired
     private UserService userService;
@@ -50,10 +51,8 @@ public class CustomAuthenticationProvider implements AuthenticationProvider {
     @Override
     public Authentication authenticate(Authentication authentication) {
         final String username = authentication.getName();
-        final var attemps = Objects.requireNonNull(cacheManagerLogin.getCache(LOGIN_ATTEMPTS_CACHE)).get(username);
-        var attempsValue = 0;
 
-        checkIfNumberOfPossibleAttemptsReached(attemps, username);
+        checkIfNumberOfPossibleAttemptsReached(username);
 
         var user = userService.loadUserByUsername(username);
 
@@ -61,22 +60,18 @@ public class CustomAuthenticationProvider implements AuthenticationProvider {
             var apiPass = new String(Base64.getDecoder().decode((String) authentication.getCredentials()));
             var dbPass = user.getPassword();
 
-            if (username.equals(user.getUsername()) && passwordEncoder.matches(apiPass, dbPass)) {
-                Objects.requireNonNull(cacheManagerLogin.getCache(LOGIN_ATTEMPTS_CACHE)).evict(username);
+            if (username.equals(user.getUsername()) && passwordVerificationService.matches(apiPass, dbPass)) {
+                loginAttemptService.reset(username);
 
                 final List<GrantedAuthority> authorities = new ArrayList<>();
                 user.getAuthorities().forEach(authority -> authorities.add(new SimpleGrantedAuthority(authority)));
 
                 return new UsernamePasswordAuthenticationToken(user.getUsername(), user.getPassword(), authorities);
             } else {
-
-                if (Objects.isNull(attemps)) {
-                    Objects.requireNonNull(cacheManagerLogin.getCache(LOGIN_ATTEMPTS_CACHE)).put(username, 1);
-                    throw new BadCredentialsException("Incorrect username or password!");
-                }
-
-                attempsValue = (Integer) Objects.requireNonNull(attemps.get());
-                Objects.requireNonNull(cacheManagerLogin.getCache(LOGIN_ATTEMPTS_CACHE)).put(username, attempsValue + 1);
+                var attempts = loginAttemptService.recordFailure(username);
+                // Cada fallo alimenta la topología de Kafka Streams que calcula los bloqueos compartidos
+                kafkaSenderService.sendMessage(LOGIN_ATTEMPTS_TOPIC,
+                        loginAttempt(username, "Incorrect username or password", LoginAttemptDto.Outcome.FAILED, attempts));
                 throw new BadCredentialsException("Incorrect username or password!");
             }
         } else {
@@ -84,27 +79,41 @@ public class CustomAuthenticationProvider implements AuthenticationProvider {
         }
     }
 
-    private void checkIfNumberOfPossibleAttemptsReached(Cache.ValueWrapper attemps, String username) {
+    private void checkIfNumberOfPossibleAttemptsReached(String username) {
         metricsService.executeWithTracing("checkIfNumberOfPossibleAttemptsReached", () -> {
-            if (Objects.nonNull(attemps)) {
-                var attempsValue = (Integer) Objects.requireNonNull(attemps.get());
-                if (attempsValue >= 5) {
-
-                    var loginAttemptDto = LoginAttemptDto.builder()
-                            .username(username)
-                            .message("User reached maximum login attempts")
-                            .attempts(attempsValue)
-                            .timestamp(LocalDateTime.now().toEpochSecond(ZoneOffset.UTC))
-                            .build();
-
-                    kafkaSenderService.sendMessage(LOGIN_ATTEMPTS_TOPIC, loginAttemptDto);
-                    metricsService.incrementKafkaMessagesSent();
-                    throw new BadCredentialsException("Number of possible attempts reached!");
-                }
+            var attempts = loginAttemptService.attempts(username);
+            // Bloqueo local de este nodo o bloqueo decidido por Kafka Streams con los intentos de todos los nodos,
+            // tanto del usuario como de la IP de origen
+            if (loginAttemptService.isBlocked(attempts) || loginLockoutService.isUserLocked(username)
+                    || loginLockoutService.isSourceLocked(clientSource())) {
+                metricsService.incrementLoginBlocked();
+
+                // Encolado asíncrono: no espera a Kafka. BLOCKED no suma a los fallos de la topología
+                kafkaSenderService.sendMessage(LOGIN_ATTEMPTS_TOPIC,
+                        loginAttempt(username, "User reached maximum login attempts", LoginAttemptDto.Outcome.BLOCKED, attempts));
+                throw new BadCredentialsException("Number of possible attempts reached!");
             }
         });
     }
 
+    private static LoginAttemptDto loginAttempt(String username, String message, LoginAttemptDto.Outcome outcome, int attempts) {
+        return LoginAttemptDto.builder()
+                .username(username)
+                .source(clientSource())
+                .message(message)
+                .outcome(outcome)
+                .attempts(attempts)
+                .timestamp(LocalDateTime.now().toEpochSecond(ZoneOffset.UTC))
+                .build();
+    }
+
+    private static String clientSource() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            return attributes.getRequest().getRemoteAddr();
+        }
+        return null;
+    }
+
     @Override
     public boolean supports(Class<?> aClass) {
         return true;
@@ -0,0 +1,85 @@
+package org.demo.config.threads;
+
+import io.micrometer.context.ContextSnapshotFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.task.TaskSchedulerCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.kafka.config.ContainerCustomizer;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Modo de ejecución con hilos virtuales (Java 21), activable con {@code ships.threads.virtual.enabled}.
+ * Con el modo activo Tomcat, los listeners de RabbitMQ y Kafka, el executor de tareas
+ * asíncronas, el scheduler y los hilos de fondo propios usan un hilo virtual por tarea;
+ * con el modo desactivado se mantienen los pools de hilos de plataforma por defecto.
+ */
+@Configuration
+@Slf4j
+public class ThreadsConfig {
+
+    public static final String VIRTUAL_THREADS_PROPERTY = "ships.threads.virtual.enabled";
+
+    /**
+     * Captura el contexto (traza, MDC, seguridad) del hilo que lanza una tarea para restaurarlo en el
+     * hilo que la ejecuta. Compartida para no construir una por tarea.
+     */
+    @Bean
+    public ContextSnapshotFactory contextSnapshotFactory() {
+        return ContextSnapshotFactory.builder().build();
+    }
+
+    /**
+     * Factoría para los listeners de mensajería y los hilos de fondo de la aplicación.
+     */
+    @Bean(name = "backgroundThreadFactory")
+    public ThreadFactory backgroundThreadFactory(@Value("${" + VIRTUAL_THREADS_PROPERTY + ":false}") boolean virtualThreads) {
+        log.info("Background threads running on {} threads", virtualThreads ? "virtual" : "platform");
+        return virtualThreads
+                ? Thread.ofVirtual().name("background-virtual-", 0).factory()
+                : Thread.ofPlatform().name("background-", 0).daemon().factory();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = VIRTUAL_THREADS_PROPERTY, havingValue = "true")
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = VIRTUAL_THREADS_PROPERTY, havingValue = "true")
+    public ContainerCustomizer<Object, Object, ConcurrentMessageListenerContainer<Object, Object>> virtualThreadsKafkaContainerCustomizer() {
+        return container -> container.getContainerProperties()
+                .setListenerTaskExecutor(virtualTaskExecutor("kafka-listener-"));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = VIRTUAL_THREADS_PROPERTY, havingValue = "true")
+    public TaskSchedulerCustomizer virtualThreadsTaskSchedulerCustomizer() {
+        return taskScheduler -> taskScheduler.setThreadFactory(Thread.ofVirtual().name("scheduling-virtual-", 0).factory());
+    }
+
+    /**
+     * Sustituye al executor de Spring Boot (@Async, peticiones MVC asíncronas).
+     * Las tareas arrancan con el contexto del hilo que las lanza (traza, MDC) gracias al ContextSnapshot.
+     */
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    @ConditionalOnProperty(name = VIRTUAL_THREADS_PROPERTY, havingValue = "true")
+    public AsyncTaskExecutor applicationTaskExecutor(ContextSnapshotFactory contextSnapshotFactory) {
+        var executor = virtualTaskExecutor("task-virtual-");
+        executor.setTaskDecorator(runnable -> contextSnapshotFactory.captureAll().wrap(runnable));
+        return executor;
+    }
+
+    private static SimpleAsyncTaskExecutor virtualTaskExecutor(String prefix) {
+        return new SimpleAsyncTaskExecutor(Thread.ofVirtual().name(prefix, 0).factory());
+    }
+}
@@ -0,0 +1,63 @@
+package org.demo.config.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+
+import java.time.Duration;
+
+/**
+ * Muestreo adaptativo en el momento de exportar: los spans con error o más lentos que
+ * {@code slowThreshold} se conservan siempre y el resto se conserva en la proporción
+ * {@code routineRate}. Los errores de cliente (4xx, credenciales incorrectas) solo se conservan
+ * siempre con {@code keepClientErrors}; si no, cuentan como rutinarios, para que un cliente que
+ * falla en bucle no llene el exportador. La decisión sobre los rutinarios depende solo del traceId, así que
+ * todos los spans rutinarios de una misma traza se conservan o se descartan juntos.
+ * Devolver false en {@link #end} evita que los handlers posteriores (Zipkin) reciban el span.
+ */
+public class AdaptiveSamplingSpanHandler extends SpanHandler {
+
+    private static final long RATE_PRECISION = 10_000;
+
+    private final long slowThresholdMicros;
+    private final long routineThreshold;
+    private final boolean keepClientErrors;
+
+    public AdaptiveSamplingSpanHandler(Duration slowThreshold, double routineRate, boolean keepClientErrors) {
+        if (routineRate < 0 || routineRate > 1) {
+            throw new IllegalArgumentException("routineRate must be between 0 and 1: " + routineRate);
+        }
+        this.slowThresholdMicros = slowThreshold.toNanos() / 1_000;
+        this.routineThreshold = Math.round(routineRate * RATE_PRECISION);
+        this.keepClientErrors = keepClientErrors;
+    }
+
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        // Los spans abandonados o huérfanos no se muestrean: deciden los handlers posteriores
+        if (cause != Cause.FINISHED) {
+            return true;
+        }
+        return isError(span) || isSlow(span) || keepRoutine(context);
+    }
+
+    private boolean isSlow(MutableSpan span) {
+        var start = span.startTimestamp();
+        var finish = span.finishTimestamp();
+        return start != 0 && finish != 0 && finish - start >= slowThresholdMicros;
+    }
+
+    private boolean keepRoutine(TraceContext context) {
+        return Math.floorMod(context.traceId(), RATE_PRECISION) < routineThreshold;
+    }
+
+    private boolean isError(MutableSpan span) {
+        // Peticiones HTTP instrumentadas por Spring y operaciones de MetricsService: outcome CLIENT_ERROR / SERVER_ERROR
+        var outcome = span.tag("outcome");
+        if ("CLIENT_ERROR".equals(outcome)) {
+            return keepClientErrors;
+        }
+        return span.error() != null || "error".equals(span.tag("status")) || span.tag("error") != null
+                || "SERVER_ERROR".equals(outcome);
+    }
+}
@@ -0,0 +1,27 @@
+package org.demo.config.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.time.Duration;
+
+@Configuration
+public class TracingConfig {
+
+    /**
+     * Se registra antes que el handler de Zipkin para poder descartar los spans rutinarios.
+     * El muestreo de cabecera (management.tracing.sampling.probability) sigue en 1.0 porque
+     * al empezar un span no se sabe aún si va a fallar o a ser lento.
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public AdaptiveSamplingSpanHandler adaptiveSamplingSpanHandler(
+            @Value("${ships.tracing.sampling.slow-threshold:PT0.5S}") Duration slowThreshold,
+            @Value("${ships.tracing.sampling.routine-rate:0.1}") double routineRate,
+            @Value("${ships.tracing.sampling.keep-client-errors:false}") boolean keepClientErrors) {
+        return new AdaptiveSamplingSpanHandler(slowThreshold, routineRate, keepClientErrors);
+    }
+}
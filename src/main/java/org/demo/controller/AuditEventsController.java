@@ -0,0 +1,51 @@
+package org.demo.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.demo.dto.AuditRecordDto;
+import org.demo.dto.KeysetPageDto;
+import org.demo.service.audit.AuditEventService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+
+import static org.demo.utils.Constants.API_VERSION_PATH;
+
+@RestController
+@RequestMapping(API_VERSION_PATH)
+@RequiredArgsConstructor
+public class AuditEventsController {
+
+    private final AuditEventService auditEventService;
+
+    @GetMapping(path = "/audit-events/ships/{shipId}")
+    public ResponseEntity<KeysetPageDto<AuditRecordDto>> findByShip(@PathVariable("shipId") Long shipId,
+                                                                    @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                                    @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                                                    @RequestParam(value = "after", required = false) String after,
+                                                                    @RequestParam(value = "size", defaultValue = "50") int size) {
+        return ResponseEntity.ok(auditEventService.findByShip(shipId, from, to, after, size));
+    }
+
+    @GetMapping(path = "/audit-events/users/{user}")
+    public ResponseEntity<KeysetPageDto<AuditRecordDto>> findByUser(@PathVariable("user") String user,
+                                                                    @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                                    @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                                                    @RequestParam(value = "after", required = false) String after,
+                                                                    @RequestParam(value = "size", defaultValue = "50") int size) {
+        return ResponseEntity.ok(auditEventService.findByUser(user, from, to, after, size));
+    }
+
+    @GetMapping(path = "/audit-events")
+    public ResponseEntity<KeysetPageDto<AuditRecordDto>> findByTimeRange(@RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                                         @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                                                         @RequestParam(value = "after", required = false) String after,
+                                                                         @RequestParam(value = "size", defaultValue = "50") int size) {
+        return ResponseEntity.ok(auditEventService.findByTimeRange(from, to, after, size));
+    }
+}
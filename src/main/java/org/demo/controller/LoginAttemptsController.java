@@ -0,0 +1,30 @@
+package org.demo.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.demo.dto.LoginLockoutDto;
+import org.demo.service.kafka.streams.LoginLockoutService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.demo.utils.Constants.API_VERSION_PATH;
+
+@RestController
+@RequestMapping(API_VERSION_PATH)
+@RequiredArgsConstructor
+public class LoginAttemptsController {
+
+    private final LoginLockoutService loginLockoutService;
+
+    @GetMapping(path = "/login-attempts/users/{username}")
+    public ResponseEntity<LoginLockoutDto> findByUser(@PathVariable("username") String username) {
+        return ResponseEntity.ok(loginLockoutService.getLockout(LoginLockoutDto.Type.USER, username));
+    }
+
+    @GetMapping(path = "/login-attempts/sources/{source}")
+    public ResponseEntity<LoginLockoutDto> findBySource(@PathVariable("source") String source) {
+        return ResponseEntity.ok(loginLockoutService.getLockout(LoginLockoutDto.Type.SOURCE, source));
+    }
+}
@@ -1,10 +1,22 @@
 package org.demo.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.demo.dto.BulkResultDto;
+import org.demo.dto.ImportResultDto;
+import org.demo.dto.KeysetPageDto;
 import org.demo.dto.MovieSpaceShipsDto;
+import org.demo.service.MovieSpaceShipBulkService;
 import org.demo.service.MovieSpaceShipService;
-import org.springframework.data.domain.Page;
+import org.demo.service.export.ExportFormat;
+import org.demo.service.export.SpaceShipExportService;
+import org.demo.service.importer.SpaceShipImportService;
+import org.demo.utils.ETagUtils;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,10 +24,14 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 
 import static org.demo.utils.Constants.API_VERSION_PATH;
@@ -26,17 +42,56 @@ import static org.demo.utils.Constants.API_VERSION_PATH;
 public class MovieSpaceShipsController {
 
     private final MovieSpaceShipService movieSpaceShipService;
+    private final MovieSpaceShipBulkService movieSpaceShipBulkService;
+    private final SpaceShipExportService spaceShipExportService;
+    private final SpaceShipImportService spaceShipImportService;
 
     @GetMapping(path = "/space-ships")
-    public ResponseEntity<Page<MovieSpaceShipsDto>> findAll(@RequestParam(value = "page", defaultValue = "0") int page,
-                                                            @RequestParam(value = "size", defaultValue = "10") int size) {
+    public ResponseEntity<Slice<MovieSpaceShipsDto>> findAll(@RequestParam(value = "page", defaultValue = "0") int page,
+                                                             @RequestParam(value = "size", defaultValue = "10") int size,
+                                                             @RequestParam(value = "total", defaultValue = "true") boolean total,
+                                                             @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
 
-        return ResponseEntity.ok().body(movieSpaceShipService.getSpaceShips(PageRequest.of(page, size)));
+        // Con ETag, un If-None-Match que coincide se responde 304 sin serializar el cuerpo
+        if (!total) {
+            var slice = movieSpaceShipService.getSpaceShipsWithoutTotal(PageRequest.of(page, size));
+            return ResponseEntity.ok()
+                    .eTag(ETagUtils.of(accept, slice.getContent(), page, size, slice.hasNext() ? 1 : 0))
+                    .body(slice);
+        }
+        var spaceShips = movieSpaceShipService.getSpaceShips(PageRequest.of(page, size));
+        return ResponseEntity.ok()
+                .eTag(ETagUtils.of(accept, spaceShips.getContent(), page, size, spaceShips.getTotalElements()))
+                .body(spaceShips);
+    }
+
+    @GetMapping(path = "/space-ships", params = "pagination=keyset")
+    public ResponseEntity<KeysetPageDto<MovieSpaceShipsDto>> findAllKeyset(@RequestParam(value = "after", required = false) String after,
+                                                                           @RequestParam(value = "sort", defaultValue = "id") String sort,
+                                                                           @RequestParam(value = "size", defaultValue = "10") int size,
+                                                                           @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+
+        var keysetPage = movieSpaceShipService.getSpaceShipsAfter(after, sort, size);
+        return ResponseEntity.ok()
+                .eTag(ETagUtils.of(accept, keysetPage.getContent(), Objects.hashCode(keysetPage.getNextCursor())))
+                .body(keysetPage);
+    }
+
+    @GetMapping(path = "/space-ships/export")
+    public void export(@RequestParam(value = "format", defaultValue = "ndjson") String format,
+                       HttpServletResponse response) throws IOException {
+        var exportFormat = ExportFormat.from(format);
+        response.setContentType(exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"space-ships." + exportFormat.getExtension() + "\"");
+        // Se escribe directamente en la respuesta, sin construir la lista completa en memoria
+        spaceShipExportService.export(exportFormat, response.getOutputStream());
     }
 
     @GetMapping(path = "/space-ships/{id}")
-    public ResponseEntity<MovieSpaceShipsDto> findById(@PathVariable int id) {
-        return ResponseEntity.ok().body(movieSpaceShipService.getSpaceShipById(id));
+    public ResponseEntity<MovieSpaceShipsDto> findById(@PathVariable int id,
+                                                       @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        var spaceShip = movieSpaceShipService.getSpaceShipById(id);
+        return ResponseEntity.ok().eTag(ETagUtils.of(accept, spaceShip)).body(spaceShip);
     }
 
     @GetMapping(path = "/space-ships/search")
@@ -51,10 +106,13 @@ public class MovieSpaceShipsController {
     }
 
     @PutMapping(path = "/space-ships/{id}")
-    public ResponseEntity<MovieSpaceShipsDto> update(@PathVariable long id, @RequestBody MovieSpaceShipsDto movieSpaceShipsDto) {
+    public ResponseEntity<MovieSpaceShipsDto> update(@PathVariable long id,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                     @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                     @RequestBody MovieSpaceShipsDto movieSpaceShipsDto) {
         movieSpaceShipsDto.setId(id);
-        movieSpaceShipService.updateSpaceShip(movieSpaceShipsDto);
-        return ResponseEntity.ok().build();
+        var updated = movieSpaceShipService.updateSpaceShip(movieSpaceShipsDto, ETagUtils.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETagUtils.of(accept, updated)).build();
     }
 
     @DeleteMapping(path = "/space-ships/{id}")
@@ -62,4 +120,30 @@ public class MovieSpaceShipsController {
         movieSpaceShipService.deleteSpaceShip(id);
         return ResponseEntity.ok().build();
     }
+
+    @PostMapping(path = "/space-ships/bulk")
+    public ResponseEntity<BulkResultDto> saveAll(@RequestBody List<MovieSpaceShipsDto> movieSpaceShipsDtos) {
+        return ResponseEntity.ok().body(movieSpaceShipBulkService.saveSpaceShips(movieSpaceShipsDtos));
+    }
+
+    // Tipos explícitos: con un cuerpo de formulario el contenedor consumiría la entrada al leer los parámetros
+    @PostMapping(path = "/space-ships/import",
+            consumes = {"application/x-ndjson", "text/csv", MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ImportResultDto> importAll(@RequestParam(value = "format", required = false) String format,
+                                                     HttpServletRequest request) throws IOException {
+        // Sin parámetro format, el formato sale del Content-Type del cuerpo
+        var importFormat = format == null ? ExportFormat.fromContentType(request.getContentType()) : ExportFormat.from(format);
+        // El cuerpo se lee en streaming, sin deserializarlo entero antes de empezar
+        return ResponseEntity.ok().body(spaceShipImportService.importSpaceShips(importFormat, request.getInputStream()));
+    }
+
+    @PutMapping(path = "/space-ships/bulk")
+    public ResponseEntity<BulkResultDto> updateAll(@RequestBody List<MovieSpaceShipsDto> movieSpaceShipsDtos) {
+        return ResponseEntity.ok().body(movieSpaceShipBulkService.updateSpaceShips(movieSpaceShipsDtos));
+    }
+
+    @DeleteMapping(path = "/space-ships/bulk")
+    public ResponseEntity<BulkResultDto> deleteAll(@RequestBody List<MovieSpaceShipsDto> movieSpaceShipsDtos) {
+        return ResponseEntity.ok().body(movieSpaceShipBulkService.deleteSpaceShips(movieSpaceShipsDtos));
+    }
 }
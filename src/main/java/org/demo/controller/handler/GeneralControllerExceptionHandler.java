@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.demo.controller.handler.json.HttpErrorInfoJson;
 import org.demo.exception.ServiceException;
 import org.demo.utils.FormatUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -45,6 +46,26 @@ public class GeneralControllerExceptionHandler {
                 log.error(Arrays.toString(serviceException.getStackTrace()));
                 return new ResponseEntity<>(httpErrorInfoJson, HttpStatus.NOT_FOUND);
             }
+            case 412 -> {
+                httpErrorInfoJson = FormatUtils.httpErrorInfoFormatted(HttpStatus.PRECONDITION_FAILED, request, serviceException);
+                log.error(httpErrorInfoJson.toString());
+                log.error(Arrays.toString(serviceException.getStackTrace()));
+                return new ResponseEntity<>(httpErrorInfoJson, HttpStatus.PRECONDITION_FAILED);
+            }
+            case 429 -> {
+                httpErrorInfoJson = FormatUtils.httpErrorInfoFormatted(HttpStatus.TOO_MANY_REQUESTS, request, serviceException);
+                log.warn(httpErrorInfoJson.toString());
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .body(httpErrorInfoJson);
+            }
+            case 503 -> {
+                httpErrorInfoJson = FormatUtils.httpErrorInfoFormatted(HttpStatus.SERVICE_UNAVAILABLE, request, serviceException);
+                log.warn(httpErrorInfoJson.toString());
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .body(httpErrorInfoJson);
+            }
             default -> {
                 httpErrorInfoJson = FormatUtils.httpErrorInfoFormatted(HttpStatus.INTERNAL_SERVER_ERROR, request, serviceException);
                 log.error(httpErrorInfoJson.toString());
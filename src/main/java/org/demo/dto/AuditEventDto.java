@@ -13,9 +13,14 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder(toBuilder = true)
 public class AuditEventDto implements Serializable {
+    // Id en AUDIT_OUTBOX, lo pone el relay: el consumidor lo usa para descartar duplicados
+    private Long eventId;
     private String operation;
     private Long shipId;
     private String shipName;
     private String user;
+    // Segundos desde epoch (UTC)
     private Long timestamp;
+    // Solo en eventos resumen (p. ej. IMPORT): número de naves afectadas
+    private Integer itemCount;
 } 
\ No newline at end of file
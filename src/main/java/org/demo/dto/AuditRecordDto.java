@@ -0,0 +1,21 @@
+package org.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Evento de auditoría ya almacenado en AUDIT_EVENTS
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditRecordDto {
+    private Long id;
+    private String operation;
+    private Long shipId;
+    private String shipName;
+    private String user;
+    private Integer itemCount;
+    private Long timestamp;
+}
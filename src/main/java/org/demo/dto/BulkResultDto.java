@@ -0,0 +1,20 @@
+package org.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkResultDto {
+    private String operation;
+    private int requested;
+    private int succeeded;
+    private int failed;
+    private List<BulkItemResultDto> items;
+}
@@ -0,0 +1,29 @@
+package org.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportResultDto {
+    private String format;
+    private long read;
+    private long imported;
+    private long rejected;
+    private int batches;
+    private int failedBatches;
+    private boolean aborted;
+    private long durationMs;
+    private double rowsPerSecond;
+    // Como mucho ships.import.max-reported-errors; index es la posición del registro en la entrada
+    private List<BulkItemResultDto> errors;
+    private boolean errorsTruncated;
+}
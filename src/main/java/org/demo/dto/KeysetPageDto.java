@@ -0,0 +1,20 @@
+package org.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class KeysetPageDto<T> {
+    private List<T> content;
+    private int size;
+    private String sort;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -12,8 +12,15 @@ import java.io.Serializable;
 @AllArgsConstructor
 @Builder
 public class LoginAttemptDto implements Serializable {
+
+    // FAILED: credenciales incorrectas; BLOCKED: rechazado por un bloqueo ya vigente, no cuenta como fallo
+    public enum Outcome {FAILED, BLOCKED}
+
     private String username;
+    // Origen de la petición (IP del cliente), para contar intentos por origen
+    private String source;
     private String message;
+    private Outcome outcome;
     private Integer attempts;
     private Long timestamp;
 }
@@ -0,0 +1,27 @@
+package org.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Decisión de bloqueo calculada por la topología de Kafka Streams para un usuario
+ * (USER) o un origen (SOURCE) dentro de una ventana de tiempo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoginLockoutDto {
+
+    public enum Type {USER, SOURCE}
+
+    private Type type;
+    private String key;
+    private Long attempts;
+    private Integer threshold;
+    private Boolean locked;
+    private Long windowStart;
+    private Long windowEnd;
+}
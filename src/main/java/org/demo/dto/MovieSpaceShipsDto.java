@@ -1,5 +1,6 @@
 package org.demo.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -13,4 +14,11 @@ public class MovieSpaceShipsDto {
     private Long id;
     private String name;
     private String movie;
+    // Versión de la entidad, base del ETag; las altas no la llevan
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
+
+    public MovieSpaceShipsDto(Long id, String name, String movie) {
+        this(id, name, movie, null);
+    }
 }
@@ -0,0 +1,62 @@
+package org.demo.persistance.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Entity
+@Table(name = "AUDIT_EVENTS")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_events_seq")
+    @SequenceGenerator(name = "audit_events_seq", sequenceName = "AUDIT_EVENTS_SEQ", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "operation", nullable = false, length = 20)
+    private String operation;
+
+    @Column(name = "ship_id")
+    private Long shipId;
+
+    @Column(name = "ship_name", length = 100)
+    private String shipName;
+
+    @Column(name = "user_name", length = 100)
+    private String user;
+
+    @Column(name = "item_count")
+    private Integer itemCount;
+
+    // Segundos desde epoch (UTC), tal como lo envían los productores en AuditEventDto
+    @Column(name = "event_timestamp", nullable = false)
+    private Long timestamp;
+
+    @Column(name = "received_at", nullable = false)
+    private Instant receivedAt;
+
+    // Cubo de retención: días desde epoch (UTC) de event_timestamp
+    @Column(name = "event_day", nullable = false)
+    private Integer eventDay;
+
+    // Id del evento en AUDIT_OUTBOX, único: descarta las reentregas del mismo mensaje
+    @Column(name = "event_id", unique = true)
+    private Long eventId;
+
+    public static int dayOf(long epochSeconds) {
+        return (int) Math.floorDiv(epochSeconds, Duration.ofDays(1).toSeconds());
+    }
+}
@@ -0,0 +1,55 @@
+package org.demo.persistance.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "AUDIT_OUTBOX")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_outbox_seq")
+    @SequenceGenerator(name = "audit_outbox_seq", sequenceName = "AUDIT_OUTBOX_SEQ", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "operation", nullable = false, length = 20)
+    private String operation;
+
+    @Column(name = "ship_id")
+    private Long shipId;
+
+    @Column(name = "ship_name", length = 100)
+    private String shipName;
+
+    @Column(name = "user_name", length = 100)
+    private String user;
+
+    @Column(name = "event_timestamp", nullable = false)
+    private Long timestamp;
+
+    @Column(name = "item_count")
+    private Integer itemCount;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    // Instancia del relay que está publicando la fila y hasta cuándo; caducada, otra puede reclamarla
+    @Column(name = "claimed_by", length = 64)
+    private String claimedBy;
+
+    @Column(name = "claimed_until")
+    private Instant claimedUntil;
+}
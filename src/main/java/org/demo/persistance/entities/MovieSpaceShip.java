@@ -5,7 +5,9 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -18,7 +20,8 @@ import lombok.NoArgsConstructor;
 public class MovieSpaceShip {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "space_ships_seq")
+    @SequenceGenerator(name = "space_ships_seq", sequenceName = "SPACE_SHIPS_SEQ", allocationSize = 50)
     private Long id;
 
     @Column(name = "name", nullable = false, length = 100)
@@ -27,4 +30,12 @@ public class MovieSpaceShip {
     @Column(name = "movie", nullable = false, length = 100)
     private String movie;
 
+    // Bloqueo optimista: cada UPDATE incrementa la versión y comprueba la anterior (WHERE version = ?)
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    public MovieSpaceShip(Long id, String name, String movie) {
+        this(id, name, movie, null);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package org.demo.persistance.repository;
+
+import org.demo.dto.AuditRecordDto;
+import org.demo.persistance.entities.AuditEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Consultas keyset de más reciente a más antiguo sobre (filtro, event_timestamp, id).
+ * La página siguiente empieza justo antes de la última fila devuelta ({@code beforeTimestamp},
+ * {@code beforeId}); la condición redundante {@code e.timestamp <= :beforeTimestamp} acota el
+ * rango del índice. El límite inferior {@code from} es inclusivo.
+ */
+public interface AuditEventRepository extends JpaRepository<AuditEvent, Long> {
+
+    String SELECT_DTO = "SELECT new org.demo.dto.AuditRecordDto(e.id, e.operation, e.shipId, e.shipName, e.user, e.itemCount, e.timestamp) FROM AuditEvent e";
+    String KEYSET = " AND e.timestamp >= :from AND e.timestamp <= :beforeTimestamp"
+            + " AND (e.timestamp < :beforeTimestamp OR e.id < :beforeId)"
+            + " ORDER BY e.timestamp DESC, e.id DESC LIMIT :limit";
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_DTO + " WHERE e.shipId = :shipId" + KEYSET)
+    List<AuditRecordDto> findByShipBefore(@Param("shipId") Long shipId, @Param("from") long from,
+                                          @Param("beforeTimestamp") long beforeTimestamp, @Param("beforeId") long beforeId,
+                                          @Param("limit") int limit);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_DTO + " WHERE e.user = :user" + KEYSET)
+    List<AuditRecordDto> findByUserBefore(@Param("user") String user, @Param("from") long from,
+                                          @Param("beforeTimestamp") long beforeTimestamp, @Param("beforeId") long beforeId,
+                                          @Param("limit") int limit);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_DTO + " WHERE 1 = 1" + KEYSET)
+    List<AuditRecordDto> findBefore(@Param("from") long from,
+                                    @Param("beforeTimestamp") long beforeTimestamp, @Param("beforeId") long beforeId,
+                                    @Param("limit") int limit);
+
+    // Sin readOnly: el consumidor lo llama dentro de su transacción de escritura, contra la primaria
+    @Query("SELECT e.eventId FROM AuditEvent e WHERE e.eventId IN :eventIds")
+    List<Long> findStoredEventIds(@Param("eventIds") Collection<Long> eventIds);
+
+    boolean existsByEventId(Long eventId);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT MIN(e.eventDay) FROM AuditEvent e")
+    Optional<Integer> findOldestDay();
+
+    // Borra un cubo diario completo con una sola sentencia sobre el índice de event_day
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM AuditEvent e WHERE e.eventDay = :day")
+    int deleteByDay(@Param("day") int day);
+}
@@ -0,0 +1,45 @@
+package org.demo.persistance.repository;
+
+import org.demo.persistance.entities.AuditOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Las filas se reservan antes de publicarlas: {@link #claim} solo marca las que no tienen una reserva
+ * vigente, así que dos instancias del relay nunca publican la misma fila a la vez. Las lecturas de la
+ * reserva son transacciones de escritura para que, con réplica de lectura, vayan a la primaria.
+ */
+public interface AuditOutboxRepository extends JpaRepository<AuditOutboxEvent, Long> {
+
+    String CLAIMABLE = "(e.claimedUntil IS NULL OR e.claimedUntil < :now)";
+
+    @Transactional
+    @Query("SELECT e.id FROM AuditOutboxEvent e WHERE " + CLAIMABLE + " ORDER BY e.id ASC LIMIT :limit")
+    List<Long> findClaimableIds(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE AuditOutboxEvent e SET e.claimedBy = :owner, e.claimedUntil = :until WHERE e.id IN :ids AND " + CLAIMABLE)
+    int claim(@Param("ids") Collection<Long> ids, @Param("owner") String owner,
+              @Param("now") Instant now, @Param("until") Instant until);
+
+    @Transactional
+    @Query("SELECT e FROM AuditOutboxEvent e WHERE e.id IN :ids AND e.claimedBy = :owner ORDER BY e.id ASC")
+    List<AuditOutboxEvent> findClaimed(@Param("ids") Collection<Long> ids, @Param("owner") String owner);
+
+    // Tras un fallo al publicar: las filas quedan libres para el siguiente intento sin esperar a que caduque la reserva
+    @Transactional
+    @Modifying
+    @Query("UPDATE AuditOutboxEvent e SET e.claimedBy = NULL, e.claimedUntil = NULL WHERE e.id IN :ids AND e.claimedBy = :owner")
+    int release(@Param("ids") Collection<Long> ids, @Param("owner") String owner);
+
+    Optional<AuditOutboxEvent> findFirstByOrderByIdAsc();
+}
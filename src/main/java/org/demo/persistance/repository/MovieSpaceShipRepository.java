@@ -1,18 +1,65 @@
 package org.demo.persistance.repository;
 
+import jakarta.persistence.QueryHint;
+import org.demo.dto.MovieSpaceShipsDto;
 import org.demo.persistance.entities.MovieSpaceShip;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
-import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface MovieSpaceShipRepository extends CrudRepository<MovieSpaceShip, Long> {
+    // Proyección de lectura: el DTO se construye desde las columnas, sin entidad gestionada ni snapshot
+    String SELECT_DTO = "SELECT new org.demo.dto.MovieSpaceShipsDto(s.id, s.name, s.movie, s.version) FROM MovieSpaceShip s";
+
     Page<MovieSpaceShip> findAll(Pageable pageable);
-    Set<MovieSpaceShip> findByNameContaining(String name);
     Optional<MovieSpaceShip> findById(Long integer);
     boolean existsById(Long id);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_DTO)
+    Slice<MovieSpaceShipsDto> findAllProjectedBy(Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_DTO + " WHERE s.id IN :ids")
+    List<MovieSpaceShipsDto> findProjectedByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_DTO + " WHERE s.name LIKE %?#{escape([0])}% ESCAPE ?#{escapeCharacter()}")
+    List<MovieSpaceShipsDto> findProjectedByNameContaining(String name);
+
+    // Paginación keyset: límite explícito, sin OFFSET ni count()
+    @Transactional(readOnly = true)
+    @Query(SELECT_DTO + " WHERE s.id > :id ORDER BY s.id ASC LIMIT :limit")
+    List<MovieSpaceShipsDto> findProjectedAfterId(@Param("id") Long id, @Param("limit") int limit);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_DTO + " ORDER BY s.name ASC, s.id ASC LIMIT :limit")
+    List<MovieSpaceShipsDto> findProjectedFirstOrderedByName(@Param("limit") int limit);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_DTO + " WHERE s.name > :name OR (s.name = :name AND s.id > :id) ORDER BY s.name ASC, s.id ASC LIMIT :limit")
+    List<MovieSpaceShipsDto> findProjectedAfterNameAndId(@Param("name") String name, @Param("id") Long id, @Param("limit") int limit);
+
+    // Exportación completa: cursor JDBC con fetch size, entidades de solo lectura (sin snapshot de dirty checking)
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s FROM MovieSpaceShip s ORDER BY s.id ASC")
+    Stream<MovieSpaceShip> streamAllOrderedById();
 }
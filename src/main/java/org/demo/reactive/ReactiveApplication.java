@@ -0,0 +1,34 @@
+package org.demo.reactive;
+
+import org.demo.config.cache.CacheConfig;
+import org.demo.config.security.jwt.JwtTokenVerifier;
+import org.demo.service.rabbitmq.RabbitMQSenderService;
+import org.demo.service.telemetry.MetricsService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Variante reactiva de /v1/space-ships: WebFlux sobre Netty y R2DBC (H2), con el mismo contrato
+ * JSON, los mismos tokens JWT y el mismo outbox de auditoría que la aplicación MVC. Solo escanea
+ * org.demo.reactive; de la aplicación MVC reutiliza métricas, verificación de tokens y el envío a RabbitMQ.
+ * Todos sus beans llevan {@code @ConditionalOnWebApplication(type = REACTIVE)} para que
+ * {@link org.demo.Application} los ignore al escanear org.demo.
+ */
+@SpringBootApplication(exclude = ReactiveUserDetailsServiceAutoConfiguration.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableScheduling
+@Import({MetricsService.class, CacheConfig.class, JwtTokenVerifier.class, RabbitMQSenderService.class})
+public class ReactiveApplication {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles("reactive")
+                .run(args);
+    }
+}
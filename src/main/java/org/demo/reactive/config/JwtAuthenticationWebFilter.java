@@ -0,0 +1,73 @@
+package org.demo.reactive.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.demo.config.security.jwt.JwtTokenVerifier;
+import org.demo.controller.handler.json.HttpErrorInfoJson;
+import org.demo.exception.ServiceException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+
+import static org.demo.utils.Constants.HEADER_AUTHORIZACION_KEY;
+import static org.demo.utils.Constants.TOKEN_BEARER_PREFIX;
+
+/**
+ * Equivalente reactivo de JWTAuthorizationFilter: sin cabecera Bearer la petición sigue sin
+ * autenticar; con un token inválido se responde 401 con el mismo cuerpo JSON; con uno válido el
+ * usuario viaja en el contexto de Reactor en lugar de en el SecurityContextHolder del hilo.
+ * La verificación usa el mismo JwtTokenVerifier y su caché, así que no bloquea tras el primer uso del token.
+ */
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final JwtTokenVerifier jwtTokenVerifier;
+
+    public JwtAuthenticationWebFilter(JwtTokenVerifier jwtTokenVerifier) {
+        this.jwtTokenVerifier = jwtTokenVerifier;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        final String header = exchange.getRequest().getHeaders().getFirst(HEADER_AUTHORIZACION_KEY);
+        if (header == null || !header.startsWith(TOKEN_BEARER_PREFIX)) {
+            return chain.filter(exchange);
+        }
+
+        final String user;
+        try {
+            user = jwtTokenVerifier.verify(header.replace(TOKEN_BEARER_PREFIX, "")).subject();
+        } catch (ServiceException ex) {
+            return unauthorized(exchange, ex);
+        }
+        if (user == null) {
+            return chain.filter(exchange);
+        }
+
+        var authentication = new UsernamePasswordAuthenticationToken(user, null, new ArrayList<>());
+        return chain.filter(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+    }
+
+    private static Mono<Void> unauthorized(ServerWebExchange exchange, ServiceException ex) {
+        var response = exchange.getResponse();
+        var httpErrorInfoJson = new HttpErrorInfoJson(HttpStatus.UNAUTHORIZED, exchange.getRequest().getPath().value(), ex.getMessage());
+        final byte[] body;
+        try {
+            body = MAPPER.writeValueAsBytes(httpErrorInfoJson);
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
@@ -0,0 +1,45 @@
+package org.demo.reactive.config;
+
+import org.demo.config.security.jwt.JwtTokenVerifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+/**
+ * Las mismas reglas que SecurityConfig para las rutas que sirve la aplicación reactiva: sin sesión,
+ * sin CSRF, actuator y /error abiertos y el resto con token. El login sigue en la aplicación MVC;
+ * sus tokens valen aquí porque ambas comparten la clave de firma.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    private static final String[] WHITE_LIST = {
+            "/error",
+            "/actuator/**"
+    };
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtTokenVerifier jwtTokenVerifier) {
+        return http.csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers(WHITE_LIST).permitAll()
+                        .anyExchange().authenticated())
+                // Sin token, 403 como la cadena MVC
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.FORBIDDEN)))
+                .addFilterAt(new JwtAuthenticationWebFilter(jwtTokenVerifier), SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+}
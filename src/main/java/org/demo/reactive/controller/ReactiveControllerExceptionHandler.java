@@ -0,0 +1,43 @@
+package org.demo.reactive.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.demo.controller.handler.json.HttpErrorInfoJson;
+import org.demo.exception.ServiceException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Mismos códigos y cuerpo que GeneralControllerExceptionHandler para los errores del servicio reactivo.
+ */
+@RestControllerAdvice
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveControllerExceptionHandler {
+
+    @ExceptionHandler(value = {ServiceException.class})
+    public ResponseEntity<HttpErrorInfoJson> handleServiceException(ServiceException serviceException, ServerHttpRequest request) {
+        var status = switch (serviceException.getCode()) {
+            case 400 -> HttpStatus.BAD_REQUEST;
+            case 404 -> HttpStatus.NOT_FOUND;
+            case 412 -> HttpStatus.PRECONDITION_FAILED;
+            case 429 -> HttpStatus.TOO_MANY_REQUESTS;
+            case 503 -> HttpStatus.SERVICE_UNAVAILABLE;
+            default -> HttpStatus.INTERNAL_SERVER_ERROR;
+        };
+        var httpErrorInfoJson = new HttpErrorInfoJson(status, request.getPath().value(), serviceException.getMessage());
+
+        if (status == HttpStatus.TOO_MANY_REQUESTS || status == HttpStatus.SERVICE_UNAVAILABLE) {
+            log.warn(httpErrorInfoJson.toString());
+            return ResponseEntity.status(status)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(httpErrorInfoJson);
+        }
+        log.error(httpErrorInfoJson.toString());
+        return new ResponseEntity<>(httpErrorInfoJson, status);
+    }
+}
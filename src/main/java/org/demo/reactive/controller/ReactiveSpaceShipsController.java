@@ -0,0 +1,106 @@
+package org.demo.reactive.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.demo.dto.KeysetPageDto;
+import org.demo.dto.MovieSpaceShipsDto;
+import org.demo.reactive.service.ReactiveSpaceShipService;
+import org.demo.utils.ETagUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.Objects;
+import java.util.Set;
+
+import static org.demo.utils.Constants.API_VERSION_PATH;
+
+/**
+ * Las rutas de MovieSpaceShipsController con la misma forma de petición, respuesta y ETag.
+ * Bulk, import y export siguen solo en la aplicación MVC.
+ */
+@RestController
+@RequestMapping(API_VERSION_PATH)
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSpaceShipsController {
+
+    private final ReactiveSpaceShipService spaceShipService;
+
+    @GetMapping(path = "/space-ships")
+    public Mono<ResponseEntity<Slice<MovieSpaceShipsDto>>> findAll(@RequestParam(value = "page", defaultValue = "0") int page,
+                                                                   @RequestParam(value = "size", defaultValue = "10") int size,
+                                                                   @RequestParam(value = "total", defaultValue = "true") boolean total,
+                                                                   @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+
+        if (!total) {
+            return spaceShipService.getSpaceShipsWithoutTotal(PageRequest.of(page, size))
+                    .map(slice -> ResponseEntity.ok()
+                            .eTag(ETagUtils.of(accept, slice.getContent(), page, size, slice.hasNext() ? 1 : 0))
+                            .body(slice));
+        }
+        return spaceShipService.getSpaceShips(PageRequest.of(page, size))
+                .map(spaceShips -> ResponseEntity.ok()
+                        .eTag(ETagUtils.of(accept, spaceShips.getContent(), page, size, spaceShips.getTotalElements()))
+                        .body(spaceShips));
+    }
+
+    @GetMapping(path = "/space-ships", params = "pagination=keyset")
+    public Mono<ResponseEntity<KeysetPageDto<MovieSpaceShipsDto>>> findAllKeyset(@RequestParam(value = "after", required = false) String after,
+                                                                                 @RequestParam(value = "sort", defaultValue = "id") String sort,
+                                                                                 @RequestParam(value = "size", defaultValue = "10") int size,
+                                                                                 @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+
+        return spaceShipService.getSpaceShipsAfter(after, sort, size)
+                .map(keysetPage -> ResponseEntity.ok()
+                        .eTag(ETagUtils.of(accept, keysetPage.getContent(), Objects.hashCode(keysetPage.getNextCursor())))
+                        .body(keysetPage));
+    }
+
+    @GetMapping(path = "/space-ships/{id}")
+    public Mono<ResponseEntity<MovieSpaceShipsDto>> findById(@PathVariable int id,
+                                                             @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return spaceShipService.getSpaceShipById(id)
+                .map(spaceShip -> ResponseEntity.ok().eTag(ETagUtils.of(accept, spaceShip)).body(spaceShip));
+    }
+
+    @GetMapping(path = "/space-ships/search")
+    public Mono<ResponseEntity<Set<MovieSpaceShipsDto>>> findByName(@RequestParam String name) {
+        return spaceShipService.getSpaceShipByName(name).map(spaceShips -> ResponseEntity.ok().body(spaceShips));
+    }
+
+    @PostMapping(path = "/space-ships")
+    public Mono<ResponseEntity<MovieSpaceShipsDto>> save(@RequestBody MovieSpaceShipsDto movieSpaceShipsDto) {
+        return spaceShipService.saveSpaceShip(movieSpaceShipsDto)
+                .then(Mono.fromSupplier(() -> ResponseEntity.ok().build()));
+    }
+
+    @PutMapping(path = "/space-ships/{id}")
+    public Mono<ResponseEntity<MovieSpaceShipsDto>> update(@PathVariable long id,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                           @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                           @RequestBody MovieSpaceShipsDto movieSpaceShipsDto) {
+        movieSpaceShipsDto.setId(id);
+        // defer: un If-Match inválido llega como error del Mono y lo traduce el handler
+        return Mono.defer(() -> spaceShipService.updateSpaceShip(movieSpaceShipsDto, ETagUtils.expectedVersion(ifMatch)))
+                .map(updated -> ResponseEntity.ok().eTag(ETagUtils.of(accept, updated)).<MovieSpaceShipsDto>build());
+    }
+
+    @DeleteMapping(path = "/space-ships/{id}")
+    public Mono<ResponseEntity<MovieSpaceShipsDto>> delete(@PathVariable int id) {
+        return spaceShipService.deleteSpaceShip(id)
+                .then(Mono.fromSupplier(() -> ResponseEntity.ok().build()));
+    }
+}
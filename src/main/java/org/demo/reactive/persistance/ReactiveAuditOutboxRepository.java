@@ -0,0 +1,119 @@
+package org.demo.reactive.persistance;
+
+import io.r2dbc.spi.Row;
+import org.demo.dto.AuditEventDto;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+
+/**
+ * Tabla AUDIT_OUTBOX sobre R2DBC: se escribe en la transacción del cambio de la nave y
+ * ReactiveAuditOutboxRelayService la vacía hacia RabbitMQ.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuditOutboxRepository {
+
+    public record PendingEvent(long id, AuditEventDto event, Instant createdAt) {
+    }
+
+    private static final String SELECT_PENDING = "SELECT id, operation, ship_id, ship_name, user_name, event_timestamp, item_count, created_at "
+            + "FROM AUDIT_OUTBOX ";
+    private static final String CLAIMABLE = "(claimed_until IS NULL OR claimed_until < :now)";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveAuditOutboxRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<Void> insert(AuditEventDto event) {
+        var spec = databaseClient.sql("INSERT INTO AUDIT_OUTBOX (id, operation, ship_id, ship_name, user_name, event_timestamp, created_at) "
+                        + "VALUES (NEXT VALUE FOR AUDIT_OUTBOX_SEQ, :operation, :shipId, :shipName, :user, :timestamp, :createdAt)")
+                .bind("operation", event.getOperation())
+                .bind("timestamp", event.getTimestamp())
+                .bind("createdAt", LocalDateTime.now(ZoneOffset.UTC));
+        spec = event.getShipId() == null ? spec.bindNull("shipId", Long.class) : spec.bind("shipId", event.getShipId());
+        spec = event.getShipName() == null ? spec.bindNull("shipName", String.class) : spec.bind("shipName", event.getShipName());
+        spec = event.getUser() == null ? spec.bindNull("user", String.class) : spec.bind("user", event.getUser());
+        return spec.fetch().rowsUpdated().then();
+    }
+
+    public Flux<PendingEvent> findOldest(int limit) {
+        return databaseClient.sql(SELECT_PENDING + "ORDER BY id ASC LIMIT :limit")
+                .bind("limit", limit)
+                .map((row, metadata) -> pendingEvent(row))
+                .all();
+    }
+
+    /**
+     * Reserva para {@code owner} hasta {@code limit} filas sin reserva vigente y las devuelve; las que
+     * otra instancia reserva a la vez no se incluyen (ver AuditOutboxRepository).
+     */
+    public Flux<PendingEvent> claimOldest(String owner, int limit, Duration claimTimeout) {
+        var now = LocalDateTime.now(ZoneOffset.UTC);
+        return databaseClient.sql("SELECT id FROM AUDIT_OUTBOX WHERE " + CLAIMABLE + " ORDER BY id ASC LIMIT :limit")
+                .bind("now", now)
+                .bind("limit", limit)
+                .map(row -> row.get("id", Long.class))
+                .all()
+                .collectList()
+                .filter(ids -> !ids.isEmpty())
+                .flatMapMany(ids -> databaseClient.sql("UPDATE AUDIT_OUTBOX SET claimed_by = :owner, claimed_until = :until "
+                                + "WHERE id IN (:ids) AND " + CLAIMABLE)
+                        .bind("owner", owner)
+                        .bind("until", now.plus(claimTimeout))
+                        .bind("ids", ids)
+                        .bind("now", now)
+                        .fetch()
+                        .rowsUpdated()
+                        .thenMany(databaseClient.sql(SELECT_PENDING + "WHERE id IN (:ids) AND claimed_by = :owner ORDER BY id ASC")
+                                .bind("ids", ids)
+                                .bind("owner", owner)
+                                .map((row, metadata) -> pendingEvent(row))
+                                .all()));
+    }
+
+    public Mono<Long> release(Collection<Long> ids, String owner) {
+        return databaseClient.sql("UPDATE AUDIT_OUTBOX SET claimed_by = NULL, claimed_until = NULL WHERE id IN (:ids) AND claimed_by = :owner")
+                .bind("ids", ids)
+                .bind("owner", owner)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteByIds(Collection<Long> ids) {
+        return databaseClient.sql("DELETE FROM AUDIT_OUTBOX WHERE id IN (:ids)")
+                .bind("ids", ids)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static PendingEvent pendingEvent(Row row) {
+        return new PendingEvent(row.get("id", Long.class),
+                AuditEventDto.builder()
+                        .eventId(row.get("id", Long.class))
+                        .operation(row.get("operation", String.class))
+                        .shipId(row.get("ship_id", Long.class))
+                        .shipName(row.get("ship_name", String.class))
+                        .user(row.get("user_name", String.class))
+                        .timestamp(row.get("event_timestamp", Long.class))
+                        .itemCount(row.get("item_count", Integer.class))
+                        .build(),
+                row.get("created_at", LocalDateTime.class).toInstant(ZoneOffset.UTC));
+    }
+
+    public Mono<Long> count() {
+        return databaseClient.sql("SELECT COUNT(*) FROM AUDIT_OUTBOX")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+}
@@ -0,0 +1,127 @@
+package org.demo.reactive.persistance;
+
+import io.r2dbc.spi.Readable;
+import org.demo.dto.MovieSpaceShipsDto;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Las mismas consultas que MovieSpaceShipRepository, en SQL sobre R2DBC: cada fila se
+ * convierte directamente en el DTO y el hilo no espera a la base de datos.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSpaceShipRepository {
+
+    private static final String SELECT_DTO = "SELECT id, name, movie, version FROM SPACE_SHIPS";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveSpaceShipRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<MovieSpaceShipsDto> findPage(long offset, int limit) {
+        return databaseClient.sql(SELECT_DTO + " ORDER BY id LIMIT :limit OFFSET :offset")
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(ReactiveSpaceShipRepository::toDto)
+                .all();
+    }
+
+    public Mono<Long> count() {
+        return databaseClient.sql("SELECT COUNT(*) FROM SPACE_SHIPS")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Mono<MovieSpaceShipsDto> findById(long id) {
+        return databaseClient.sql(SELECT_DTO + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveSpaceShipRepository::toDto)
+                .one();
+    }
+
+    public Flux<MovieSpaceShipsDto> findByNameContaining(String term) {
+        return databaseClient.sql(SELECT_DTO + " WHERE name LIKE :pattern ESCAPE '\\'")
+                .bind("pattern", "%" + escapeLike(term) + "%")
+                .map(ReactiveSpaceShipRepository::toDto)
+                .all();
+    }
+
+    // Paginación keyset: límite explícito, sin OFFSET ni count()
+    public Flux<MovieSpaceShipsDto> findAfterId(long id, int limit) {
+        return databaseClient.sql(SELECT_DTO + " WHERE id > :id ORDER BY id ASC LIMIT :limit")
+                .bind("id", id)
+                .bind("limit", limit)
+                .map(ReactiveSpaceShipRepository::toDto)
+                .all();
+    }
+
+    public Flux<MovieSpaceShipsDto> findFirstOrderedByName(int limit) {
+        return databaseClient.sql(SELECT_DTO + " ORDER BY name ASC, id ASC LIMIT :limit")
+                .bind("limit", limit)
+                .map(ReactiveSpaceShipRepository::toDto)
+                .all();
+    }
+
+    public Flux<MovieSpaceShipsDto> findAfterNameAndId(String name, long id, int limit) {
+        return databaseClient.sql(SELECT_DTO + " WHERE name > :name OR (name = :name AND id > :id) ORDER BY name ASC, id ASC LIMIT :limit")
+                .bind("name", name)
+                .bind("id", id)
+                .bind("limit", limit)
+                .map(ReactiveSpaceShipRepository::toDto)
+                .all();
+    }
+
+    /**
+     * @return id asignado, de la misma secuencia que usa Hibernate
+     */
+    public Mono<Long> insert(String name, String movie) {
+        return databaseClient.sql("SELECT NEXT VALUE FOR SPACE_SHIPS_SEQ")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .flatMap(id -> databaseClient.sql("INSERT INTO SPACE_SHIPS (id, name, movie, version) VALUES (:id, :name, :movie, 0)")
+                        .bind("id", id)
+                        .bind("name", name)
+                        .bind("movie", movie)
+                        .fetch()
+                        .rowsUpdated()
+                        .thenReturn(id));
+    }
+
+    /**
+     * Actualización optimista, como el {@code @Version} de la entidad.
+     *
+     * @return filas actualizadas: 0 si la nave no existe o su versión ya no es {@code version}
+     */
+    public Mono<Long> update(long id, String name, String movie, long version) {
+        return databaseClient.sql("UPDATE SPACE_SHIPS SET name = :name, movie = :movie, version = version + 1 WHERE id = :id AND version = :version")
+                .bind("name", name)
+                .bind("movie", movie)
+                .bind("id", id)
+                .bind("version", version)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteById(long id) {
+        return databaseClient.sql("DELETE FROM SPACE_SHIPS WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static MovieSpaceShipsDto toDto(Readable row) {
+        // id es INT en SPACE_SHIPS y el driver no lo convierte a Long por sí solo
+        return new MovieSpaceShipsDto(row.get("id", Number.class).longValue(), row.get("name", String.class),
+                row.get("movie", String.class), row.get("version", Long.class));
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,128 @@
+package org.demo.reactive.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.demo.reactive.persistance.ReactiveAuditOutboxRepository;
+import org.demo.service.rabbitmq.RabbitMQSenderService;
+import org.demo.service.telemetry.MetricsService;
+import org.springframework.amqp.AmqpException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Equivalente de AuditOutboxRelayService para la aplicación reactiva: vacía AUDIT_OUTBOX hacia
+ * AUDIT_QUEUE en bloques, con publisher confirms, y borra cada bloque después de publicarlo.
+ * El cliente de RabbitMQ es bloqueante, así que el relay corre en el hilo del scheduler y espera
+ * ahí a R2DBC y al broker; los hilos de Netty que atienden las peticiones nunca lo hacen.
+ * Como en el relay MVC, cada instancia reserva su bloque durante {@code ships.audit.outbox.claim-timeout}.
+ * Al cerrar la aplicación se detiene en stop(), antes de que se cierre el datasource, esperando
+ * a que termine el bloque en curso; las pasadas que el scheduler lance después no hacen nada.
+ */
+@Service
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuditOutboxRelayService implements SmartLifecycle {
+
+    private final ReactiveAuditOutboxRepository auditOutboxRepository;
+    private final RabbitMQSenderService rabbitMQSenderService;
+    private final MetricsService metricsService;
+    private final int batchSize;
+    private final Duration claimTimeout;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong oldestEventAgeMs = new AtomicLong();
+    private final Lock relayLock = new ReentrantLock();
+    private volatile boolean running;
+
+    public ReactiveAuditOutboxRelayService(ReactiveAuditOutboxRepository auditOutboxRepository,
+                                           RabbitMQSenderService rabbitMQSenderService,
+                                           MetricsService metricsService,
+                                           @Value("${ships.audit.outbox.batch-size:100}") int batchSize,
+                                           @Value("${ships.audit.outbox.claim-timeout:PT30S}") Duration claimTimeout) {
+        this.auditOutboxRepository = auditOutboxRepository;
+        this.rabbitMQSenderService = rabbitMQSenderService;
+        this.metricsService = metricsService;
+        this.batchSize = batchSize;
+        this.claimTimeout = claimTimeout;
+
+        metricsService.registerGauge("audit.outbox.backlog", "Audit events waiting in the outbox", backlog);
+        metricsService.registerGauge("audit.outbox.oldest.age", "Age in milliseconds of the oldest pending audit event", oldestEventAgeMs);
+    }
+
+    @Scheduled(fixedDelayString = "${ships.audit.outbox.relay-interval-ms:1000}")
+    public void relay() {
+        relayLock.lock();
+        try {
+            if (!running) {
+                return;
+            }
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed == batchSize && running);
+            refreshBacklog();
+        } finally {
+            relayLock.unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        // Espera a la pasada en curso, que ya no empieza un bloque nuevo
+        relayLock.lock();
+        relayLock.unlock();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    int relayBatch() {
+        var batch = auditOutboxRepository.claimOldest(instanceId, batchSize, claimTimeout).collectList().block();
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        var ids = batch.stream().map(ReactiveAuditOutboxRepository.PendingEvent::id).toList();
+
+        try {
+            rabbitMQSenderService.sendAuditMessages(batch.stream().map(ReactiveAuditOutboxRepository.PendingEvent::event).toList());
+        } catch (AmqpException e) {
+            auditOutboxRepository.release(ids, instanceId).block();
+            metricsService.incrementAuditOutboxPublishFailures();
+            log.warn("Audit outbox relay could not publish {} events, will retry: {}", batch.size(), e.getMessage());
+            return 0;
+        }
+
+        auditOutboxRepository.deleteByIds(ids).block();
+
+        var now = Instant.now();
+        batch.forEach(pending -> metricsService.recordAuditOutboxLag(Duration.between(pending.createdAt(), now)));
+        metricsService.incrementAuditMessagesSent(batch.size());
+        return batch.size();
+    }
+
+    private void refreshBacklog() {
+        backlog.set(auditOutboxRepository.count().blockOptional().orElse(0L));
+        oldestEventAgeMs.set(auditOutboxRepository.findOldest(1).next()
+                .map(pending -> Duration.between(pending.createdAt(), Instant.now()).toMillis())
+                .blockOptional()
+                .orElse(0L));
+    }
+}
@@ -0,0 +1,202 @@
+package org.demo.reactive.service;
+
+import org.demo.dto.AuditEventDto;
+import org.demo.dto.KeysetPageDto;
+import org.demo.dto.MovieSpaceShipsDto;
+import org.demo.exception.ServiceException;
+import org.demo.reactive.persistance.ReactiveAuditOutboxRepository;
+import org.demo.reactive.persistance.ReactiveSpaceShipRepository;
+import org.demo.service.cache.SpaceShipCacheService;
+import org.demo.service.pagination.SpaceShipCursor;
+import org.demo.service.telemetry.MetricsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Las operaciones de MovieSpaceShipService sin bloquear hilos: cada método devuelve un Mono que
+ * se resuelve cuando R2DBC entrega las filas. Las escrituras guardan la nave y su evento de
+ * auditoría en AUDIT_OUTBOX en una misma transacción reactiva; la publicación en RabbitMQ la hace
+ * {@link ReactiveAuditOutboxRelayService}, así que ninguna petición espera al broker.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSpaceShipService {
+
+    private final ReactiveSpaceShipRepository spaceShipRepository;
+    private final ReactiveAuditOutboxRepository auditOutboxRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final MetricsService metricsService;
+    private final int maxPageSize;
+
+    public ReactiveSpaceShipService(ReactiveSpaceShipRepository spaceShipRepository,
+                                    ReactiveAuditOutboxRepository auditOutboxRepository,
+                                    TransactionalOperator transactionalOperator,
+                                    MetricsService metricsService,
+                                    @Value("${ships.query.max-page-size:1000}") int maxPageSize) {
+        this.spaceShipRepository = spaceShipRepository;
+        this.auditOutboxRepository = auditOutboxRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.metricsService = metricsService;
+        this.maxPageSize = maxPageSize;
+    }
+
+    public Mono<Page<MovieSpaceShipsDto>> getSpaceShips(Pageable pageable) {
+        metricsService.incrementSpaceShipRead();
+        // La página y el total se piden a la vez, por conexiones distintas
+        return Mono.zip(spaceShipRepository.findPage(pageable.getOffset(), pageable.getPageSize()).collectList(),
+                        spaceShipRepository.count())
+                .map(pageAndTotal -> new PageImpl<>(pageAndTotal.getT1(), pageable, pageAndTotal.getT2()));
+    }
+
+    public Mono<Slice<MovieSpaceShipsDto>> getSpaceShipsWithoutTotal(Pageable pageable) {
+        metricsService.incrementSpaceShipRead();
+        // Una fila extra indica si hay página siguiente
+        return spaceShipRepository.findPage(pageable.getOffset(), pageable.getPageSize() + 1)
+                .collectList()
+                .map(rows -> {
+                    var hasNext = rows.size() > pageable.getPageSize();
+                    return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+                });
+    }
+
+    public Mono<KeysetPageDto<MovieSpaceShipsDto>> getSpaceShipsAfter(String after, String sort, int size) {
+        return Mono.defer(() -> {
+            SpaceShipCursor.validateSort(sort);
+            if (size <= 0 || size > maxPageSize) {
+                throw new ServiceException("Page size must be between 1 and " + maxPageSize, 400);
+            }
+
+            metricsService.incrementSpaceShipRead();
+            var limit = size + 1;
+            var cursor = Objects.isNull(after) || after.isBlank() ? null : SpaceShipCursor.decode(after, sort);
+            var rows = SpaceShipCursor.SORT_BY_NAME.equals(sort)
+                    ? (cursor == null
+                        ? spaceShipRepository.findFirstOrderedByName(limit)
+                        : spaceShipRepository.findAfterNameAndId(cursor.lastName(), cursor.lastId(), limit))
+                    : spaceShipRepository.findAfterId(cursor == null ? 0L : cursor.lastId(), limit);
+
+            return rows.collectList().map(list -> {
+                var hasNext = list.size() > size;
+                var content = hasNext ? list.subList(0, size) : list;
+                String nextCursor = null;
+                if (hasNext) {
+                    var last = content.getLast();
+                    nextCursor = new SpaceShipCursor(sort, last.getId(), last.getName()).encode();
+                }
+                return KeysetPageDto.<MovieSpaceShipsDto>builder()
+                        .content(content)
+                        .size(content.size())
+                        .sort(sort)
+                        .nextCursor(nextCursor)
+                        .hasNext(hasNext)
+                        .build();
+            });
+        });
+    }
+
+    public Mono<Set<MovieSpaceShipsDto>> getSpaceShipByName(String name) {
+        metricsService.incrementSpaceShipRead();
+        return spaceShipRepository.findByNameContaining(SpaceShipCacheService.normalizeTerm(name))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public Mono<MovieSpaceShipsDto> getSpaceShipById(long id) {
+        if (id < 0) {
+            return Mono.error(new ServiceException("SpaceShip id must be greater than 0", 400));
+        }
+        metricsService.incrementSpaceShipRead();
+        return spaceShipRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> notFound(id)));
+    }
+
+    public Mono<Void> saveSpaceShip(MovieSpaceShipsDto movieSpaceShipsDto) {
+        return currentUser()
+                .flatMap(user -> spaceShipRepository.insert(movieSpaceShipsDto.getName(), movieSpaceShipsDto.getMovie())
+                        .flatMap(id -> auditOutboxRepository.insert(auditEvent("CREATE", id, movieSpaceShipsDto.getName(), user))))
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(ignored -> metricsService.incrementSpaceShipCreated());
+    }
+
+    public Mono<Void> deleteSpaceShip(long id) {
+        if (id < 0) {
+            return Mono.error(new ServiceException("SpaceShip id must be greater than 0", 400));
+        }
+        return currentUser()
+                .flatMap(user -> spaceShipRepository.findById(id)
+                        .switchIfEmpty(Mono.error(() -> notFound(id)))
+                        .flatMap(existing -> spaceShipRepository.deleteById(id)
+                                .then(auditOutboxRepository.insert(auditEvent("DELETE", existing.getId(), existing.getName(), user)))))
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(ignored -> metricsService.incrementSpaceShipDeleted());
+    }
+
+    /**
+     * @param expectedVersion versión que el cliente editó (If-Match); null para no comprobarla
+     * @return la nave con la versión nueva
+     */
+    public Mono<MovieSpaceShipsDto> updateSpaceShip(MovieSpaceShipsDto movieSpaceShipsDto, Long expectedVersion) {
+        var id = movieSpaceShipsDto.getId();
+        if (id < 0) {
+            return Mono.error(new ServiceException("SpaceShip id must be greater than 0", 400));
+        }
+        return currentUser()
+                .flatMap(user -> spaceShipRepository.findById(id)
+                        .switchIfEmpty(Mono.error(() -> notFound(id)))
+                        .flatMap(current -> {
+                            if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+                                return Mono.error(versionConflict(id));
+                            }
+                            // El UPDATE comprueba la versión leída, como el @Version de la entidad
+                            return spaceShipRepository.update(id, movieSpaceShipsDto.getName(), movieSpaceShipsDto.getMovie(), current.getVersion())
+                                    .flatMap(updated -> updated == 0
+                                            ? Mono.<MovieSpaceShipsDto>error(versionConflict(id))
+                                            : auditOutboxRepository.insert(auditEvent("UPDATE", id, current.getName(), user))
+                                                .thenReturn(new MovieSpaceShipsDto(id, movieSpaceShipsDto.getName(),
+                                                        movieSpaceShipsDto.getMovie(), current.getVersion() + 1)));
+                        }))
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(ignored -> metricsService.incrementSpaceShipUpdated());
+    }
+
+    private static Mono<String> currentUser() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .map(Authentication::getName)
+                .switchIfEmpty(Mono.error(() -> new ServiceException("Authentication was not posible: no authenticated user", 403)));
+    }
+
+    private static ServiceException notFound(long id) {
+        return new ServiceException("SpaceShip with id " + id + " does not exist", 404);
+    }
+
+    private static ServiceException versionConflict(long id) {
+        return new ServiceException("SpaceShip with id " + id + " has been modified by another request", 412);
+    }
+
+    private static AuditEventDto auditEvent(String operation, Long shipId, String shipName, String user) {
+        return AuditEventDto.builder()
+                .user(user)
+                .shipId(shipId)
+                .shipName(shipName)
+                .operation(operation)
+                .timestamp(LocalDateTime.now().toEpochSecond(ZoneOffset.UTC))
+                .build();
+    }
+}
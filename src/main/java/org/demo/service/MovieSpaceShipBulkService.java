@@ -0,0 +1,346 @@
+package org.demo.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.demo.dto.AuditEventDto;
+import org.demo.dto.BulkItemResultDto;
+import org.demo.dto.BulkResultDto;
+import org.demo.dto.MovieSpaceShipsDto;
+import org.demo.exception.ServiceException;
+import org.demo.persistance.entities.MovieSpaceShip;
+import org.demo.persistance.repository.MovieSpaceShipRepository;
+import org.demo.service.cache.SpaceShipCacheService;
+import org.demo.service.counter.SpaceShipCounterService;
+import org.demo.service.mapper.SpaceShipMapper;
+import org.demo.service.outbox.AuditOutboxService;
+import org.demo.service.search.SpaceShipSearchIndexService;
+import org.demo.service.telemetry.MetricsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Altas, modificaciones y bajas masivas de naves.
+ * Los elementos se validan primero y los válidos se escriben en bloques de
+ * {@code ships.bulk.batch-size}, cada bloque en su propia transacción para que
+ * Hibernate agrupe los INSERT/UPDATE/DELETE en batches JDBC.
+ * Si un bloque falla solo se marcan como erróneos sus elementos; el detalle del error queda en
+ * el log y no se devuelve al cliente. Los eventos de auditoría de cada bloque se guardan en el
+ * outbox dentro de su misma transacción. Como en el PUT individual, una modificación con
+ * {@code version} solo se aplica si coincide con la actual (412 si no).
+ */
+@Service
+@Slf4j
+public class MovieSpaceShipBulkService {
+
+    private static final int MAX_FIELD_LENGTH = 100;
+
+    private final MovieSpaceShipRepository movieSpaceShipRepository;
+    private final AuditOutboxService auditOutboxService;
+    private final MetricsService metricsService;
+    private final SpaceShipCacheService spaceShipCacheService;
+    private final SpaceShipCounterService spaceShipCounterService;
+    private final SpaceShipSearchIndexService spaceShipSearchIndexService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxItems;
+
+    public MovieSpaceShipBulkService(MovieSpaceShipRepository movieSpaceShipRepository,
+                                     AuditOutboxService auditOutboxService,
+                                     MetricsService metricsService,
+                                     SpaceShipCacheService spaceShipCacheService,
+                                     SpaceShipCounterService spaceShipCounterService,
+                                     SpaceShipSearchIndexService spaceShipSearchIndexService,
+                                     TransactionTemplate transactionTemplate,
+                                     @Value("${ships.bulk.batch-size:50}") int batchSize,
+                                     @Value("${ships.bulk.max-items:5000}") int maxItems) {
+        this.movieSpaceShipRepository = movieSpaceShipRepository;
+        this.auditOutboxService = auditOutboxService;
+        this.metricsService = metricsService;
+        this.spaceShipCacheService = spaceShipCacheService;
+        this.spaceShipCounterService = spaceShipCounterService;
+        this.spaceShipSearchIndexService = spaceShipSearchIndexService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxItems = maxItems;
+    }
+
+    public BulkResultDto saveSpaceShips(List<MovieSpaceShipsDto> spaceShips) {
+        return metricsService.executeWithTracing("saveSpaceShipsBulk", () -> {
+            var results = new BulkItemResultDto[checkRequestSize(spaceShips)];
+            var valid = validate(spaceShips, results, false);
+
+            var created = forEachChunk("CREATE", valid, results, chunk -> {
+                var entities = new ArrayList<MovieSpaceShip>(chunk.size());
+                for (var index : chunk) {
+                    var entity = SpaceShipMapper.MAPPER.mapToEntity(spaceShips.get(index));
+                    entity.setId(null);
+                    entity.setVersion(null);
+                    entities.add(entity);
+                }
+                movieSpaceShipRepository.saveAll(entities);
+
+                var outcomes = new ArrayList<Outcome>(chunk.size());
+                for (int i = 0; i < chunk.size(); i++) {
+                    var saved = entities.get(i);
+                    outcomes.add(Outcome.applied(chunk.get(i), saved.getId(), null, saved.getName()));
+                }
+                return outcomes;
+            }, outcome -> {
+                spaceShipCacheService.evict(outcome.id(), outcome.newName());
+                spaceShipSearchIndexService.add(outcome.id(), outcome.newName());
+            });
+
+            spaceShipCounterService.add(created);
+            metricsService.incrementSpaceShipCreated(created);
+            return summary("CREATE", results);
+        });
+    }
+
+    public BulkResultDto updateSpaceShips(List<MovieSpaceShipsDto> spaceShips) {
+        return metricsService.executeWithTracing("updateSpaceShipsBulk", () -> {
+            var results = new BulkItemResultDto[checkRequestSize(spaceShips)];
+            var valid = validate(spaceShips, results, true);
+
+            var updated = forEachChunk("UPDATE", valid, results, chunk -> {
+                var existing = loadExisting(chunk, spaceShips);
+                var outcomes = new ArrayList<Outcome>(chunk.size());
+                for (var index : chunk) {
+                    var dto = spaceShips.get(index);
+                    var entity = existing.get(dto.getId());
+                    if (entity == null) {
+                        outcomes.add(Outcome.notFound(index, dto.getId()));
+                        continue;
+                    }
+                    if (dto.getVersion() != null && !dto.getVersion().equals(entity.getVersion())) {
+                        outcomes.add(Outcome.versionConflict(index, dto.getId()));
+                        continue;
+                    }
+                    // Entidad gestionada: el UPDATE se agrupa en el flush del commit
+                    var oldName = entity.getName();
+                    entity.setName(dto.getName());
+                    entity.setMovie(dto.getMovie());
+                    outcomes.add(Outcome.applied(index, entity.getId(), oldName, entity.getName()));
+                }
+                return outcomes;
+            }, outcome -> {
+                spaceShipCacheService.evict(outcome.id(), outcome.oldName(), outcome.newName());
+                spaceShipSearchIndexService.update(outcome.id(), outcome.oldName(), outcome.newName());
+            });
+
+            metricsService.incrementSpaceShipUpdated(updated);
+            return summary("UPDATE", results);
+        });
+    }
+
+    public BulkResultDto deleteSpaceShips(List<MovieSpaceShipsDto> spaceShips) {
+        return metricsService.executeWithTracing("deleteSpaceShipsBulk", () -> {
+            var results = new BulkItemResultDto[checkRequestSize(spaceShips)];
+            var valid = validateIds(spaceShips, results);
+
+            var deleted = forEachChunk("DELETE", valid, results, chunk -> {
+                var existing = loadExisting(chunk, spaceShips);
+                var outcomes = new ArrayList<Outcome>(chunk.size());
+                var toDelete = new ArrayList<MovieSpaceShip>(existing.size());
+                for (var index : chunk) {
+                    var id = spaceShips.get(index).getId();
+                    var entity = existing.remove(id);
+                    if (entity == null) {
+                        outcomes.add(Outcome.notFound(index, id));
+                        continue;
+                    }
+                    toDelete.add(entity);
+                    outcomes.add(Outcome.applied(index, id, entity.getName(), null));
+                }
+                movieSpaceShipRepository.deleteAll(toDelete);
+                return outcomes;
+            }, outcome -> {
+                spaceShipCacheService.evict(outcome.id(), outcome.oldName());
+                spaceShipSearchIndexService.remove(outcome.id(), outcome.oldName());
+            });
+
+            spaceShipCounterService.add(-deleted);
+            metricsService.incrementSpaceShipDeleted(deleted);
+            return summary("DELETE", results);
+        });
+    }
+
+    /**
+     * Escribe los elementos válidos por bloques y devuelve cuántos se aplicaron.
+     * Los eventos de auditoría de cada bloque van al outbox en la misma transacción;
+     * {@code afterCommit} solo se ejecuta para los elementos de bloques confirmados.
+     */
+    private int forEachChunk(String operation,
+                             List<Integer> valid,
+                             BulkItemResultDto[] results,
+                             Function<List<Integer>, List<Outcome>> writer,
+                             Consumer<Outcome> afterCommit) {
+        var user = currentUser();
+        var applied = 0;
+        for (int from = 0; from < valid.size(); from += batchSize) {
+            var chunk = valid.subList(from, Math.min(from + batchSize, valid.size()));
+            List<Outcome> outcomes;
+            try {
+                outcomes = transactionTemplate.execute(status -> {
+                    var written = writer.apply(chunk);
+                    var events = new ArrayList<AuditEventDto>(written.size());
+                    for (var outcome : written) {
+                        if (outcome.applied()) {
+                            var shipName = "CREATE".equals(operation) ? outcome.newName() : outcome.oldName();
+                            events.add(auditEvent(operation, outcome.id(), shipName, user));
+                        }
+                    }
+                    auditOutboxService.enqueueAll(events);
+                    return written;
+                });
+            } catch (OptimisticLockingFailureException e) {
+                // Otra petición modificó una de las naves entre la lectura y el commit del bloque
+                log.warn("Bulk chunk of {} ships hit a concurrent modification: {}", chunk.size(), e.getMessage());
+                for (var index : chunk) {
+                    results[index] = error(index, null, 412, "Batch failed: a SpaceShip was modified by another request");
+                }
+                continue;
+            } catch (RuntimeException e) {
+                log.error("Bulk chunk of {} ships failed: {}", chunk.size(), e.getMessage());
+                for (var index : chunk) {
+                    results[index] = error(index, null, 500, "Batch failed");
+                }
+                continue;
+            }
+            for (var outcome : Objects.requireNonNull(outcomes)) {
+                if (outcome.applied()) {
+                    results[outcome.index()] = BulkItemResultDto.builder()
+                            .index(outcome.index())
+                            .id(outcome.id())
+                            .status(BulkItemResultDto.STATUS_OK)
+                            .build();
+                    afterCommit.accept(outcome);
+                    applied++;
+                } else {
+                    results[outcome.index()] = error(outcome.index(), outcome.id(), outcome.code(), outcome.message());
+                }
+            }
+        }
+        return applied;
+    }
+
+    private HashMap<Long, MovieSpaceShip> loadExisting(List<Integer> chunk, List<MovieSpaceShipsDto> spaceShips) {
+        var ids = chunk.stream().map(index -> spaceShips.get(index).getId()).distinct().toList();
+        var existing = new HashMap<Long, MovieSpaceShip>(ids.size() * 2);
+        movieSpaceShipRepository.findAllById(ids).forEach(entity -> existing.put(entity.getId(), entity));
+        return existing;
+    }
+
+    private int checkRequestSize(List<MovieSpaceShipsDto> spaceShips) {
+        if (spaceShips == null || spaceShips.isEmpty()) {
+            throw new ServiceException("Bulk request must contain at least one SpaceShip", 400);
+        }
+        if (spaceShips.size() > maxItems) {
+            throw new ServiceException("Bulk request cannot contain more than " + maxItems + " SpaceShips", 400);
+        }
+        return spaceShips.size();
+    }
+
+    private List<Integer> validate(List<MovieSpaceShipsDto> spaceShips, BulkItemResultDto[] results, boolean requireId) {
+        var valid = new ArrayList<Integer>(spaceShips.size());
+        for (int i = 0; i < spaceShips.size(); i++) {
+            var dto = spaceShips.get(i);
+            String message = null;
+            if (dto == null) {
+                message = "SpaceShip must not be null";
+            } else if (requireId && (dto.getId() == null || dto.getId() < 0)) {
+                message = "SpaceShip id must be greater than 0";
+            } else if (isInvalidField(dto.getName())) {
+                message = "SpaceShip name is required and must not exceed " + MAX_FIELD_LENGTH + " characters";
+            } else if (isInvalidField(dto.getMovie())) {
+                message = "SpaceShip movie is required and must not exceed " + MAX_FIELD_LENGTH + " characters";
+            }
+
+            if (message == null) {
+                valid.add(i);
+            } else {
+                results[i] = error(i, dto == null ? null : dto.getId(), 400, message);
+            }
+        }
+        return valid;
+    }
+
+    private List<Integer> validateIds(List<MovieSpaceShipsDto> spaceShips, BulkItemResultDto[] results) {
+        var valid = new ArrayList<Integer>(spaceShips.size());
+        for (int i = 0; i < spaceShips.size(); i++) {
+            var dto = spaceShips.get(i);
+            if (dto == null || dto.getId() == null || dto.getId() < 0) {
+                results[i] = error(i, dto == null ? null : dto.getId(), 400, "SpaceShip id must be greater than 0");
+            } else {
+                valid.add(i);
+            }
+        }
+        return valid;
+    }
+
+    private static boolean isInvalidField(String value) {
+        return value == null || value.isBlank() || value.length() > MAX_FIELD_LENGTH;
+    }
+
+    private static AuditEventDto auditEvent(String operation, Long id, String name, String user) {
+        return AuditEventDto.builder()
+                .user(user)
+                .shipId(id)
+                .shipName(name)
+                .operation(operation)
+                .timestamp(LocalDateTime.now().toEpochSecond(ZoneOffset.UTC))
+                .build();
+    }
+
+    private static String currentUser() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+
+    private static BulkItemResultDto error(int index, Long id, int code, String message) {
+        return BulkItemResultDto.builder()
+                .index(index)
+                .id(id)
+                .status(BulkItemResultDto.STATUS_ERROR)
+                .code(code)
+                .message(message)
+                .build();
+    }
+
+    private static BulkResultDto summary(String operation, BulkItemResultDto[] results) {
+        var succeeded = (int) Arrays.stream(results)
+                .filter(result -> BulkItemResultDto.STATUS_OK.equals(result.getStatus()))
+                .count();
+        return BulkResultDto.builder()
+                .operation(operation)
+                .requested(results.length)
+                .succeeded(succeeded)
+                .failed(results.length - succeeded)
+                .items(Arrays.asList(results))
+                .build();
+    }
+
+    private record Outcome(int index, Long id, String oldName, String newName, boolean applied, int code, String message) {
+        static Outcome applied(int index, Long id, String oldName, String newName) {
+            return new Outcome(index, id, oldName, newName, true, 0, null);
+        }
+
+        static Outcome notFound(int index, Long id) {
+            return new Outcome(index, id, null, null, false, 404, "SpaceShip with id " + id + " does not exist");
+        }
+
+        static Outcome versionConflict(int index, Long id) {
+            return new Outcome(index, id, null, null, false, 412, "SpaceShip with id " + id + " has been modified by another request");
+        }
+    }
+}
@@ -1,48 +1,148 @@
 package org.demo.service;
 
-import lombok.RequiredArgsConstructor;
 import org.demo.dto.AuditEventDto;
+import org.demo.dto.KeysetPageDto;
 import org.demo.dto.MovieSpaceShipsDto;
 import org.demo.exception.ServiceException;
+import org.demo.persistance.entities.MovieSpaceShip;
 import org.demo.persistance.repository.MovieSpaceShipRepository;
+import org.demo.service.cache.SpaceShipCacheService;
+import org.demo.service.counter.SpaceShipCounterService;
 import org.demo.service.mapper.SpaceShipMapper;
-import org.demo.service.rabbitmq.RabbitMQSenderService;
+import org.demo.service.outbox.AuditOutboxService;
+import org.demo.service.pagination.SpaceShipCursor;
+import org.demo.service.search.SpaceShipSearchIndexService;
 import org.demo.service.telemetry.MetricsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class MovieSpaceShipService {
+    private static final int SEARCH_FETCH_CHUNK_SIZE = 1000;
+
     private final MovieSpaceShipRepository movieSpaceShipRepository;
-    private final RabbitMQSenderService rabbitMQSenderService;
+    private final AuditOutboxService auditOutboxService;
+    private final TransactionTemplate transactionTemplate;
     private final MetricsService metricsService;
+    private final SpaceShipCacheService spaceShipCacheService;
+    private final SpaceShipCounterService spaceShipCounterService;
+    private final SpaceShipSearchIndexService spaceShipSearchIndexService;
+    private final int maxPageSize;
+
+    public MovieSpaceShipService(MovieSpaceShipRepository movieSpaceShipRepository,
+                                 AuditOutboxService auditOutboxService,
+                                 TransactionTemplate transactionTemplate,
+                                 MetricsService metricsService,
+                                 SpaceShipCacheService spaceShipCacheService,
+                                 SpaceShipCounterService spaceShipCounterService,
+                                 SpaceShipSearchIndexService spaceShipSearchIndexService,
+                                 @Value("${ships.query.max-page-size:1000}") int maxPageSize) {
+        this.movieSpaceShipRepository = movieSpaceShipRepository;
+        this.auditOutboxService = auditOutboxService;
+        this.transactionTemplate = transactionTemplate;
+        this.metricsService = metricsService;
+        this.spaceShipCacheService = spaceShipCacheService;
+        this.spaceShipCounterService = spaceShipCounterService;
+        this.spaceShipSearchIndexService = spaceShipSearchIndexService;
+        this.maxPageSize = maxPageSize;
+    }
 
     public Page<MovieSpaceShipsDto> getSpaceShips(Pageable pageable) {
         return metricsService.executeWithTracing("getSpaceShips", () -> {
             metricsService.incrementSpaceShipRead();
-            var list = movieSpaceShipRepository.findAll(pageable).map(SpaceShipMapper.MAPPER::mapToDto);
-            var countConstruction = movieSpaceShipRepository.count();
-            return new PageImpl<>(list.getContent(), pageable, countConstruction);
+            // findAll(Pageable) lanzaría su propio count(); el total sale del contador
+            var list = movieSpaceShipRepository.findAllProjectedBy(pageable);
+            return new PageImpl<>(list.getContent(), pageable, spaceShipCounterService.get());
+        });
+    }
+
+    public Slice<MovieSpaceShipsDto> getSpaceShipsWithoutTotal(Pageable pageable) {
+        return metricsService.executeWithTracing("getSpaceShipsWithoutTotal", () -> {
+            metricsService.incrementSpaceShipRead();
+            return movieSpaceShipRepository.findAllProjectedBy(pageable);
+        });
+    }
+
+    public KeysetPageDto<MovieSpaceShipsDto> getSpaceShipsAfter(String after, String sort, int size) {
+        return metricsService.executeWithTracing("getSpaceShipsKeyset", () -> {
+            SpaceShipCursor.validateSort(sort);
+            if (size <= 0 || size > maxPageSize) {
+                throw new ServiceException("Page size must be between 1 and " + maxPageSize, 400);
+            }
+
+            metricsService.incrementSpaceShipRead();
+            // Se pide una fila extra para saber si hay página siguiente sin ejecutar count()
+            var limit = size + 1;
+            var cursor = Objects.isNull(after) || after.isBlank() ? null : SpaceShipCursor.decode(after, sort);
+            var rows = SpaceShipCursor.SORT_BY_NAME.equals(sort)
+                    ? (cursor == null
+                        ? movieSpaceShipRepository.findProjectedFirstOrderedByName(limit)
+                        : movieSpaceShipRepository.findProjectedAfterNameAndId(cursor.lastName(), cursor.lastId(), limit))
+                    : movieSpaceShipRepository.findProjectedAfterId(cursor == null ? 0L : cursor.lastId(), limit);
+
+            var hasNext = rows.size() > size;
+            var content = hasNext ? rows.subList(0, size) : rows;
+            String nextCursor = null;
+            if (hasNext) {
+                var last = content.getLast();
+                nextCursor = new SpaceShipCursor(sort, last.getId(), last.getName()).encode();
+            }
+
+            return KeysetPageDto.<MovieSpaceShipsDto>builder()
+                    .content(content)
+                    .size(content.size())
+                    .sort(sort)
+                    .nextCursor(nextCursor)
+                    .hasNext(hasNext)
+                    .build();
         });
     }
 
     public Set<MovieSpaceShipsDto> getSpaceShipByName(String name) {
         return metricsService.executeWithTracing("getSpaceShipByName", () -> {
             metricsService.incrementSpaceShipRead();
-            var spaceShip = movieSpaceShipRepository.findByNameContaining(name);
-            return spaceShip.stream().map(SpaceShipMapper.MAPPER::mapToDto).collect(Collectors.toSet());
+            return spaceShipCacheService.search(SpaceShipCacheService.normalizeTerm(name), term ->
+                    Set.copyOf(findByNameContaining(term)));
         });
     }
 
+    private Collection<MovieSpaceShipsDto> findByNameContaining(String term) {
+        var candidates = spaceShipSearchIndexService.candidates(term);
+        if (candidates.isEmpty()) {
+            return movieSpaceShipRepository.findProjectedByNameContaining(term);
+        }
+
+        // El índice solo da candidatos: se cargan por id y se confirma el contains()
+        var ids = candidates.get();
+        var found = new ArrayList<MovieSpaceShipsDto>(ids.length);
+        for (int from = 0; from < ids.length; from += SEARCH_FETCH_CHUNK_SIZE) {
+            var chunk = new ArrayList<Long>(Math.min(SEARCH_FETCH_CHUNK_SIZE, ids.length - from));
+            for (int i = from; i < Math.min(from + SEARCH_FETCH_CHUNK_SIZE, ids.length); i++) {
+                chunk.add(ids[i]);
+            }
+            movieSpaceShipRepository.findProjectedByIdIn(chunk).forEach(spaceShip -> {
+                if (spaceShip.getName().contains(term)) {
+                    found.add(spaceShip);
+                }
+            });
+        }
+        return found;
+    }
+
     public MovieSpaceShipsDto getSpaceShipById(long id) {
         return metricsService.executeWithTracing("getSpaceShipById", () -> {
             if (id < 0) {
@@ -50,11 +150,11 @@ public class MovieSpaceShipService {
             }
 
             metricsService.incrementSpaceShipRead();
-            var spaceShip = movieSpaceShipRepository.findById(id).orElse(null);
-            if (spaceShip == null) {
-                throw new ServiceException("SpaceShip with id " + id + " does not exist", 404);
-            }
-            return SpaceShipMapper.MAPPER.mapToDto(spaceShip);
+            // Por id se mantiene findById: em.find usa el loader ya compilado de la entidad y, en la
+            // transacción de solo lectura del repositorio, no guarda snapshot; la proyección asigna más
+            return spaceShipCacheService.getById(id, key ->
+                            movieSpaceShipRepository.findById(key).map(SpaceShipMapper.MAPPER::mapToDto))
+                    .orElseThrow(() -> new ServiceException("SpaceShip with id " + id + " does not exist", 404));
         });
     }
 
@@ -62,19 +162,17 @@ public class MovieSpaceShipService {
         metricsService.executeWithTracing("saveSpaceShip", () -> {
             var spaceShip = SpaceShipMapper.MAPPER.mapToEntity(movieSpaceShipsDto);
             spaceShip.setId(null);
-            var savedSpaceShip = movieSpaceShipRepository.save(spaceShip);
+            spaceShip.setVersion(null);
+            var savedSpaceShip = transactionTemplate.execute(status -> {
+                var saved = movieSpaceShipRepository.save(spaceShip);
+                auditOutboxService.enqueue(auditEvent("CREATE", saved.getId(), saved.getName()));
+                return saved;
+            });
+            spaceShipCacheService.evict(savedSpaceShip.getId(), savedSpaceShip.getName());
+            spaceShipCounterService.increment();
+            spaceShipSearchIndexService.add(savedSpaceShip.getId(), savedSpaceShip.getName());
 
             metricsService.incrementSpaceShipCreated();
-
-            rabbitMQSenderService.sendAuditMessage(AuditEventDto.builder()
-                    .user(SecurityContextHolder.getContext().getAuthentication().getName())
-                    .shipId(savedSpaceShip.getId())
-                    .shipName(savedSpaceShip.getName())
-                    .operation("CREATE")
-                    .timestamp(LocalDateTime.now().toEpochSecond(ZoneOffset.UTC))
-                    .build());
-
-            metricsService.incrementAuditMessagesSent();
         });
     }
 
@@ -84,47 +182,76 @@ public class MovieSpaceShipService {
                 throw new ServiceException("SpaceShip id must be greater than 0", 400);
             }
 
-            var spaceShip = movieSpaceShipRepository.findById(id).orElseThrow(() ->
-                new ServiceException("SpaceShip with id " + id + " does not exist", 404));
+            var spaceShip = transactionTemplate.execute(status -> {
+                var existing = movieSpaceShipRepository.findById(id).orElseThrow(() ->
+                    new ServiceException("SpaceShip with id " + id + " does not exist", 404));
+                movieSpaceShipRepository.deleteById(id);
+                auditOutboxService.enqueue(auditEvent("DELETE", existing.getId(), existing.getName()));
+                return existing;
+            });
 
-            movieSpaceShipRepository.deleteById(id);
+            spaceShipCacheService.evict(spaceShip.getId(), spaceShip.getName());
+            spaceShipCounterService.decrement();
+            spaceShipSearchIndexService.remove(spaceShip.getId(), spaceShip.getName());
             metricsService.incrementSpaceShipDeleted();
-
-            rabbitMQSenderService.sendAuditMessage(AuditEventDto.builder()
-                    .user(SecurityContextHolder.getContext().getAuthentication().getName())
-                    .shipId(spaceShip.getId())
-                    .shipName(spaceShip.getName())
-                    .operation("DELETE")
-                    .timestamp(LocalDateTime.now().toEpochSecond(ZoneOffset.UTC))
-                    .build());
-
-            metricsService.incrementAuditMessagesSent();
         });
     }
 
-    public void updateSpaceShip(MovieSpaceShipsDto movieSpaceShipsDto) {
-        metricsService.executeWithTracing("updateSpaceShip", () -> {
+    public MovieSpaceShipsDto updateSpaceShip(MovieSpaceShipsDto movieSpaceShipsDto) {
+        return updateSpaceShip(movieSpaceShipsDto, null);
+    }
+
+    /**
+     * @param expectedVersion versión que el cliente editó (If-Match); null para no comprobarla
+     * @return la nave con la versión nueva
+     */
+    public MovieSpaceShipsDto updateSpaceShip(MovieSpaceShipsDto movieSpaceShipsDto, Long expectedVersion) {
+        return metricsService.executeWithTracing("updateSpaceShip", () -> {
             if (movieSpaceShipsDto.getId() < 0) {
                 throw new ServiceException("SpaceShip id must be greater than 0", 400);
             }
-            var spaceShip = movieSpaceShipRepository.findById(movieSpaceShipsDto.getId()).orElse(null);
-            if (spaceShip == null) {
-                throw new ServiceException("SpaceShip with id " + movieSpaceShipsDto.getId() + " does not exist", 404);
+            var id = movieSpaceShipsDto.getId();
+            String[] oldName = new String[1];
+            MovieSpaceShip updatedSpaceShip;
+            try {
+                updatedSpaceShip = transactionTemplate.execute(status -> {
+                    var spaceShip = movieSpaceShipRepository.findById(id).orElse(null);
+                    if (spaceShip == null) {
+                        throw new ServiceException("SpaceShip with id " + id + " does not exist", 404);
+                    }
+                    if (expectedVersion != null && !expectedVersion.equals(spaceShip.getVersion())) {
+                        throw versionConflict(id);
+                    }
+                    // Entidad gestionada: el UPDATE del commit comprueba la versión leída aquí
+                    oldName[0] = spaceShip.getName();
+                    spaceShip.setName(movieSpaceShipsDto.getName());
+                    spaceShip.setMovie(movieSpaceShipsDto.getMovie());
+                    auditOutboxService.enqueue(auditEvent("UPDATE", spaceShip.getId(), oldName[0]));
+                    return spaceShip;
+                });
+            } catch (OptimisticLockingFailureException e) {
+                throw versionConflict(id);
             }
-            var updatedSpaceShip = SpaceShipMapper.MAPPER.mapToEntity(movieSpaceShipsDto);
-            movieSpaceShipRepository.save(updatedSpaceShip);
+            spaceShipCacheService.evict(id, oldName[0], updatedSpaceShip.getName());
+            spaceShipSearchIndexService.update(id, oldName[0], updatedSpaceShip.getName());
 
             metricsService.incrementSpaceShipUpdated();
+            // Hibernate deja la versión incrementada en la entidad al hacer flush
+            return SpaceShipMapper.MAPPER.mapToDto(updatedSpaceShip);
+        });
+    }
 
-            rabbitMQSenderService.sendAuditMessage(AuditEventDto.builder()
-                    .user(SecurityContextHolder.getContext().getAuthentication().getName())
-                    .shipId(spaceShip.getId())
-                    .shipName(spaceShip.getName())
-                    .operation("UPDATE")
-                    .timestamp(LocalDateTime.now().toEpochSecond(ZoneOffset.UTC))
-                    .build());
+    private static ServiceException versionConflict(long id) {
+        return new ServiceException("SpaceShip with id " + id + " has been modified by another request", 412);
+    }
 
-            metricsService.incrementAuditMessagesSent();
-        });
+    private static AuditEventDto auditEvent(String operation, Long shipId, String shipName) {
+        return AuditEventDto.builder()
+                .user(SecurityContextHolder.getContext().getAuthentication().getName())
+                .shipId(shipId)
+                .shipName(shipName)
+                .operation(operation)
+                .timestamp(LocalDateTime.now().toEpochSecond(ZoneOffset.UTC))
+                .build();
     }
 }
@@ -1,34 +1,63 @@
 package org.demo.service;
 
-import lombok.AllArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
 import org.demo.dto.AuthDto;
 import org.demo.persistance.repository.UserRepository;
+import org.demo.service.telemetry.MetricsService;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
 import java.util.Base64;
-import java.util.HashSet;
-import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 
+/**
+ * Credenciales de usuario para el login. Cada entrada de la caché guarda la contraseña ya
+ * decodificada y las authorities como conjunto inmutable, así que un login repetido no
+ * consulta USERS ni vuelve a construirlas. La caché guarda un {@link Credentials} inmutable
+ * y cada llamada recibe su propio AuthDto, de modo que nadie puede alterar la entrada compartida.
+ * Quien modifique un usuario debe llamar a {@link #invalidate(String)}.
+ */
 @Repository
-@AllArgsConstructor
 public class UserService {
 
+    public static final String USER_CACHE_NAME = "userCredentials";
+
+    public record Credentials(String username, String password, Set<String> authorities) {
+    }
+
     private final UserRepository userRepository;
+    private final Cache<String, Optional<Credentials>> userCredentialsCache;
+
+    public UserService(UserRepository userRepository,
+                       @Qualifier("userCredentialsCache") Cache<String, Optional<Credentials>> userCredentialsCache,
+                       MetricsService metricsService) {
+        this.userRepository = userRepository;
+        this.userCredentialsCache = userCredentialsCache;
+        metricsService.registerCache(USER_CACHE_NAME, userCredentialsCache);
+    }
 
     public AuthDto loadUserByUsername(String username) {
-        final Set<String> authorities = new HashSet<>();
+        return userCredentialsCache.get(username, this::load)
+                .map(credentials -> new AuthDto(credentials.username(), credentials.password(), credentials.authorities()))
+                .orElse(null);
+    }
 
-        var user = userRepository.findByEmail(username);
+    public void invalidate(String username) {
+        userCredentialsCache.invalidate(username);
+    }
 
-        if (Objects.nonNull(user)) {
-            authorities.add("ROLE_" + user.getRole());
-            var pass = new String(Base64.getDecoder().decode(user.getPassword()));
+    public void invalidateAll() {
+        userCredentialsCache.invalidateAll();
+    }
 
-            return new AuthDto(user.getEmail(), pass, authorities);
-        }
+    private Optional<Credentials> load(String username) {
+        var user = userRepository.findByEmail(username);
 
-        return null;
+        if (user == null) {
+            return Optional.empty();
+        }
+        var pass = new String(Base64.getDecoder().decode(user.getPassword()));
+        return Optional.of(new Credentials(user.getEmail(), pass, Set.of("ROLE_" + user.getRole())));
     }
-
 }
@@ -0,0 +1,104 @@
+package org.demo.service.audit;
+
+import org.demo.dto.AuditRecordDto;
+import org.demo.dto.KeysetPageDto;
+import org.demo.exception.ServiceException;
+import org.demo.persistance.repository.AuditEventRepository;
+import org.demo.service.pagination.AuditEventCursor;
+import org.demo.service.telemetry.MetricsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Consultas sobre AUDIT_EVENTS por nave, usuario o rango de tiempo, de más reciente a más antiguo.
+ * Cada consulta recorre uno de los índices (filtro, event_timestamp, id) con paginación keyset,
+ * así que el coste de una página no depende del tamaño de la tabla ni de la profundidad.
+ * El rango es [from, to); sin {@code to} llega hasta ahora. event_timestamp está en segundos,
+ * así que {@code from} se redondea hacia abajo y {@code to} hacia arriba al segundo.
+ */
+@Service
+public class AuditEventService {
+
+    public static final String SORT = "timestamp,desc";
+
+    private final AuditEventRepository auditEventRepository;
+    private final MetricsService metricsService;
+    private final int maxPageSize;
+
+    public AuditEventService(AuditEventRepository auditEventRepository,
+                             MetricsService metricsService,
+                             @Value("${ships.audit.query.max-page-size:500}") int maxPageSize) {
+        this.auditEventRepository = auditEventRepository;
+        this.metricsService = metricsService;
+        this.maxPageSize = maxPageSize;
+    }
+
+    public KeysetPageDto<AuditRecordDto> findByShip(Long shipId, Instant from, Instant to, String after, int size) {
+        return metricsService.executeWithTracing("getAuditEventsByShip", () ->
+                page(from, to, after, size, (fromSeconds, beforeTimestamp, beforeId, limit) ->
+                        auditEventRepository.findByShipBefore(shipId, fromSeconds, beforeTimestamp, beforeId, limit)));
+    }
+
+    public KeysetPageDto<AuditRecordDto> findByUser(String user, Instant from, Instant to, String after, int size) {
+        return metricsService.executeWithTracing("getAuditEventsByUser", () ->
+                page(from, to, after, size, (fromSeconds, beforeTimestamp, beforeId, limit) ->
+                        auditEventRepository.findByUserBefore(user, fromSeconds, beforeTimestamp, beforeId, limit)));
+    }
+
+    public KeysetPageDto<AuditRecordDto> findByTimeRange(Instant from, Instant to, String after, int size) {
+        return metricsService.executeWithTracing("getAuditEventsByTimeRange", () -> {
+            if (from == null) {
+                throw new ServiceException("Parameter 'from' is required", 400);
+            }
+            return page(from, to, after, size, auditEventRepository::findBefore);
+        });
+    }
+
+    private KeysetPageDto<AuditRecordDto> page(Instant from, Instant to, String after, int size, KeysetQuery query) {
+        if (size <= 0 || size > maxPageSize) {
+            throw new ServiceException("Page size must be between 1 and " + maxPageSize, 400);
+        }
+        var fromSeconds = from == null ? 0L : from.getEpochSecond();
+        var toSeconds = ceilSeconds(to == null ? Instant.now() : to);
+        if (fromSeconds >= toSeconds) {
+            throw new ServiceException("Parameter 'from' must be before 'to'", 400);
+        }
+
+        // Sin cursor se empieza en "to" (exclusivo): ts < to
+        var cursor = Objects.isNull(after) || after.isBlank()
+                ? new AuditEventCursor(toSeconds, Long.MIN_VALUE)
+                : AuditEventCursor.decode(after);
+        // Se pide una fila extra para saber si hay página siguiente sin ejecutar count()
+        var rows = query.find(fromSeconds, cursor.lastTimestamp(), cursor.lastId(), size + 1);
+
+        var hasNext = rows.size() > size;
+        var content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            var last = content.getLast();
+            nextCursor = new AuditEventCursor(last.getTimestamp(), last.getId()).encode();
+        }
+
+        return KeysetPageDto.<AuditRecordDto>builder()
+                .content(content)
+                .size(content.size())
+                .sort(SORT)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    // Un evento del segundo en curso (p. ej. 10:00:00 con to = 10:00:00.500) queda dentro del rango
+    private static long ceilSeconds(Instant instant) {
+        return instant.getNano() == 0 ? instant.getEpochSecond() : instant.getEpochSecond() + 1;
+    }
+
+    @FunctionalInterface
+    private interface KeysetQuery {
+        List<AuditRecordDto> find(long from, long beforeTimestamp, long beforeId, int limit);
+    }
+}
@@ -0,0 +1,65 @@
+package org.demo.service.audit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.demo.persistance.entities.AuditEvent;
+import org.demo.persistance.repository.AuditEventRepository;
+import org.demo.service.telemetry.MetricsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+
+/**
+ * Retención de AUDIT_EVENTS por cubos diarios: se conservan los últimos
+ * {@code ships.audit.retention.days} días y cada cubo caducado se elimina completo con
+ * un único DELETE por event_day, empezando por el más antiguo. Los días sin eventos no
+ * cuestan nada: el siguiente cubo se obtiene con MIN(event_day) sobre su índice.
+ */
+@Service
+@Slf4j
+public class AuditRetentionService {
+
+    private final AuditEventRepository auditEventRepository;
+    private final MetricsService metricsService;
+    private final Clock clock;
+    private final int retentionDays;
+
+    @Autowired
+    public AuditRetentionService(AuditEventRepository auditEventRepository,
+                                 MetricsService metricsService,
+                                 @Value("${ships.audit.retention.days:365}") int retentionDays) {
+        this(auditEventRepository, metricsService, Clock.systemUTC(), retentionDays);
+    }
+
+    public AuditRetentionService(AuditEventRepository auditEventRepository, MetricsService metricsService,
+                                 Clock clock, int retentionDays) {
+        this.auditEventRepository = auditEventRepository;
+        this.metricsService = metricsService;
+        this.clock = clock;
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * @return eventos eliminados
+     */
+    @Scheduled(cron = "${ships.audit.retention.cron:0 30 3 * * *}", zone = "UTC")
+    public int purgeExpired() {
+        var firstKeptDay = AuditEvent.dayOf(clock.instant().getEpochSecond()) - retentionDays + 1;
+        var purged = 0;
+        var buckets = 0;
+        var oldest = auditEventRepository.findOldestDay();
+        while (oldest.isPresent() && oldest.get() < firstKeptDay) {
+            var deleted = auditEventRepository.deleteByDay(oldest.get());
+            metricsService.incrementAuditEventsPurged(deleted);
+            purged += deleted;
+            buckets++;
+            oldest = auditEventRepository.findOldestDay();
+        }
+        if (buckets > 0) {
+            log.info("Audit retention dropped {} daily buckets ({} events) older than {} days", buckets, purged, retentionDays);
+        }
+        return purged;
+    }
+}
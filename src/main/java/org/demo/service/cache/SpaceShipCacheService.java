@@ -0,0 +1,119 @@
+package org.demo.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+import org.demo.dto.MovieSpaceShipsDto;
+import org.demo.service.datasource.PrimaryReads;
+import org.demo.service.telemetry.MetricsService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Caché de lectura de naves: búsquedas por id (incluyendo los ids inexistentes)
+ * y búsquedas por nombre con el término tal cual llega.
+ * Las escrituras invalidan solo las entradas afectadas por el nombre modificado. Cada caché tiene
+ * un contador de generación que sube en cada invalidación: una carga que empezó antes y guarda su
+ * resultado después (leído antes del commit) se retira, en lugar de quedarse hasta el TTL.
+ * Con réplica de lectura los fallos de caché se cargan de la primaria ({@link PrimaryReads}): una
+ * lectura de la réplica podría volver a guardar la fila anterior justo después de la invalidación.
+ */
+@Service
+@Slf4j
+public class SpaceShipCacheService {
+
+    public static final String BY_ID_CACHE_NAME = "spaceShipsById";
+    public static final String SEARCH_CACHE_NAME = "spaceShipsSearch";
+
+    private final Cache<Long, Optional<MovieSpaceShipsDto>> byIdCache;
+    private final Cache<String, Set<MovieSpaceShipsDto>> searchCache;
+    private final MetricsService metricsService;
+    private final AtomicLong byIdGeneration = new AtomicLong();
+    private final AtomicLong searchGeneration = new AtomicLong();
+
+    public SpaceShipCacheService(@Qualifier("spaceShipByIdCache") Cache<Long, Optional<MovieSpaceShipsDto>> byIdCache,
+                                 @Qualifier("spaceShipSearchCache") Cache<String, Set<MovieSpaceShipsDto>> searchCache,
+                                 MetricsService metricsService) {
+        this.byIdCache = byIdCache;
+        this.searchCache = searchCache;
+        this.metricsService = metricsService;
+
+        metricsService.registerCache(BY_ID_CACHE_NAME, byIdCache);
+        metricsService.registerCache(SEARCH_CACHE_NAME, searchCache);
+    }
+
+    public Optional<MovieSpaceShipsDto> getById(long id, Function<Long, Optional<MovieSpaceShipsDto>> loader) {
+        var loaded = new boolean[1];
+        var result = get(byIdCache, byIdGeneration, id, key -> PrimaryReads.call(() -> loader.apply(key)), loaded);
+        if (!loaded[0] && result.isEmpty()) {
+            metricsService.incrementSpaceShipNegativeCacheHit();
+        }
+        return result;
+    }
+
+    public Set<MovieSpaceShipsDto> search(String normalizedTerm, Function<String, Set<MovieSpaceShipsDto>> loader) {
+        return get(searchCache, searchGeneration, normalizedTerm,
+                term -> Set.copyOf(PrimaryReads.call(() -> loader.apply(term))), new boolean[1]);
+    }
+
+    /**
+     * Invalida el id indicado y todos los términos de búsqueda que puedan
+     * coincidir con alguno de los nombres (antiguo y/o nuevo) de la nave.
+     */
+    public void evict(Long id, String... names) {
+        if (Objects.nonNull(id)) {
+            byIdGeneration.incrementAndGet();
+            byIdCache.invalidate(id);
+        }
+        searchGeneration.incrementAndGet();
+        for (String name : names) {
+            if (Objects.nonNull(name)) {
+                searchCache.asMap().keySet().removeIf(name::contains);
+            }
+        }
+        log.debug("SpaceShip cache evicted for id {}", id);
+    }
+
+    /**
+     * Para cargas masivas: invalida los ids nuevos y todas las búsquedas de una vez,
+     * en lugar de comparar cada nombre con cada término cacheado.
+     */
+    public void evictAll(Collection<Long> ids) {
+        byIdGeneration.incrementAndGet();
+        searchGeneration.incrementAndGet();
+        byIdCache.invalidateAll(ids);
+        searchCache.invalidateAll();
+    }
+
+    public void clear() {
+        byIdGeneration.incrementAndGet();
+        searchGeneration.incrementAndGet();
+        byIdCache.invalidateAll();
+        searchCache.invalidateAll();
+    }
+
+    // Sin recortar espacios: " Wing" solo coincide con los nombres que contienen el espacio
+    public static String normalizeTerm(String term) {
+        return term == null ? "" : term;
+    }
+
+    // La generación sube antes de invalidar: si cambió durante la carga, o la invalidación borra
+    // después la entrada recién guardada, o se retira aquí; el llamante recibe el valor igualmente
+    private static <K, V> V get(Cache<K, V> cache, AtomicLong generation, K key, Function<K, V> loader, boolean[] loaded) {
+        var startGeneration = generation.get();
+        var value = cache.get(key, k -> {
+            loaded[0] = true;
+            return loader.apply(k);
+        });
+        if (loaded[0] && generation.get() != startGeneration) {
+            cache.asMap().remove(key, value);
+        }
+        return value;
+    }
+}
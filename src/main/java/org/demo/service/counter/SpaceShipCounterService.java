@@ -0,0 +1,89 @@
+package org.demo.service.counter;
+
+import lombok.extern.slf4j.Slf4j;
+import org.demo.persistance.repository.MovieSpaceShipRepository;
+import org.demo.service.telemetry.MetricsService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Número total de naves mantenido en memoria para no ejecutar count(*) en cada página.
+ * Se inicializa una vez desde la base de datos, se ajusta en las altas/bajas y se
+ * reconcilia periódicamente para corregir escrituras hechas por otros nodos o fuera de la API.
+ * El valor es el último count(*) más los deltas apuntados después de leerlo; los que llegan
+ * mientras se ejecuta la consulta se dan por incluidos en ella para no contarlos dos veces.
+ */
+@Service
+@Slf4j
+public class SpaceShipCounterService {
+
+    private final MovieSpaceShipRepository movieSpaceShipRepository;
+    // Suma de todos los deltas desde el arranque; nunca se reinicia
+    private final AtomicLong deltas = new AtomicLong();
+    private volatile Baseline baseline = new Baseline(0, 0);
+    private volatile boolean seeded;
+
+    public SpaceShipCounterService(MovieSpaceShipRepository movieSpaceShipRepository, MetricsService metricsService) {
+        this.movieSpaceShipRepository = movieSpaceShipRepository;
+        metricsService.registerGauge("spaceship.count", "Tracked number of spaceships", this::current);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        reconcile();
+    }
+
+    @Scheduled(initialDelayString = "${ships.count.reconcile-interval-ms:300000}",
+            fixedDelayString = "${ships.count.reconcile-interval-ms:300000}")
+    public synchronized void reconcile() {
+        var actual = movieSpaceShipRepository.count();
+        var mark = deltas.get();
+        var tracked = baseline.valueAt(mark);
+        baseline = new Baseline(actual, mark);
+        if (!seeded) {
+            seeded = true;
+            log.debug("SpaceShip count seeded: {}", actual);
+        } else if (tracked != actual) {
+            log.info("SpaceShip count reconciled: tracked={}, actual={}", tracked, actual);
+        }
+    }
+
+    public long get() {
+        if (!seeded) {
+            synchronized (this) {
+                if (!seeded) {
+                    reconcile();
+                }
+            }
+        }
+        return current();
+    }
+
+    public void increment() {
+        add(1);
+    }
+
+    public void decrement() {
+        add(-1);
+    }
+
+    public void add(long delta) {
+        deltas.addAndGet(delta);
+    }
+
+    private long current() {
+        return baseline.valueAt(deltas.get());
+    }
+
+    // Resultado de un count(*) y la suma de deltas en el momento de leerlo
+    private record Baseline(long count, long deltasAtCount) {
+
+        long valueAt(long deltas) {
+            return count + (deltas - deltasAtCount);
+        }
+    }
+}
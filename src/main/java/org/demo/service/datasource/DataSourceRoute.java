@@ -0,0 +1,8 @@
+package org.demo.service.datasource;
+
+/**
+ * Pool al que se envía una transacción cuando está activo el enrutado primaria/réplica.
+ */
+public enum DataSourceRoute {
+    PRIMARY, REPLICA
+}
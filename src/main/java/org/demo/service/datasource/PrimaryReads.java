@@ -0,0 +1,32 @@
+package org.demo.service.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Lecturas que van a la primaria aunque su transacción sea readOnly. Las usa SpaceShipCacheService
+ * al rellenar una entrada: una fila leída de una réplica con retraso se quedaría en la caché después
+ * de que la escritura que la cambió hubiera invalidado la entrada.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> FORCED = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Supplier<T> reads) {
+        if (isForced()) {
+            return reads.get();
+        }
+        FORCED.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            FORCED.remove();
+        }
+    }
+
+    public static boolean isForced() {
+        return FORCED.get() != null;
+    }
+}
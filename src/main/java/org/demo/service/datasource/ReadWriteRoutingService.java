@@ -0,0 +1,149 @@
+package org.demo.service.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.demo.service.telemetry.MetricsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decide a qué pool va cada transacción (ver ReadWriteRoutingConfig):
+ * <ul>
+ *     <li>Fuera de transacción o en transacciones de escritura: primaria.</li>
+ *     <li>Transacciones {@code readOnly}: réplica, salvo que el usuario haya escrito en los últimos
+ *     {@code ships.datasource.read-your-writes.window} (así lee lo que acaba de escribir) o que el
+ *     retraso de la réplica supere {@code ships.datasource.replica.max-lag} o no se pueda medir.</li>
+ *     <li>Lecturas dentro de {@link PrimaryReads#call} (las que rellenan la caché de naves): primaria.</li>
+ * </ul>
+ * El retraso se consulta cada {@code lag-check-interval-ms} con {@code ships.datasource.replica.lag-query},
+ * una SQL contra la réplica que devuelve los segundos de retraso; sin consulta se considera 0.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "ships.datasource.replica.enabled", havingValue = "true")
+public class ReadWriteRoutingService {
+
+    public static final long LAG_UNKNOWN = -1;
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final MetricsService metricsService;
+    private final String lagQuery;
+    private final long maxLagMillis;
+    // Usuario -> escritura confirmada dentro de la ventana; caduca sola al terminar la ventana
+    private final Cache<String, Boolean> recentWriters;
+    private final AtomicLong replicaLagMillis;
+
+    @Autowired
+    public ReadWriteRoutingService(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                   MetricsService metricsService,
+                                   @Value("${ships.datasource.replica.lag-query:}") String lagQuery,
+                                   @Value("${ships.datasource.replica.max-lag:PT2S}") Duration maxLag,
+                                   @Value("${ships.datasource.read-your-writes.window:PT5S}") Duration readYourWritesWindow,
+                                   @Value("${ships.datasource.read-your-writes.maximum-size:10000}") long maximumPinnedUsers) {
+        this(new JdbcTemplate(replicaDataSource), metricsService, Clock.systemUTC(), lagQuery, maxLag,
+                readYourWritesWindow, maximumPinnedUsers);
+    }
+
+    public ReadWriteRoutingService(JdbcTemplate replicaJdbcTemplate, MetricsService metricsService, Clock clock,
+                                   String lagQuery, Duration maxLag, Duration readYourWritesWindow,
+                                   long maximumPinnedUsers) {
+        this.replicaJdbcTemplate = replicaJdbcTemplate;
+        this.metricsService = metricsService;
+        this.lagQuery = lagQuery == null ? "" : lagQuery.strip();
+        this.maxLagMillis = maxLag.toMillis();
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(maximumPinnedUsers)
+                .expireAfterWrite(readYourWritesWindow)
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .build();
+        // Con consulta configurada, la réplica no recibe lecturas hasta la primera medición
+        this.replicaLagMillis = new AtomicLong(this.lagQuery.isEmpty() ? 0 : LAG_UNKNOWN);
+        metricsService.registerGauge("db.replica.lag.millis", "Last measured replica lag (-1 when unknown)", replicaLagMillis);
+    }
+
+    public DataSourceRoute route() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return count(DataSourceRoute.PRIMARY, "no-transaction");
+        }
+        var user = currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (user != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        recordWrite(user);
+                    }
+                });
+            }
+            return count(DataSourceRoute.PRIMARY, "write");
+        }
+        if (PrimaryReads.isForced()) {
+            return count(DataSourceRoute.PRIMARY, "cache-load");
+        }
+        if (user != null && recentWriters.getIfPresent(user) != null) {
+            return count(DataSourceRoute.PRIMARY, "read-your-writes");
+        }
+        var lag = replicaLagMillis.get();
+        if (lag == LAG_UNKNOWN || lag > maxLagMillis) {
+            return count(DataSourceRoute.PRIMARY, "replica-lag");
+        }
+        return count(DataSourceRoute.REPLICA, "read-only");
+    }
+
+    /**
+     * Fija las lecturas del usuario a la primaria durante la ventana read-your-writes.
+     */
+    public void recordWrite(String user) {
+        recentWriters.put(user, Boolean.TRUE);
+    }
+
+    @Scheduled(fixedDelayString = "${ships.datasource.replica.lag-check-interval-ms:5000}")
+    public void checkReplicaLag() {
+        if (lagQuery.isEmpty()) {
+            return;
+        }
+        try {
+            // NULL (p. ej. replicación parada en MySQL) cuenta como retraso desconocido
+            var seconds = replicaJdbcTemplate.queryForObject(lagQuery, Double.class);
+            replicaLagMillis.set(seconds == null ? LAG_UNKNOWN : Math.round(seconds * 1000));
+        } catch (RuntimeException e) {
+            replicaLagMillis.set(LAG_UNKNOWN);
+            log.warn("Replica lag check failed, reads go to the primary: {}", e.getMessage());
+        }
+    }
+
+    public long getReplicaLagMillis() {
+        return replicaLagMillis.get();
+    }
+
+    private DataSourceRoute count(DataSourceRoute route, String reason) {
+        metricsService.incrementDataSourceRoute(route.name().toLowerCase(Locale.ROOT), reason);
+        return route;
+    }
+
+    private static String currentUser() {
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
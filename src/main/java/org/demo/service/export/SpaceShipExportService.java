@@ -0,0 +1,136 @@
+package org.demo.service.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.demo.dto.MovieSpaceShipsDto;
+import org.demo.persistance.entities.MovieSpaceShip;
+import org.demo.persistance.repository.MovieSpaceShipRepository;
+import org.demo.service.mapper.SpaceShipMapper;
+import org.demo.service.telemetry.MetricsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * Exporta el catálogo completo recorriendo un Stream de la base de datos y escribiendo
+ * cada nave directamente en la salida. Cada {@code detach-interval} filas se vacía el
+ * contexto de persistencia y se hace flush de la salida, así que la memoria usada no
+ * depende del número de naves.
+ */
+@Service
+@Slf4j
+public class SpaceShipExportService {
+
+    static final String CSV_HEADER = "id,name,movie";
+
+    private final MovieSpaceShipRepository movieSpaceShipRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final MetricsService metricsService;
+    private final int detachInterval;
+
+    public SpaceShipExportService(MovieSpaceShipRepository movieSpaceShipRepository,
+                                  EntityManager entityManager,
+                                  ObjectMapper objectMapper,
+                                  MetricsService metricsService,
+                                  @Value("${ships.export.detach-interval:1000}") int detachInterval) {
+        this.movieSpaceShipRepository = movieSpaceShipRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.metricsService = metricsService;
+        this.detachInterval = detachInterval;
+    }
+
+    /**
+     * @return número de naves exportadas
+     */
+    @Transactional(readOnly = true)
+    public long export(ExportFormat format, OutputStream outputStream) {
+        return metricsService.executeWithTracing("exportSpaceShips", () -> {
+            metricsService.incrementSpaceShipRead();
+            try (var ships = movieSpaceShipRepository.streamAllOrderedById()) {
+                var exported = format == ExportFormat.CSV
+                        ? writeCsv(ships.iterator(), outputStream)
+                        : writeNdjson(ships.iterator(), outputStream);
+                log.debug("Exported {} spaceships as {}", exported, format);
+                return exported;
+            } catch (IOException e) {
+                throw new UncheckedIOException("SpaceShip export aborted", e);
+            }
+        });
+    }
+
+    private long writeNdjson(Iterator<MovieSpaceShip> ships, OutputStream outputStream) throws IOException {
+        // El generador no debe cerrar la respuesta; solo separa los valores raíz con '\n'
+        var generator = objectMapper.getFactory().createGenerator(outputStream);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(new SerializedString("\n"));
+
+        long count = 0;
+        while (ships.hasNext()) {
+            generator.writeObject(SpaceShipMapper.MAPPER.mapToDto(ships.next()));
+            if (++count % detachInterval == 0) {
+                entityManager.clear();
+                generator.flush();
+            }
+        }
+        if (count > 0) {
+            generator.writeRaw('\n');
+        }
+        generator.close();
+        outputStream.flush();
+        return count;
+    }
+
+    private long writeCsv(Iterator<MovieSpaceShip> ships, OutputStream outputStream) throws IOException {
+        var writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        long count = 0;
+        while (ships.hasNext()) {
+            writeCsvRow(writer, SpaceShipMapper.MAPPER.mapToDto(ships.next()));
+            if (++count % detachInterval == 0) {
+                entityManager.clear();
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsvRow(Writer writer, MovieSpaceShipsDto ship) throws IOException {
+        writer.write(String.valueOf(ship.getId()));
+        writer.write(',');
+        writeCsvField(writer, ship.getName());
+        writer.write(',');
+        writeCsvField(writer, ship.getMovie());
+        writer.write('\n');
+    }
+
+    // RFC 4180: entre comillas solo si hace falta, duplicando las comillas internas
+    static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,302 @@
+package org.demo.service.importer;
+
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.demo.dto.AuditEventDto;
+import org.demo.dto.BulkItemResultDto;
+import org.demo.dto.ImportResultDto;
+import org.demo.dto.MovieSpaceShipsDto;
+import org.demo.persistance.entities.MovieSpaceShip;
+import org.demo.persistance.repository.MovieSpaceShipRepository;
+import org.demo.service.cache.SpaceShipCacheService;
+import org.demo.service.counter.SpaceShipCounterService;
+import org.demo.service.export.ExportFormat;
+import org.demo.service.mapper.SpaceShipMapper;
+import org.demo.service.outbox.AuditOutboxService;
+import org.demo.service.search.SpaceShipSearchIndexService;
+import org.demo.service.telemetry.MetricsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Alta masiva de naves leyendo la entrada (NDJSON o CSV con cabecera) registro a registro
+ * con el parser en streaming de Jackson. Las naves válidas se acumulan hasta
+ * {@code ships.import.batch-size} y cada bloque se guarda en su propia transacción junto con
+ * un único evento de auditoría resumen, así que la memoria usada no depende del tamaño del fichero.
+ * Un bloque fallido no detiene la importación; un error de sintaxis en la entrada sí.
+ */
+@Service
+@Slf4j
+public class SpaceShipImportService {
+
+    public static final String IMPORT_OPERATION = "IMPORT";
+
+    private static final int MAX_FIELD_LENGTH = 100;
+    private static final int PROGRESS_LOG_INTERVAL = 10;
+
+    private final MovieSpaceShipRepository movieSpaceShipRepository;
+    private final AuditOutboxService auditOutboxService;
+    private final MetricsService metricsService;
+    private final SpaceShipCacheService spaceShipCacheService;
+    private final SpaceShipCounterService spaceShipCounterService;
+    private final SpaceShipSearchIndexService spaceShipSearchIndexService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader ndjsonReader;
+    private final ObjectReader csvReader;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public SpaceShipImportService(MovieSpaceShipRepository movieSpaceShipRepository,
+                                  AuditOutboxService auditOutboxService,
+                                  MetricsService metricsService,
+                                  SpaceShipCacheService spaceShipCacheService,
+                                  SpaceShipCounterService spaceShipCounterService,
+                                  SpaceShipSearchIndexService spaceShipSearchIndexService,
+                                  TransactionTemplate transactionTemplate,
+                                  ObjectMapper objectMapper,
+                                  @Value("${ships.import.batch-size:1000}") int batchSize,
+                                  @Value("${ships.import.max-reported-errors:100}") int maxReportedErrors) {
+        this.movieSpaceShipRepository = movieSpaceShipRepository;
+        this.auditOutboxService = auditOutboxService;
+        this.metricsService = metricsService;
+        this.spaceShipCacheService = spaceShipCacheService;
+        this.spaceShipCounterService = spaceShipCounterService;
+        this.spaceShipSearchIndexService = spaceShipSearchIndexService;
+        this.transactionTemplate = transactionTemplate;
+        this.ndjsonReader = objectMapper.readerFor(MovieSpaceShipsDto.class);
+        // Las columnas desconocidas (p. ej. las de un export con más campos) se ignoran
+        this.csvReader = CsvMapper.builder()
+                .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL, CsvParser.Feature.TRIM_SPACES)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build()
+                .readerFor(MovieSpaceShipsDto.class)
+                .with(CsvSchema.emptySchema().withHeader());
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public ImportResultDto importSpaceShips(ExportFormat format, InputStream inputStream) {
+        return metricsService.executeWithTracing("importSpaceShips", () -> {
+            var user = currentUser();
+            var progress = new Progress(format);
+            var batch = new ArrayList<MovieSpaceShip>(batchSize);
+            var startTime = System.nanoTime();
+
+            try (MappingIterator<MovieSpaceShipsDto> records = openRecords(format, inputStream, progress)) {
+                while (records != null && readNext(records, progress, batch)) {
+                    if (batch.size() >= batchSize) {
+                        writeBatch(batch, user, progress);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("SpaceShip import aborted", e);
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch, user, progress);
+            }
+
+            var elapsedNanos = Math.max(System.nanoTime() - startTime, 1);
+            var rowsPerSecond = progress.read * 1_000_000_000d / elapsedNanos;
+            metricsService.recordSpaceShipImportThroughput(rowsPerSecond);
+            log.info("Import of {} finished: {} read, {} imported, {} rejected in {} batches ({} failed), {} rows/s",
+                    format, progress.read, progress.imported, progress.rejected, progress.batches,
+                    progress.failedBatches, Math.round(rowsPerSecond));
+            return progress.toResult(elapsedNanos / 1_000_000, rowsPerSecond);
+        });
+    }
+
+    /**
+     * Abre el iterador de registros. Crearlo ya lee el principio de la entrada (la cabecera del CSV,
+     * el primer token del NDJSON), así que una entrada mal formada desde el inicio aborta la importación
+     * igual que si lo estuviera a mitad.
+     *
+     * @return null si la importación se aborta
+     */
+    private MappingIterator<MovieSpaceShipsDto> openRecords(ExportFormat format, InputStream inputStream,
+                                                            Progress progress) throws IOException {
+        var reader = format == ExportFormat.CSV ? csvReader : ndjsonReader;
+        try {
+            return reader.readValues(inputStream);
+        } catch (StreamReadException e) {
+            progress.reject(progress.read++, null, "Malformed input: " + e.getOriginalMessage());
+            progress.aborted = true;
+            return null;
+        }
+    }
+
+    /**
+     * Lee el siguiente registro y, si es válido, lo añade al bloque.
+     *
+     * @return false al terminar la entrada o si la importación se aborta
+     */
+    private boolean readNext(MappingIterator<MovieSpaceShipsDto> records, Progress progress,
+                             List<MovieSpaceShip> batch) throws IOException {
+        try {
+            if (!records.hasNextValue()) {
+                return false;
+            }
+            var dto = records.nextValue();
+            var index = progress.read++;
+            var message = validate(dto);
+            if (message != null) {
+                progress.reject(index, dto == null ? null : dto.getId(), message);
+                return true;
+            }
+            var entity = SpaceShipMapper.MAPPER.mapToEntity(dto);
+            entity.setId(null);
+            entity.setVersion(null);
+            if (batch.isEmpty()) {
+                progress.batchStart = index;
+            }
+            batch.add(entity);
+            return true;
+        } catch (StreamReadException e) {
+            // Entrada mal formada: no se puede saber dónde empieza el siguiente registro
+            progress.reject(progress.read++, null, "Malformed input: " + e.getOriginalMessage());
+            progress.aborted = true;
+            return false;
+        } catch (DatabindException e) {
+            // Registro con tipos incorrectos: se descarta y el iterador continúa con el siguiente
+            progress.reject(progress.read++, null, "Invalid record: " + e.getOriginalMessage());
+            return true;
+        }
+    }
+
+    private void writeBatch(List<MovieSpaceShip> batch, String user, Progress progress) {
+        progress.batches++;
+        try {
+            transactionTemplate.execute(status -> {
+                movieSpaceShipRepository.saveAll(batch);
+                auditOutboxService.enqueue(AuditEventDto.builder()
+                        .user(user)
+                        .shipId(batch.get(0).getId())
+                        .shipName(batch.get(0).getName())
+                        .itemCount(batch.size())
+                        .operation(IMPORT_OPERATION)
+                        .timestamp(LocalDateTime.now().toEpochSecond(ZoneOffset.UTC))
+                        .build());
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.error("Import batch {} of {} ships failed: {}", progress.batches, batch.size(), e.getMessage());
+            progress.failedBatches++;
+            progress.rejected += batch.size();
+            // index: posición en la entrada del primer registro del bloque
+            progress.addError(BulkItemResultDto.builder()
+                    .index(progress.batchStart)
+                    .status(BulkItemResultDto.STATUS_ERROR)
+                    .code(500)
+                    .message("Batch " + progress.batches + " of " + batch.size() + " ships failed: " + e.getMessage())
+                    .build());
+            batch.clear();
+            return;
+        }
+
+        var ids = new ArrayList<Long>(batch.size());
+        for (var ship : batch) {
+            ids.add(ship.getId());
+            spaceShipSearchIndexService.add(ship.getId(), ship.getName());
+        }
+        spaceShipCacheService.evictAll(ids);
+        spaceShipCounterService.add(batch.size());
+        metricsService.incrementSpaceShipCreated(batch.size());
+        metricsService.incrementSpaceShipImported(batch.size());
+        progress.imported += batch.size();
+        batch.clear();
+
+        if (progress.batches % PROGRESS_LOG_INTERVAL == 0) {
+            log.info("Import in progress: {} read, {} imported, {} rejected", progress.read, progress.imported, progress.rejected);
+        }
+    }
+
+    private static String validate(MovieSpaceShipsDto dto) {
+        if (dto == null) {
+            return "SpaceShip must not be null";
+        }
+        if (isInvalidField(dto.getName())) {
+            return "SpaceShip name is required and must not exceed " + MAX_FIELD_LENGTH + " characters";
+        }
+        if (isInvalidField(dto.getMovie())) {
+            return "SpaceShip movie is required and must not exceed " + MAX_FIELD_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    private static boolean isInvalidField(String value) {
+        return value == null || value.isBlank() || value.length() > MAX_FIELD_LENGTH;
+    }
+
+    private static String currentUser() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+
+    private final class Progress {
+        private final ExportFormat format;
+        private final List<BulkItemResultDto> errors = new ArrayList<>();
+        private int read;
+        private int batchStart;
+        private long imported;
+        private long rejected;
+        private int batches;
+        private int failedBatches;
+        private boolean aborted;
+        private boolean errorsTruncated;
+
+        private Progress(ExportFormat format) {
+            this.format = format;
+        }
+
+        private void reject(int index, Long id, String message) {
+            rejected++;
+            addError(BulkItemResultDto.builder()
+                    .index(index)
+                    .id(id)
+                    .status(BulkItemResultDto.STATUS_ERROR)
+                    .code(400)
+                    .message(message)
+                    .build());
+        }
+
+        private void addError(BulkItemResultDto error) {
+            if (errors.size() < maxReportedErrors) {
+                errors.add(error);
+            } else {
+                errorsTruncated = true;
+            }
+        }
+
+        private ImportResultDto toResult(long durationMs, double rowsPerSecond) {
+            return ImportResultDto.builder()
+                    .format(format.name())
+                    .read(read)
+                    .imported(imported)
+                    .rejected(rejected)
+                    .batches(batches)
+                    .failedBatches(failedBatches)
+                    .aborted(aborted)
+                    .durationMs(durationMs)
+                    .rowsPerSecond(rowsPerSecond)
+                    .errors(errors)
+                    .errorsTruncated(errorsTruncated)
+                    .build();
+        }
+    }
+}
@@ -21,7 +21,7 @@ public class KafkaReceiverService {
     public void loginAttempsReceive(String message) {
         try {
             LoginAttemptDto loginAttempt = objectMapper.readValue(message, LoginAttemptDto.class);
-            log.info("Received login attempt message: User={}, Attempts={}, Timestamp={}", loginAttempt.getUsername(), loginAttempt.getAttempts(), loginAttempt.getTimestamp());
+            log.info("Received login attempt message: User={}, Source={}, Outcome={}, Attempts={}, Timestamp={}", loginAttempt.getUsername(), loginAttempt.getSource(), loginAttempt.getOutcome(), loginAttempt.getAttempts(), loginAttempt.getTimestamp());
         } catch (JsonProcessingException e) {
             log.error("Error deserializing message from JSON: {}", e.getMessage());
             log.error("Original message: {}", message);
@@ -2,26 +2,207 @@ package org.demo.service.kafka;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.demo.service.telemetry.MetricsService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Productor asíncrono: {@link #sendMessage} solo encola el mensaje en una cola acotada
+ * y un hilo propio lo serializa y lo entrega a {@link KafkaTemplate}, que agrupa los
+ * envíos según linger/batch/compresión. El hilo que llama (p. ej. la autenticación)
+ * nunca espera al broker; cuando la cola está llena se descarta el mensaje (DROP)
+ * o se espera como máximo {@code block-timeout} antes de descartarlo (BLOCK).
+ * Los descartes se cuentan en {@code kafka.messages.dropped}; el log solo los avisa
+ * {@code max-drop-logs-per-minute} veces por minuto, con los omitidos en el siguiente mensaje.
+ */
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class KafkaSenderService {
+
+    public enum BackpressurePolicy {DROP, BLOCK}
+
+    private record PendingMessage(String topic, Object payload) {
+    }
+
     private final KafkaTemplate<String, String> kafkaTemplate;
     private final ObjectMapper objectMapper;
+    private final MetricsService metricsService;
+    private final ThreadFactory threadFactory;
+    private final BlockingQueue<PendingMessage> queue;
+    private final BackpressurePolicy backpressurePolicy;
+    private final Duration blockTimeout;
+    private final int drainBatchSize;
+    private final Duration shutdownTimeout;
+    private final int maxDropLogsPerMinute;
+
+    private final AtomicLong queueSize = new AtomicLong();
+    private final AtomicLong dropLogWindow = new AtomicLong();
+    private final AtomicInteger dropLogsInWindow = new AtomicInteger();
+    private final AtomicLong suppressedDropLogs = new AtomicLong();
+    private volatile boolean running;
+    private Thread senderThread;
+
+    public KafkaSenderService(KafkaTemplate<String, String> kafkaTemplate,
+                              ObjectMapper objectMapper,
+                              MetricsService metricsService,
+                              @Qualifier("backgroundThreadFactory") ThreadFactory threadFactory,
+                              @Value("${ships.kafka.producer.queue-capacity:10000}") int queueCapacity,
+                              @Value("${ships.kafka.producer.backpressure:DROP}") BackpressurePolicy backpressurePolicy,
+                              @Value("${ships.kafka.producer.block-timeout:PT0.05S}") Duration blockTimeout,
+                              @Value("${ships.kafka.producer.drain-batch-size:500}") int drainBatchSize,
+                              @Value("${ships.kafka.producer.shutdown-timeout:PT5S}") Duration shutdownTimeout,
+                              @Value("${ships.kafka.producer.max-drop-logs-per-minute:10}") int maxDropLogsPerMinute) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.metricsService = metricsService;
+        this.threadFactory = threadFactory;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.backpressurePolicy = backpressurePolicy;
+        this.blockTimeout = blockTimeout;
+        this.drainBatchSize = drainBatchSize;
+        this.shutdownTimeout = shutdownTimeout;
+        this.maxDropLogsPerMinute = maxDropLogsPerMinute;
+
+        metricsService.registerGauge("kafka.producer.queue.size", "Messages waiting to be handed to the Kafka producer", queueSize);
+    }
+
+    /**
+     * Encola el mensaje para su envío asíncrono.
+     *
+     * @return false si la cola estaba llena y el mensaje se ha descartado
+     */
+    public boolean sendMessage(String topic, Object message) {
+        var pending = new PendingMessage(topic, message);
+        boolean accepted;
+        if (backpressurePolicy == BackpressurePolicy.BLOCK) {
+            try {
+                accepted = queue.offer(pending, blockTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                accepted = false;
+            }
+        } else {
+            accepted = queue.offer(pending);
+        }
+
+        if (!accepted) {
+            metricsService.incrementKafkaMessagesDropped();
+            logDropped(topic);
+            return false;
+        }
+        queueSize.set(queue.size());
+        return true;
+    }
+
+    private void logDropped(String topic) {
+        if (!acquireDropLogPermit()) {
+            suppressedDropLogs.incrementAndGet();
+            return;
+        }
+        log.warn("Kafka producer queue full, message to topic {} dropped (suppressed={})",
+                topic, suppressedDropLogs.getAndSet(0));
+    }
+
+    // Ventana fija de un minuto, como el log de SQL lentas de SqlStatementMetricsListener
+    private boolean acquireDropLogPermit() {
+        var minute = System.currentTimeMillis() / 60_000;
+        var window = dropLogWindow.get();
+        if (window != minute && dropLogWindow.compareAndSet(window, minute)) {
+            dropLogsInWindow.set(0);
+        }
+        return dropLogsInWindow.incrementAndGet() <= maxDropLogsPerMinute;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        senderThread = threadFactory.newThread(this::drainLoop);
+        senderThread.setName("kafka-sender");
+        senderThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = senderThread;
+        }
+        if (thread != null) {
+            // El hilo vacía lo que queda en la cola antes de terminar
+            thread.join(shutdownTimeout.toMillis());
+            if (thread.isAlive()) {
+                thread.interrupt();
+                log.warn("Kafka sender stopped with {} messages still queued", queue.size());
+            }
+        }
+    }
+
+    private void drainLoop() {
+        var batch = new ArrayList<PendingMessage>(drainBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                var first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, drainBatchSize - 1);
+                queueSize.set(queue.size());
+                send(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Unexpected error in Kafka sender loop: {}", e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
 
-    public void sendMessage(String topic, Object message) {
-        try {
-            String jsonMessage = objectMapper.writeValueAsString(message);
-            kafkaTemplate.send(topic, jsonMessage);
-            log.info("Message sent to topic {}: {}", topic, jsonMessage);
-        } catch (JsonProcessingException e) {
-            log.error("Error serializing message to JSON: {}", e.getMessage());
-            throw new RuntimeException("Failed to serialize message to JSON", e);
+    private void send(List<PendingMessage> batch) {
+        for (PendingMessage pending : batch) {
+            var startTime = System.nanoTime();
+            try {
+                var jsonMessage = objectMapper.writeValueAsString(pending.payload());
+                kafkaTemplate.send(pending.topic(), jsonMessage).whenComplete((result, ex) -> {
+                    metricsService.recordKafkaSendTime(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+                    if (ex == null) {
+                        metricsService.incrementKafkaMessagesSent();
+                    } else {
+                        metricsService.incrementKafkaMessagesFailed();
+                        log.warn("Error sending message to topic {}: {}", pending.topic(), ex.getMessage());
+                    }
+                });
+                log.debug("Message queued in Kafka producer for topic {}", pending.topic());
+            } catch (JsonProcessingException e) {
+                metricsService.incrementKafkaMessagesFailed();
+                log.error("Error serializing message to JSON: {}", e.getMessage());
+            } catch (RuntimeException e) {
+                // KafkaTemplate lanza de forma síncrona si no consigue metadatos en max.block.ms
+                metricsService.incrementKafkaMessagesFailed();
+                log.warn("Error sending message to topic {}: {}", pending.topic(), e.getMessage());
+            }
         }
     }
 }
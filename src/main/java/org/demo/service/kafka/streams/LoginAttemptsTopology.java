@@ -0,0 +1,128 @@
+package org.demo.service.kafka.streams;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Grouped;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.Produced;
+import org.apache.kafka.streams.kstream.TimeWindows;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.WindowStore;
+import org.demo.dto.LoginAttemptDto;
+import org.demo.dto.LoginLockoutDto;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import static org.demo.utils.Constants.LOGIN_ATTEMPTS_TOPIC;
+import static org.demo.utils.Constants.LOGIN_LOCKOUTS_TOPIC;
+
+/**
+ * Topología sobre {@code LOGIN_ATTEMPTS_TOPIC}: cuenta los intentos fallidos por usuario y por
+ * origen en ventanas fijas de {@code window} y publica en {@code LOGIN_LOCKOUTS_TOPIC} (compactado,
+ * clave "USER:nombre" o "SOURCE:ip") la decisión de bloqueo en cuanto una cuenta llega a su umbral.
+ * Ese mismo topic se lee como GlobalKTable, así que cualquier nodo conoce todos los bloqueos.
+ * Los rechazos por un bloqueo ya vigente (BLOCKED) no se cuentan: si no, un usuario bloqueado que
+ * sigue intentándolo alargaría su propio bloqueo a la ventana siguiente.
+ */
+@Slf4j
+public class LoginAttemptsTopology {
+
+    public static final String USER_COUNTS_STORE = "login-attempts-by-user";
+    public static final String SOURCE_COUNTS_STORE = "login-attempts-by-source";
+    public static final String LOCKOUTS_STORE = "login-lockouts";
+    public static final String UNKNOWN_SOURCE = "unknown";
+
+    private final ObjectMapper objectMapper;
+    private final Duration window;
+    private final Duration grace;
+    private final int userThreshold;
+    private final int sourceThreshold;
+
+    public LoginAttemptsTopology(ObjectMapper objectMapper, Duration window, Duration grace,
+                                 int userThreshold, int sourceThreshold) {
+        this.objectMapper = objectMapper;
+        this.window = window;
+        this.grace = grace;
+        this.userThreshold = userThreshold;
+        this.sourceThreshold = sourceThreshold;
+    }
+
+    public static String lockoutKey(LoginLockoutDto.Type type, String key) {
+        return type.name() + ":" + key;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void build(StreamsBuilder builder) {
+        KStream<String, LoginAttemptDto> attempts = builder
+                .stream(LOGIN_ATTEMPTS_TOPIC, Consumed.with(Serdes.String(), Serdes.String()))
+                .mapValues(this::parse)
+                .filter((key, attempt) -> attempt != null && attempt.getUsername() != null
+                        && attempt.getOutcome() != LoginAttemptDto.Outcome.BLOCKED);
+
+        countAndDecide(attempts, LoginAttemptDto::getUsername, LoginLockoutDto.Type.USER, USER_COUNTS_STORE, userThreshold);
+        countAndDecide(attempts, attempt -> attempt.getSource() == null ? UNKNOWN_SOURCE : attempt.getSource(),
+                LoginLockoutDto.Type.SOURCE, SOURCE_COUNTS_STORE, sourceThreshold);
+
+        builder.globalTable(LOGIN_LOCKOUTS_TOPIC, Consumed.with(Serdes.String(), Serdes.String()),
+                Materialized.<String, String, KeyValueStore<Bytes, byte[]>>as(LOCKOUTS_STORE)
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(Serdes.String()));
+    }
+
+    private void countAndDecide(KStream<String, LoginAttemptDto> attempts, Function<LoginAttemptDto, String> keyOf,
+                                LoginLockoutDto.Type type, String storeName, int threshold) {
+        // Solo interesa la clave: el valor se reduce a vacío para no serializar el DTO al reparticionar
+        attempts.map((key, attempt) -> KeyValue.pair(keyOf.apply(attempt), ""))
+                .groupByKey(Grouped.with(storeName + "-repartition", Serdes.String(), Serdes.String()))
+                .windowedBy(TimeWindows.ofSizeAndGrace(window, grace))
+                .count(Materialized.<String, Long, WindowStore<Bytes, byte[]>>as(storeName)
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(Serdes.Long()))
+                .toStream()
+                .filter((windowedKey, count) -> count != null && count >= threshold)
+                .map((windowedKey, count) -> KeyValue.pair(lockoutKey(type, windowedKey.key()),
+                        toJson(decision(type, windowedKey, count, threshold))))
+                .to(LOGIN_LOCKOUTS_TOPIC, Produced.with(Serdes.String(), Serdes.String()));
+    }
+
+    private static LoginLockoutDto decision(LoginLockoutDto.Type type, Windowed<String> windowedKey, long count, int threshold) {
+        return LoginLockoutDto.builder()
+                .type(type)
+                .key(windowedKey.key())
+                .attempts(count)
+                .threshold(threshold)
+                .locked(true)
+                .windowStart(windowedKey.window().start())
+                .windowEnd(windowedKey.window().end())
+                .build();
+    }
+
+    private LoginAttemptDto parse(String json) {
+        try {
+            return objectMapper.readValue(json, LoginAttemptDto.class);
+        } catch (JsonProcessingException e) {
+            log.error("Skipping malformed login attempt message: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private String toJson(LoginLockoutDto lockout) {
+        try {
+            return objectMapper.writeValueAsString(lockout);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize login lockout", e);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package org.demo.service.kafka.streams;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.demo.dto.LoginLockoutDto;
+import org.demo.exception.ServiceException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Consultas interactivas sobre los stores de {@link LoginAttemptsTopology}. Los bloqueos salen de la
+ * GlobalKTable, presente completa en cada nodo; las cuentas por ventana salen del store local y solo
+ * incluyen las particiones asignadas a este nodo.
+ * La instancia de KafkaStreams la entrega LoginAttemptsStreamsLifecycle y su estado llega como listener,
+ * así que las consultas nunca esperan a que el stream termine de arrancar.
+ */
+@Service
+@Slf4j
+public class LoginLockoutService implements KafkaStreams.StateListener {
+
+    private final ObjectProvider<LoginAttemptsTopology> topology;
+    private final ObjectMapper objectMapper;
+    private volatile KafkaStreams kafkaStreams;
+    private volatile boolean running;
+
+    public LoginLockoutService(ObjectProvider<LoginAttemptsTopology> topology, ObjectMapper objectMapper) {
+        this.topology = topology;
+        this.objectMapper = objectMapper;
+    }
+
+    public void streamsStarted(KafkaStreams streams) {
+        kafkaStreams = streams;
+    }
+
+    public void streamsClosed() {
+        kafkaStreams = null;
+        running = false;
+    }
+
+    @Override
+    public void onChange(KafkaStreams.State newState, KafkaStreams.State oldState) {
+        log.info("Login attempts stream state: {} -> {}", oldState, newState);
+        running = newState == KafkaStreams.State.RUNNING;
+    }
+
+    /**
+     * Estado de un usuario u origen: intentos en la ventana actual y la última decisión de bloqueo vigente.
+     */
+    public LoginLockoutDto getLockout(LoginLockoutDto.Type type, String key) {
+        var kafkaStreams = runningStreams()
+                .orElseThrow(() -> new ServiceException("Login attempts stream is not running", 503));
+        var window = topology.getObject().getWindow().toMillis();
+        var now = Instant.now().toEpochMilli();
+        var windowStart = now - now % window;
+
+        var storeName = type == LoginLockoutDto.Type.USER
+                ? LoginAttemptsTopology.USER_COUNTS_STORE
+                : LoginAttemptsTopology.SOURCE_COUNTS_STORE;
+        var counts = kafkaStreams.store(StoreQueryParameters.fromNameAndType(storeName, QueryableStoreTypes.<String, Long>windowStore()));
+        var attempts = counts.fetch(key, windowStart);
+
+        var decision = activeDecision(kafkaStreams, type, key, now);
+        return LoginLockoutDto.builder()
+                .type(type)
+                .key(key)
+                .attempts(Math.max(attempts == null ? 0 : attempts, decision.map(LoginLockoutDto::getAttempts).orElse(0L)))
+                .threshold(decision.map(LoginLockoutDto::getThreshold).orElse(null))
+                .locked(decision.isPresent())
+                .windowStart(decision.map(LoginLockoutDto::getWindowStart).orElse(windowStart))
+                .windowEnd(decision.map(LoginLockoutDto::getWindowEnd).orElse(windowStart + window))
+                .build();
+    }
+
+    /**
+     * Bloqueo compartido por todos los nodos; false si el stream no está disponible.
+     */
+    public boolean isUserLocked(String username) {
+        return isLocked(LoginLockoutDto.Type.USER, username);
+    }
+
+    /**
+     * Bloqueo de un origen (IP) que ha acumulado fallos con cualquier usuario; false si no se conoce.
+     */
+    public boolean isSourceLocked(String source) {
+        return source != null && isLocked(LoginLockoutDto.Type.SOURCE, source);
+    }
+
+    private boolean isLocked(LoginLockoutDto.Type type, String key) {
+        return runningStreams()
+                .flatMap(kafkaStreams -> activeDecision(kafkaStreams, type, key, Instant.now().toEpochMilli()))
+                .isPresent();
+    }
+
+    private Optional<LoginLockoutDto> activeDecision(KafkaStreams kafkaStreams, LoginLockoutDto.Type type, String key, long now) {
+        var lockouts = kafkaStreams.store(StoreQueryParameters.fromNameAndType(
+                LoginAttemptsTopology.LOCKOUTS_STORE, QueryableStoreTypes.<String, String>keyValueStore()));
+        var json = lockouts.get(LoginAttemptsTopology.lockoutKey(type, key));
+        if (json == null) {
+            return Optional.empty();
+        }
+        try {
+            var decision = objectMapper.readValue(json, LoginLockoutDto.class);
+            return Boolean.TRUE.equals(decision.getLocked()) && decision.getWindowEnd() > now
+                    ? Optional.of(decision)
+                    : Optional.empty();
+        } catch (JsonProcessingException e) {
+            log.error("Ignoring malformed login lockout for {}: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Optional<KafkaStreams> runningStreams() {
+        return running ? Optional.ofNullable(kafkaStreams) : Optional.empty();
+    }
+}
@@ -0,0 +1,131 @@
+package org.demo.service.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.demo.persistance.entities.AuditOutboxEvent;
+import org.demo.persistance.repository.AuditOutboxRepository;
+import org.demo.service.rabbitmq.RabbitMQSenderService;
+import org.demo.service.telemetry.MetricsService;
+import org.springframework.amqp.AmqpException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Vacía la tabla AUDIT_OUTBOX hacia AUDIT_QUEUE en bloques.
+ * Cada bloque se publica esperando los publisher confirms y solo entonces se borra,
+ * así que la entrega es al menos una vez: si RabbitMQ no está disponible los eventos
+ * se quedan en la tabla y se reintentan en la siguiente pasada.
+ * Pueden ejecutarse varias instancias: cada una reserva su bloque durante
+ * {@code ships.audit.outbox.claim-timeout} y las demás se saltan esas filas. Si la reserva caduca
+ * a mitad de publicación otra instancia puede repetir el envío; el consumidor lo descarta por eventId.
+ * Al cerrar la aplicación se detiene en stop(), antes de que se cierre el datasource, esperando
+ * a que termine el bloque en curso; las pasadas que el scheduler lance después no hacen nada.
+ */
+@Service
+@Slf4j
+public class AuditOutboxRelayService implements SmartLifecycle {
+
+    private final AuditOutboxRepository auditOutboxRepository;
+    private final RabbitMQSenderService rabbitMQSenderService;
+    private final MetricsService metricsService;
+    private final int batchSize;
+    private final Duration claimTimeout;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong oldestEventAgeMs = new AtomicLong();
+    private final Lock relayLock = new ReentrantLock();
+    private volatile boolean running;
+
+    public AuditOutboxRelayService(AuditOutboxRepository auditOutboxRepository,
+                                   RabbitMQSenderService rabbitMQSenderService,
+                                   MetricsService metricsService,
+                                   @Value("${ships.audit.outbox.batch-size:100}") int batchSize,
+                                   @Value("${ships.audit.outbox.claim-timeout:PT30S}") Duration claimTimeout) {
+        this.auditOutboxRepository = auditOutboxRepository;
+        this.rabbitMQSenderService = rabbitMQSenderService;
+        this.metricsService = metricsService;
+        this.batchSize = batchSize;
+        this.claimTimeout = claimTimeout;
+
+        metricsService.registerGauge("audit.outbox.backlog", "Audit events waiting in the outbox", backlog);
+        metricsService.registerGauge("audit.outbox.oldest.age", "Age in milliseconds of the oldest pending audit event", oldestEventAgeMs);
+    }
+
+    @Scheduled(fixedDelayString = "${ships.audit.outbox.relay-interval-ms:1000}")
+    public void relay() {
+        relayLock.lock();
+        try {
+            if (!running) {
+                return;
+            }
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed == batchSize && running);
+            refreshBacklog();
+        } finally {
+            relayLock.unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        // Espera a la pasada en curso, que ya no empieza un bloque nuevo
+        relayLock.lock();
+        relayLock.unlock();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    int relayBatch() {
+        var now = Instant.now();
+        var candidates = auditOutboxRepository.findClaimableIds(now, batchSize);
+        if (candidates.isEmpty() || auditOutboxRepository.claim(candidates, instanceId, now, now.plus(claimTimeout)) == 0) {
+            return 0;
+        }
+        // Solo las que ha reservado esta instancia: otra puede haberse llevado parte de los candidatos
+        var batch = auditOutboxRepository.findClaimed(candidates, instanceId);
+        var ids = batch.stream().map(AuditOutboxEvent::getId).toList();
+
+        try {
+            rabbitMQSenderService.sendAuditMessages(batch.stream().map(AuditOutboxService::toDto).toList());
+        } catch (AmqpException e) {
+            auditOutboxRepository.release(ids, instanceId);
+            metricsService.incrementAuditOutboxPublishFailures();
+            log.warn("Audit outbox relay could not publish {} events, will retry: {}", batch.size(), e.getMessage());
+            return 0;
+        }
+
+        auditOutboxRepository.deleteAllByIdInBatch(ids);
+
+        var publishedAt = Instant.now();
+        batch.forEach(event -> metricsService.recordAuditOutboxLag(Duration.between(event.getCreatedAt(), publishedAt)));
+        metricsService.incrementAuditMessagesSent(batch.size());
+        return batch.size();
+    }
+
+    private void refreshBacklog() {
+        backlog.set(auditOutboxRepository.count());
+        oldestEventAgeMs.set(auditOutboxRepository.findFirstByOrderByIdAsc()
+                .map(event -> Duration.between(event.getCreatedAt(), Instant.now()).toMillis())
+                .orElse(0L));
+    }
+}
@@ -0,0 +1,51 @@
+package org.demo.service.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.demo.dto.AuditEventDto;
+import org.demo.persistance.entities.AuditOutboxEvent;
+import org.demo.persistance.repository.AuditOutboxRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Guarda los eventos de auditoría en la tabla AUDIT_OUTBOX dentro de la misma
+ * transacción que el cambio de la nave. {@link AuditOutboxRelayService} los publica después.
+ */
+@Service
+@RequiredArgsConstructor
+public class AuditOutboxService {
+
+    private final AuditOutboxRepository auditOutboxRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(AuditEventDto event) {
+        auditOutboxRepository.save(toEntity(event, Instant.now()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAll(List<AuditEventDto> events) {
+        var now = Instant.now();
+        auditOutboxRepository.saveAll(events.stream().map(event -> toEntity(event, now)).toList());
+    }
+
+    static AuditEventDto toDto(AuditOutboxEvent entity) {
+        return AuditEventDto.builder()
+                .eventId(entity.getId())
+                .operation(entity.getOperation())
+                .shipId(entity.getShipId())
+                .shipName(entity.getShipName())
+                .user(entity.getUser())
+                .timestamp(entity.getTimestamp())
+                .itemCount(entity.getItemCount())
+                .build();
+    }
+
+    private static AuditOutboxEvent toEntity(AuditEventDto event, Instant createdAt) {
+        return new AuditOutboxEvent(null, event.getOperation(), event.getShipId(), event.getShipName(),
+                event.getUser(), event.getTimestamp(), event.getItemCount(), createdAt, null, null);
+    }
+}
@@ -0,0 +1,30 @@
+package org.demo.service.pagination;
+
+import org.demo.exception.ServiceException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opaco para la paginación keyset de eventos de auditoría (más recientes primero).
+ * Codifica en Base64 URL-safe la clave de la última fila devuelta: {@code <timestamp>|<id>}.
+ */
+public record AuditEventCursor(long lastTimestamp, long lastId) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        var raw = lastTimestamp + SEPARATOR + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static AuditEventCursor decode(String cursor) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var parts = raw.split("\\|", 2);
+            return new AuditEventCursor(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new ServiceException("Invalid cursor", 400);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.demo.service.pagination;
+
+import org.demo.exception.ServiceException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opaco para la paginación keyset de naves.
+ * Codifica en Base64 URL-safe la clave de ordenación de la última fila devuelta:
+ * {@code id|<id>} o {@code name|<id>|<name>}.
+ */
+public record SpaceShipCursor(String sort, long lastId, String lastName) {
+
+    public static final String SORT_BY_ID = "id";
+    public static final String SORT_BY_NAME = "name";
+
+    private static final String SEPARATOR = "|";
+
+    public static void validateSort(String sort) {
+        if (!SORT_BY_ID.equals(sort) && !SORT_BY_NAME.equals(sort)) {
+            throw new ServiceException("Sort must be one of: " + SORT_BY_ID + ", " + SORT_BY_NAME, 400);
+        }
+    }
+
+    public String encode() {
+        var raw = SORT_BY_NAME.equals(sort)
+                ? sort + SEPARATOR + lastId + SEPARATOR + lastName
+                : sort + SEPARATOR + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SpaceShipCursor decode(String cursor, String expectedSort) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var parts = raw.split("\\|", 3);
+            var sort = parts[0];
+            if (!sort.equals(expectedSort)) {
+                throw new ServiceException("Cursor was issued for sort '" + sort + "'", 400);
+            }
+            var lastId = Long.parseLong(parts[1]);
+            if (SORT_BY_NAME.equals(sort)) {
+                return new SpaceShipCursor(sort, lastId, parts[2]);
+            }
+            return new SpaceShipCursor(sort, lastId, null);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new ServiceException("Invalid cursor", 400);
+        }
+    }
+}
@@ -1,23 +1,151 @@
 package org.demo.service.rabbitmq;
 
-import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.demo.dto.AuditEventDto;
+import org.demo.persistance.entities.AuditEvent;
+import org.demo.persistance.repository.AuditEventRepository;
+import org.demo.service.telemetry.MetricsService;
+import org.springframework.amqp.core.BatchMessageListener;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.concurrent.CountDownLatch;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 
-@Getter
+import static org.demo.utils.Constants.AUDIT_DEAD_LETTER_QUEUE;
+
+/**
+ * Consumidor de AUDIT_QUEUE en modo batch: el contenedor entrega los mensajes en bloques
+ * (ver {@code ships.audit.consumer.*}) y cada bloque se guarda en AUDIT_EVENTS con un único
+ * flush en una transacción. El contenedor confirma (ack) el bloque al volver de
+ * {@link #onMessageBatch}, es decir, después del commit; si el commit falla el bloque se
+ * devuelve a la cola. Los mensajes que no son un evento válido se descartan y se cuentan,
+ * para que no bloqueen el resto del bloque.
+ * Los eventos llevan el id de AUDIT_OUTBOX ({@code eventId}, único en AUDIT_EVENTS): los que ya
+ * están guardados son reentregas y se descartan. Si el bloque viola una restricción se guarda fila
+ * a fila y solo el mensaje culpable va a {@code AUDIT_DEAD_LETTER_QUEUE}.
+ */
 @Service
 @Slf4j
-@RequiredArgsConstructor
-public class RabbitMQReceiverService {
-    private final CountDownLatch latch = new CountDownLatch(1);
+public class RabbitMQReceiverService implements BatchMessageListener {
+
+    private record Received(Message message, AuditEvent event) {
+    }
+
+    private final AuditEventRepository auditEventRepository;
+    private final MessageConverter messageConverter;
+    private final TransactionTemplate transactionTemplate;
+    private final RabbitTemplate rabbitTemplate;
+    private final MetricsService metricsService;
 
-    public void receiveMessage(AuditEventDto message) {
-        log.info("Received message: {}", message);
-        latch.countDown();
+    public RabbitMQReceiverService(AuditEventRepository auditEventRepository,
+                                   MessageConverter messageConverter,
+                                   TransactionTemplate transactionTemplate,
+                                   RabbitTemplate rabbitTemplate,
+                                   MetricsService metricsService) {
+        this.auditEventRepository = auditEventRepository;
+        this.messageConverter = messageConverter;
+        this.transactionTemplate = transactionTemplate;
+        this.rabbitTemplate = rabbitTemplate;
+        this.metricsService = metricsService;
     }
 
+    @Override
+    public void onMessageBatch(List<Message> messages) {
+        var start = System.nanoTime();
+        var receivedAt = Instant.now();
+        var received = new ArrayList<Received>(messages.size());
+        for (var message : messages) {
+            var event = toEntity(message, receivedAt);
+            if (event != null) {
+                received.add(new Received(message, event));
+            }
+        }
+        var stored = 0;
+        if (!received.isEmpty()) {
+            try {
+                var events = transactionTemplate.execute(status -> {
+                    var unique = withoutDuplicates(received).stream().map(Received::event).toList();
+                    auditEventRepository.saveAll(unique);
+                    return unique;
+                });
+                stored = events == null ? 0 : events.size();
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Audit batch of {} events violated a constraint, storing them one by one: {}",
+                        received.size(), e.getMessage());
+                stored = storeOneByOne(received);
+            }
+        }
+        metricsService.recordAuditBatchConsumed(stored, System.nanoTime() - start);
+        log.debug("Stored {} of {} audit messages", stored, messages.size());
+    }
+
+    // Quita los eventos ya guardados y los repetidos dentro del bloque; los que no traen eventId se guardan siempre
+    private List<Received> withoutDuplicates(List<Received> received) {
+        var eventIds = received.stream().map(r -> r.event().getEventId()).filter(Objects::nonNull).toList();
+        if (eventIds.isEmpty()) {
+            return received;
+        }
+        var seen = new HashSet<>(auditEventRepository.findStoredEventIds(eventIds));
+        var unique = received.stream()
+                .filter(r -> r.event().getEventId() == null || seen.add(r.event().getEventId()))
+                .toList();
+        if (unique.size() < received.size()) {
+            metricsService.incrementAuditMessagesDuplicate(received.size() - unique.size());
+            log.debug("Dropped {} redelivered audit messages", received.size() - unique.size());
+        }
+        return unique;
+    }
+
+    private int storeOneByOne(List<Received> received) {
+        var stored = 0;
+        for (var r : received) {
+            // El id que asignó la secuencia en el intento fallido no llegó a guardarse
+            r.event().setId(null);
+            try {
+                transactionTemplate.executeWithoutResult(status -> auditEventRepository.save(r.event()));
+                stored++;
+            } catch (DataIntegrityViolationException e) {
+                var eventId = r.event().getEventId();
+                if (eventId != null && Boolean.TRUE.equals(transactionTemplate.execute(status -> auditEventRepository.existsByEventId(eventId)))) {
+                    metricsService.incrementAuditMessagesDuplicate(1);
+                } else {
+                    deadLetter(r.message(), e);
+                }
+            }
+        }
+        return stored;
+    }
+
+    // Si el envío a la DLQ falla, la excepción devuelve el bloque a la cola; lo ya guardado se descartará por eventId
+    private void deadLetter(Message message, RuntimeException cause) {
+        message.getMessageProperties().setHeader("x-exception-message", cause.getMessage());
+        rabbitTemplate.send(AUDIT_DEAD_LETTER_QUEUE, message);
+        metricsService.incrementAuditMessagesRejected();
+        log.error("Audit message moved to {}: {}", AUDIT_DEAD_LETTER_QUEUE, cause.getMessage());
+    }
+
+    private AuditEvent toEntity(Message message, Instant receivedAt) {
+        try {
+            if (messageConverter.fromMessage(message) instanceof AuditEventDto event
+                    && event.getOperation() != null && event.getTimestamp() != null) {
+                return new AuditEvent(null, event.getOperation(), event.getShipId(), event.getShipName(),
+                        event.getUser(), event.getItemCount(), event.getTimestamp(), receivedAt,
+                        AuditEvent.dayOf(event.getTimestamp()), event.getEventId());
+            }
+            log.error("Discarding audit message without operation or timestamp: {}", message.getMessageProperties());
+        } catch (MessageConversionException e) {
+            log.error("Discarding malformed audit message: {}", e.getMessage());
+        }
+        metricsService.incrementAuditMessagesRejected();
+        return null;
+    }
 }
@@ -1,21 +1,43 @@
 package org.demo.service.rabbitmq;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.demo.config.rabbitmq.ConfigureRabbitMq;
 import org.demo.dto.AuditEventDto;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.List;
+
 import static org.demo.utils.Constants.AUDIT_QUEUE;
 
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class RabbitMQSenderService {
     private final RabbitTemplate rabbitTemplate;
+    private final Duration confirmTimeout;
+
+    public RabbitMQSenderService(RabbitTemplate rabbitTemplate,
+                                 @Value("${ships.audit.confirm-timeout:PT5S}") Duration confirmTimeout) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.confirmTimeout = confirmTimeout;
+    }
 
     public void sendAuditMessage(AuditEventDto message) {
         rabbitTemplate.convertAndSend(AUDIT_QUEUE, message);
     }
+
+    // Publica todos los eventos por el mismo canal y espera a los publisher confirms del broker
+    public void sendAuditMessages(List<AuditEventDto> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        rabbitTemplate.invoke(operations -> {
+            messages.forEach(message -> operations.convertAndSend(AUDIT_QUEUE, message));
+            operations.waitForConfirmsOrDie(confirmTimeout.toMillis());
+            return null;
+        });
+        log.debug("Published {} audit messages", messages.size());
+    }
 }
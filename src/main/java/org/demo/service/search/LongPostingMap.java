@@ -0,0 +1,114 @@
+package org.demo.service.search;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Mapa trigrama -> {@link LongPostingList} con claves long sin boxing.
+ * Direccionamiento abierto con sondeo lineal; una celda está libre si su valor es null,
+ * así cualquier long (también 0) es una clave válida. Las bajas desplazan hacia atrás
+ * las entradas siguientes del mismo grupo en lugar de dejar marcas de borrado.
+ */
+final class LongPostingMap {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private LongPostingList[] values = new LongPostingList[INITIAL_CAPACITY];
+    private int size;
+
+    LongPostingList get(long key) {
+        var mask = keys.length - 1;
+        for (int slot = slot(key, mask); values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return null;
+    }
+
+    LongPostingList getOrCreate(long key) {
+        var mask = keys.length - 1;
+        var slot = slot(key, mask);
+        for (; values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        var list = new LongPostingList();
+        keys[slot] = key;
+        values[slot] = list;
+        // Factor de carga máximo 0.5
+        if (++size * 2 > keys.length) {
+            resize(keys.length << 1);
+        }
+        return list;
+    }
+
+    void remove(long key) {
+        var mask = keys.length - 1;
+        var slot = slot(key, mask);
+        while (values[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (values[slot] == null) {
+            return;
+        }
+        values[slot] = null;
+        size--;
+
+        // Se recolocan las entradas que venían detrás para que el sondeo no se corte en el hueco
+        var next = (slot + 1) & mask;
+        while (values[next] != null) {
+            var home = slot(keys[next], mask);
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                values[next] = null;
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+    }
+
+    void forEachValue(Consumer<LongPostingList> consumer) {
+        for (var value : values) {
+            if (value != null) {
+                consumer.accept(value);
+            }
+        }
+    }
+
+    void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void resize(int capacity) {
+        var oldKeys = keys;
+        var oldValues = values;
+        keys = new long[capacity];
+        values = new LongPostingList[capacity];
+        var mask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                var slot = slot(oldKeys[i], mask);
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    // Los trigramas son chars empaquetados: se mezclan los bits para repartir bien con la máscara
+    private static int slot(long key, int mask) {
+        var h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
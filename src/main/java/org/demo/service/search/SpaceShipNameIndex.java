@@ -0,0 +1,105 @@
+package org.demo.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.LongConsumer;
+
+/**
+ * Índice invertido de trigramas sobre el nombre de las naves.
+ * Cada trigrama (tres chars empaquetados en un long) apunta, sin boxing, a la lista ordenada
+ * de ids cuyo nombre lo contiene. Una búsqueda intersecta las listas de los
+ * trigramas del término; el resultado son candidatos que hay que confirmar con
+ * un contains(), porque el índice no guarda posiciones.
+ * No es thread-safe: la sincronización la hace {@link SpaceShipSearchIndexService}.
+ */
+public class SpaceShipNameIndex {
+
+    public static final int GRAM_SIZE = 3;
+
+    private final LongPostingMap postings = new LongPostingMap();
+
+    public void append(long id, String name) {
+        forEachTrigram(name, trigram -> postings.getOrCreate(trigram).append(id));
+    }
+
+    public void seal() {
+        postings.forEachValue(LongPostingList::seal);
+    }
+
+    public void add(long id, String name) {
+        forEachTrigram(name, trigram -> postings.getOrCreate(trigram).add(id));
+    }
+
+    public void remove(long id, String name) {
+        forEachTrigram(name, trigram -> {
+            var list = postings.get(trigram);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(trigram);
+                }
+            }
+        });
+    }
+
+    public void clear() {
+        postings.clear();
+    }
+
+    public int trigramCount() {
+        return postings.size();
+    }
+
+    /**
+     * Ids candidatos (ordenados) para un término de al menos {@link #GRAM_SIZE} caracteres.
+     */
+    public long[] candidates(String term) {
+        var lists = new ArrayList<LongPostingList>();
+        var missing = new boolean[1];
+        forEachTrigram(term, trigram -> {
+            var list = postings.get(trigram);
+            if (list == null) {
+                missing[0] = true;
+            } else {
+                lists.add(list);
+            }
+        });
+        if (missing[0] || lists.isEmpty()) {
+            return new long[0];
+        }
+
+        // Se parte de la lista más corta y se filtra contra las demás
+        lists.sort(Comparator.comparingInt(LongPostingList::size));
+        var result = lists.getFirst().toArray();
+        var resultSize = result.length;
+        for (int i = 1; i < lists.size() && resultSize > 0; i++) {
+            var list = lists.get(i);
+            var kept = 0;
+            for (int j = 0; j < resultSize; j++) {
+                if (list.contains(result[j])) {
+                    result[kept++] = result[j];
+                }
+            }
+            resultSize = kept;
+        }
+        return Arrays.copyOf(result, resultSize);
+    }
+
+    public static boolean isIndexable(String term) {
+        return term != null && term.length() >= GRAM_SIZE;
+    }
+
+    static long trigram(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    private static void forEachTrigram(String value, LongConsumer consumer) {
+        if (!isIndexable(value)) {
+            return;
+        }
+        for (int i = 0; i + GRAM_SIZE <= value.length(); i++) {
+            consumer.accept(trigram(value.charAt(i), value.charAt(i + 1), value.charAt(i + 2)));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.demo.service.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.demo.persistance.repository.MovieSpaceShipRepository;
+import org.demo.service.telemetry.MetricsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Mantiene en memoria el índice de trigramas de nombres de naves.
+ * Se construye al arrancar recorriendo la tabla por bloques (keyset) y se actualiza
+ * desde los métodos de escritura de MovieSpaceShipService.
+ * Mientras no esté construido, o si el término tiene menos de tres caracteres,
+ * {@link #candidates(String)} devuelve vacío y la búsqueda va a base de datos.
+ * La construcción se hace sobre un índice nuevo sin tomar el lock; las escrituras que
+ * llegan mientras tanto se aplican al índice vigente y se apuntan para repetirlas sobre
+ * el nuevo justo antes de sustituirlo, que es lo único que se hace con el lock de escritura.
+ */
+@Service
+@Slf4j
+public class SpaceShipSearchIndexService {
+
+    private final MovieSpaceShipRepository movieSpaceShipRepository;
+    private final int buildBatchSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private SpaceShipNameIndex index = new SpaceShipNameIndex();
+    // Escrituras recibidas durante build(); null si no hay construcción en curso
+    private List<Consumer<SpaceShipNameIndex>> pendingWrites;
+    private final AtomicLong trigramCount = new AtomicLong();
+    private volatile boolean ready;
+
+    public SpaceShipSearchIndexService(MovieSpaceShipRepository movieSpaceShipRepository,
+                                       MetricsService metricsService,
+                                       @Value("${ships.search.index.build-batch-size:10000}") int buildBatchSize) {
+        this.movieSpaceShipRepository = movieSpaceShipRepository;
+        this.buildBatchSize = buildBatchSize;
+        metricsService.registerGauge("spaceship.search.index.trigrams", "Distinct trigrams in the ship name index", trigramCount);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void build() {
+        var start = System.nanoTime();
+        // Desde aquí cualquier escritura queda apuntada: las filas que el recorrido lea
+        // ya obsoletas se corrigen al repetirlas (add/remove son idempotentes)
+        lock.writeLock().lock();
+        try {
+            pendingWrites = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        var built = new SpaceShipNameIndex();
+        var indexed = 0L;
+        try {
+            var lastId = 0L;
+            while (true) {
+                var batch = movieSpaceShipRepository.findProjectedAfterId(lastId, buildBatchSize);
+                for (var spaceShip : batch) {
+                    built.append(spaceShip.getId(), spaceShip.getName());
+                    lastId = spaceShip.getId();
+                }
+                indexed += batch.size();
+                if (batch.size() < buildBatchSize) {
+                    break;
+                }
+            }
+            built.seal();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingWrites = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        int replayed;
+        lock.writeLock().lock();
+        try {
+            replayed = pendingWrites.size();
+            pendingWrites.forEach(change -> change.accept(built));
+            pendingWrites = null;
+            index = built;
+            trigramCount.set(index.trigramCount());
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("SpaceShip name index built: {} ships, {} trigrams, {} concurrent writes replayed in {} ms", indexed,
+                built.trigramCount(), replayed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    public Optional<long[]> candidates(String term) {
+        if (!ready || !SpaceShipNameIndex.isIndexable(term)) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            return Optional.of(index.candidates(term));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void add(long id, String name) {
+        write(target -> target.add(id, name));
+    }
+
+    public void remove(long id, String name) {
+        write(target -> target.remove(id, name));
+    }
+
+    public void update(long id, String oldName, String newName) {
+        write(target -> {
+            target.remove(id, oldName);
+            target.add(id, newName);
+        });
+    }
+
+    private void write(Consumer<SpaceShipNameIndex> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(index);
+            if (pendingWrites != null) {
+                pendingWrites.add(change);
+            }
+            trigramCount.set(index.trigramCount());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
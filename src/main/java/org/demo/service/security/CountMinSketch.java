@@ -0,0 +1,153 @@
+package org.demo.service.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch de tamaño fijo con ventana temporal aproximada. Hay dos tablas que se alternan
+ * por ventana (par/impar); cada celda guarda el número de ventana junto a la cuenta, así que una
+ * celda de una ventana antigua se reinicia al escribir sin necesidad de una tarea de limpieza.
+ * La estimación suma la ventana actual y la parte proporcional de la anterior, y nunca es menor
+ * que la cuenta real: solo puede sobrestimar por colisiones. No se usa actualización conservadora
+ * porque con incrementos concurrentes puede perder cuentas y subestimar.
+ * Cada fila usa SipHash-2-4 sobre los bytes de la clave con su propia clave aleatoria elegida al
+ * arrancar: sin conocerla no se pueden buscar nombres que colisionen con uno dado.
+ */
+public class CountMinSketch {
+
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final int depth;
+    private final int widthMask;
+    private final long[] seeds;
+    private final AtomicLongArray[] tables = new AtomicLongArray[2];
+
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1) {
+            throw new IllegalArgumentException("depth and width must be positive");
+        }
+        var roundedWidth = width == 1 ? 1 : Integer.highestOneBit(width - 1) << 1;
+        this.depth = depth;
+        this.widthMask = roundedWidth - 1;
+        // Dos mitades de la clave de 128 bits de SipHash por fila
+        var random = new SecureRandom();
+        this.seeds = new long[depth * 2];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = random.nextLong();
+        }
+        tables[0] = new AtomicLongArray(depth * roundedWidth);
+        tables[1] = new AtomicLongArray(depth * roundedWidth);
+    }
+
+    /**
+     * Suma uno a la clave en la ventana {@code window}.
+     *
+     * @param elapsedFraction parte ya transcurrida de la ventana actual, entre 0 y 1
+     * @return estimación tras el incremento
+     */
+    public int increment(String key, long window, double elapsedFraction) {
+        var indexes = indexes(key);
+        var table = tables[(int) (window & 1)];
+        for (var index : indexes) {
+            while (true) {
+                var current = table.get(index);
+                var next = windowOf(current) == window
+                        ? pack(window, Math.min(countOf(current) + 1, COUNT_MASK))
+                        : pack(window, 1);
+                if (table.compareAndSet(index, current, next)) {
+                    break;
+                }
+            }
+        }
+        return estimate(indexes, window, elapsedFraction);
+    }
+
+    public int estimate(String key, long window, double elapsedFraction) {
+        return estimate(indexes(key), window, elapsedFraction);
+    }
+
+    private int estimate(int[] indexes, long window, double elapsedFraction) {
+        var current = min(tables[(int) (window & 1)], indexes, window);
+        var previous = min(tables[(int) ((window - 1) & 1)], indexes, window - 1);
+        return (int) Math.min(current + (long) Math.ceil(previous * (1 - elapsedFraction)), Integer.MAX_VALUE);
+    }
+
+    private static long min(AtomicLongArray table, int[] indexes, long window) {
+        var min = Long.MAX_VALUE;
+        for (var index : indexes) {
+            var cell = table.get(index);
+            min = Math.min(min, windowOf(cell) == window ? countOf(cell) : 0);
+        }
+        return min;
+    }
+
+    private int[] indexes(String key) {
+        var bytes = key.getBytes(StandardCharsets.UTF_8);
+        var indexes = new int[depth];
+        for (int row = 0; row < depth; row++) {
+            var hash = sipHash24(seeds[row * 2], seeds[row * 2 + 1], bytes);
+            indexes[row] = row * (widthMask + 1) + (int) (hash & widthMask);
+        }
+        return indexes;
+    }
+
+    private static long sipHash24(long k0, long k1, byte[] data) {
+        var v = new long[]{
+                0x736f6d6570736575L ^ k0,
+                0x646f72616e646f6dL ^ k1,
+                0x6c7967656e657261L ^ k0,
+                0x7465646279746573L ^ k1};
+        var end = data.length - (data.length % 8);
+        for (int offset = 0; offset < end; offset += 8) {
+            compress(v, littleEndian(data, offset, 8));
+        }
+        compress(v, ((long) data.length << 56) | littleEndian(data, end, data.length - end));
+        v[2] ^= 0xff;
+        for (int i = 0; i < 4; i++) {
+            sipRound(v);
+        }
+        return v[0] ^ v[1] ^ v[2] ^ v[3];
+    }
+
+    private static void compress(long[] v, long m) {
+        v[3] ^= m;
+        sipRound(v);
+        sipRound(v);
+        v[0] ^= m;
+    }
+
+    private static void sipRound(long[] v) {
+        v[0] += v[1];
+        v[1] = Long.rotateLeft(v[1], 13) ^ v[0];
+        v[0] = Long.rotateLeft(v[0], 32);
+        v[2] += v[3];
+        v[3] = Long.rotateLeft(v[3], 16) ^ v[2];
+        v[0] += v[3];
+        v[3] = Long.rotateLeft(v[3], 21) ^ v[0];
+        v[2] += v[1];
+        v[1] = Long.rotateLeft(v[1], 17) ^ v[2];
+        v[2] = Long.rotateLeft(v[2], 32);
+    }
+
+    private static long littleEndian(byte[] data, int offset, int length) {
+        var value = 0L;
+        for (int i = 0; i < length; i++) {
+            value |= (data[offset + i] & 0xffL) << (8 * i);
+        }
+        return value;
+    }
+
+    private static long pack(long window, long count) {
+        return (window << COUNT_BITS) | count;
+    }
+
+    private static long windowOf(long cell) {
+        return cell >>> COUNT_BITS;
+    }
+
+    private static long countOf(long cell) {
+        return cell & COUNT_MASK;
+    }
+}
@@ -0,0 +1,147 @@
+package org.demo.service.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.demo.service.telemetry.MetricsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Intentos de login fallidos por usuario en una ventana deslizante de {@code ships.security.login-attempts.window}.
+ * Los primeros {@code max-tracked} usuarios tienen un contador exacto propio; cuando se llena ese cupo
+ * (p. ej. durante un ataque de credential stuffing) el resto se cuenta en un count-min sketch de tamaño
+ * fijo, así que la memoria no depende del número de usuarios distintos y ningún fallo deja de contarse.
+ * El sketch solo se consulta para los usuarios sin contador exacto: sus colisiones pueden sobrestimar,
+ * y si lo hiciera también para los demás, llenar el sketch con fallos de otros nombres bloquearía a todos.
+ * Todas las operaciones son sin bloqueos.
+ */
+@Service
+@Slf4j
+public class LoginAttemptService {
+
+    private final MetricsService metricsService;
+    private final Clock clock;
+    private final int maxAttempts;
+    private final int maxTracked;
+    private final int slots;
+    private final long slotMillis;
+    private final long windowMillis;
+    private final ConcurrentHashMap<String, SlidingWindowCounter> counters = new ConcurrentHashMap<>();
+    private final AtomicLong tracked = new AtomicLong();
+    private final CountMinSketch overflow;
+
+    @Autowired
+    public LoginAttemptService(MetricsService metricsService,
+                               @Value("${ships.security.login-attempts.max-attempts:5}") int maxAttempts,
+                               @Value("${ships.security.login-attempts.window:PT1H}") Duration window,
+                               @Value("${ships.security.login-attempts.slots:12}") int slots,
+                               @Value("${ships.security.login-attempts.max-tracked:10000}") int maxTracked,
+                               @Value("${ships.security.login-attempts.sketch-depth:4}") int sketchDepth,
+                               @Value("${ships.security.login-attempts.sketch-width:16384}") int sketchWidth) {
+        this(metricsService, Clock.systemUTC(), maxAttempts, window, slots, maxTracked, sketchDepth, sketchWidth);
+    }
+
+    public LoginAttemptService(MetricsService metricsService, Clock clock, int maxAttempts, Duration window,
+                               int slots, int maxTracked, int sketchDepth, int sketchWidth) {
+        this.metricsService = metricsService;
+        this.clock = clock;
+        this.maxAttempts = maxAttempts;
+        this.maxTracked = maxTracked;
+        this.slots = slots;
+        this.slotMillis = Math.max(window.toMillis() / slots, 1);
+        this.windowMillis = slotMillis * slots;
+        this.overflow = new CountMinSketch(sketchDepth, sketchWidth);
+        metricsService.registerGauge("login.attempts.tracked", "Usernames with an exact failed-login counter", tracked);
+    }
+
+    /**
+     * Registra un login fallido.
+     *
+     * @return intentos fallidos del usuario dentro de la ventana, incluido este
+     */
+    public int recordFailure(String username) {
+        metricsService.incrementLoginFailed();
+        var now = clock.millis();
+        while (true) {
+            var counter = counters.get(username);
+            if (counter == null) {
+                counter = track(username);
+            }
+            if (counter == null) {
+                metricsService.incrementLoginAttemptsOverflow();
+                return overflow.increment(username, now / windowMillis, elapsedFraction(now));
+            }
+            var attempts = counter.increment(now / slotMillis);
+            // Si el contador se retiró a la vez (reset o limpieza), se repite sobre el actual
+            if (counters.get(username) == counter) {
+                return attempts;
+            }
+        }
+    }
+
+    public int attempts(String username) {
+        var now = clock.millis();
+        var counter = counters.get(username);
+        return counter == null ? overflowAttempts(username, now) : counter.total(now / slotMillis);
+    }
+
+    public boolean isBlocked(int attempts) {
+        return attempts >= maxAttempts;
+    }
+
+    /**
+     * Login correcto: olvida los fallos del usuario. Los contados en el sketch no se pueden
+     * restar y caducan con su ventana; tampoco se suman al contador exacto que el usuario pueda
+     * conseguir después.
+     */
+    public void reset(String username) {
+        if (counters.remove(username) != null) {
+            tracked.decrementAndGet();
+        }
+    }
+
+    // Libera el cupo de los usuarios sin fallos dentro de la ventana
+    @Scheduled(fixedDelayString = "${ships.security.login-attempts.cleanup-interval-ms:60000}")
+    public void evictExpired() {
+        var slot = clock.millis() / slotMillis;
+        var evicted = 0;
+        for (var entry : counters.entrySet()) {
+            if (entry.getValue().total(slot) == 0 && counters.remove(entry.getKey(), entry.getValue())) {
+                tracked.decrementAndGet();
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} expired login attempt counters, {} still tracked", evicted, tracked.get());
+        }
+    }
+
+    private SlidingWindowCounter track(String username) {
+        if (tracked.incrementAndGet() > maxTracked) {
+            tracked.decrementAndGet();
+            return counters.get(username);
+        }
+        var counter = new SlidingWindowCounter(slots);
+        var existing = counters.putIfAbsent(username, counter);
+        if (existing != null) {
+            tracked.decrementAndGet();
+            return existing;
+        }
+        return counter;
+    }
+
+    // Fallos contados en el sketch mientras el cupo estaba lleno (solo para usuarios sin contador exacto)
+    private int overflowAttempts(String username, long now) {
+        return overflow.estimate(username, now / windowMillis, elapsedFraction(now));
+    }
+
+    private double elapsedFraction(long now) {
+        return (double) (now % windowMillis) / windowMillis;
+    }
+}
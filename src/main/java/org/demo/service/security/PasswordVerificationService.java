@@ -0,0 +1,92 @@
+package org.demo.service.security;
+
+import io.micrometer.context.ContextSnapshotFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.demo.exception.ServiceException;
+import org.demo.service.telemetry.MetricsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Comprobación de contraseñas (BCrypt) en un pool propio de tamaño y cola acotados, para que
+ * una avalancha de logins no consuma la CPU ni los hilos que necesitan los endpoints de naves.
+ * Con la cola llena se rechaza al momento con 429; si la comprobación no termina en
+ * {@code ships.security.password-hashing.timeout} se responde 503 y la tarea se cancela, para que
+ * no siga ocupando el pool (o su hueco en la cola) cuando ya nadie espera el resultado.
+ * Son tareas de CPU, así que el pool usa hilos de plataforma también con hilos virtuales activos.
+ */
+@Service
+@Slf4j
+public class PasswordVerificationService {
+
+    public static final String EXECUTOR_NAME = "passwordHashing";
+
+    private final PasswordEncoder passwordEncoder;
+    private final MetricsService metricsService;
+    private final ContextSnapshotFactory contextSnapshotFactory;
+    private final ThreadPoolExecutor threadPool;
+    private final ExecutorService executor;
+    private final Duration timeout;
+
+    public PasswordVerificationService(PasswordEncoder passwordEncoder,
+                                       MetricsService metricsService,
+                                       ContextSnapshotFactory contextSnapshotFactory,
+                                       @Value("${ships.security.password-hashing.pool-size:4}") int poolSize,
+                                       @Value("${ships.security.password-hashing.queue-capacity:64}") int queueCapacity,
+                                       @Value("${ships.security.password-hashing.timeout:PT2S}") Duration timeout) {
+        this.passwordEncoder = passwordEncoder;
+        this.metricsService = metricsService;
+        this.contextSnapshotFactory = contextSnapshotFactory;
+        this.timeout = timeout;
+        this.threadPool = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-hashing-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        // Publica executor.active, executor.queued, executor.queue.remaining y el tiempo en cola
+        this.executor = metricsService.registerExecutor(EXECUTOR_NAME, threadPool);
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        var task = contextSnapshotFactory.captureAll().wrap(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+        Future<Boolean> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            metricsService.incrementPasswordHashingRejected("saturated");
+            throw new ServiceException("Too many login attempts in progress, retry later", 429);
+        }
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            metricsService.incrementPasswordHashingRejected("timeout");
+            throw new ServiceException("Credential verification timed out", 503);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Credential verification interrupted", 503);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        threadPool.shutdownNow();
+    }
+}
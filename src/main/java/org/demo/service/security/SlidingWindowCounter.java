@@ -0,0 +1,66 @@
+package org.demo.service.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contador de ventana deslizante sin bloqueos: la ventana se divide en {@code slots} tramos y cada
+ * tramo guarda en un único long su número de tramo (bits altos) y su cuenta (bits bajos), de modo
+ * que reiniciar un tramo caducado e incrementarlo es un solo compareAndSet y no se pierden incrementos.
+ */
+public class SlidingWindowCounter {
+
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final AtomicLongArray cells;
+
+    public SlidingWindowCounter(int slots) {
+        this.cells = new AtomicLongArray(slots);
+    }
+
+    /**
+     * Suma uno al tramo {@code slot} (índice absoluto: tiempo / duración del tramo).
+     *
+     * @return total de la ventana tras el incremento
+     */
+    public int increment(long slot) {
+        var index = (int) Math.floorMod(slot, (long) cells.length());
+        while (true) {
+            var current = cells.get(index);
+            var next = slotOf(current) == slot
+                    ? pack(slot, Math.min(countOf(current) + 1, COUNT_MASK))
+                    : pack(slot, 1);
+            if (cells.compareAndSet(index, current, next)) {
+                break;
+            }
+        }
+        return total(slot);
+    }
+
+    /**
+     * Total de los tramos que siguen dentro de la ventana que termina en {@code slot}.
+     */
+    public int total(long slot) {
+        long total = 0;
+        for (int i = 0; i < cells.length(); i++) {
+            var cell = cells.get(i);
+            var cellSlot = slotOf(cell);
+            if (cellSlot <= slot && cellSlot > slot - cells.length()) {
+                total += countOf(cell);
+            }
+        }
+        return (int) Math.min(total, Integer.MAX_VALUE);
+    }
+
+    private static long pack(long slot, long count) {
+        return (slot << COUNT_BITS) | count;
+    }
+
+    private static long slotOf(long cell) {
+        return cell >>> COUNT_BITS;
+    }
+
+    private static long countOf(long cell) {
+        return cell & COUNT_MASK;
+    }
+}
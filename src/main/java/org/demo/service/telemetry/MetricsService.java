@@ -1,38 +1,89 @@
 package org.demo.service.telemetry;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import io.micrometer.tracing.Tracer;
 import io.micrometer.tracing.Span;
 import lombok.extern.slf4j.Slf4j;
+import org.demo.exception.ServiceException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
 @Service
 @Slf4j
 public class MetricsService {
 
+    public static final String OPERATION_TIMER_NAME = "service.operation.duration";
+    public static final String DEFAULT_OPERATION_SLO = "PT0.005S,PT0.01S,PT0.025S,PT0.05S,PT0.1S,PT0.25S,PT0.5S,PT1S";
+
+    // Mismos valores que la etiqueta outcome de http.server.requests
+    public enum Outcome {SUCCESS, CLIENT_ERROR, SERVER_ERROR}
+
+    private final MeterRegistry meterRegistry;
     private final Tracer tracer;
+    private final Duration[] operationSlos;
 
     // Contadores para operaciones CRUD
     private final Counter spaceShipCreatedCounter;
     private final Counter spaceShipUpdatedCounter;
     private final Counter spaceShipDeletedCounter;
     private final Counter spaceShipReadCounter;
+    private final Counter spaceShipImportedCounter;
 
     // Contadores para mensajes de auditoría
     private final Counter auditMessagesSentCounter;
     private final Counter kafkaMessagesSentCounter;
+    private final Counter kafkaMessagesFailedCounter;
+    private final Counter kafkaMessagesDroppedCounter;
+    private final Counter auditOutboxPublishFailuresCounter;
+    private final Counter auditMessagesConsumedCounter;
+    private final Counter auditMessagesRejectedCounter;
+    private final Counter auditMessagesDuplicateCounter;
+    private final Counter auditEventsPurgedCounter;
+
+    // Contadores de caché
+    private final Counter spaceShipNegativeCacheHitCounter;
+
+    // Contadores de intentos de login
+    private final Counter loginFailedCounter;
+    private final Counter loginBlockedCounter;
+    private final Counter loginAttemptsOverflowCounter;
 
-    // Timers para medir duración de operaciones
-    private final Timer databaseOperationTimer;
+    // Timers para medir duración de operaciones; los de executeWithTracing se crean por operación
+    private final Map<String, Timer[]> operationTimers = new ConcurrentHashMap<>();
     private final Timer externalServiceTimer;
+    private final Timer auditOutboxLagTimer;
+    private final Timer kafkaSendTimer;
+    private final Timer auditBatchTimer;
+
+    // Distribuciones
+    private final DistributionSummary spaceShipImportThroughput;
+    private final DistributionSummary auditBatchSize;
 
     // Constructor explícito para inyección de dependencias
-    public MetricsService(MeterRegistry meterRegistry, Tracer tracer) {
+    public MetricsService(MeterRegistry meterRegistry,
+                          Tracer tracer,
+                          @Value("${ships.metrics.operation.slo:" + DEFAULT_OPERATION_SLO + "}") List<Duration> operationSlos) {
+        this.meterRegistry = meterRegistry;
         this.tracer = tracer;
+        this.operationSlos = operationSlos.toArray(Duration[]::new);
 
         // Inicializar contadores Micrometer
         this.spaceShipCreatedCounter = Counter.builder("spaceship.created")
@@ -51,6 +102,10 @@ public class MetricsService {
                 .description("Number of spaceship read operations")
                 .register(meterRegistry);
 
+        this.spaceShipImportedCounter = Counter.builder("spaceship.imported")
+                .description("Number of spaceships created through the streaming import")
+                .register(meterRegistry);
+
         this.auditMessagesSentCounter = Counter.builder("audit.messages.sent")
                 .description("Number of audit messages sent to RabbitMQ")
                 .register(meterRegistry);
@@ -59,73 +114,260 @@ public class MetricsService {
                 .description("Number of messages sent to Kafka")
                 .register(meterRegistry);
 
-        // Inicializar timers
-        this.databaseOperationTimer = Timer.builder("database.operation.duration")
-                .description("Duration of database operations")
+        this.kafkaMessagesFailedCounter = Counter.builder("kafka.messages.failed")
+                .description("Number of messages Kafka failed to acknowledge")
+                .register(meterRegistry);
+
+        this.kafkaMessagesDroppedCounter = Counter.builder("kafka.messages.dropped")
+                .description("Number of messages dropped because the producer queue was full")
                 .register(meterRegistry);
 
+        this.auditOutboxPublishFailuresCounter = Counter.builder("audit.outbox.publish.failures")
+                .description("Number of failed audit outbox relay publishes")
+                .register(meterRegistry);
+
+        this.auditMessagesConsumedCounter = Counter.builder("audit.messages.consumed")
+                .description("Number of audit messages stored by the RabbitMQ consumer")
+                .register(meterRegistry);
+
+        this.auditMessagesRejectedCounter = Counter.builder("audit.messages.rejected")
+                .description("Number of audit messages discarded because they could not be read or stored")
+                .register(meterRegistry);
+
+        this.auditMessagesDuplicateCounter = Counter.builder("audit.messages.duplicate")
+                .description("Number of redelivered audit messages dropped because their event was already stored")
+                .register(meterRegistry);
+
+        this.auditEventsPurgedCounter = Counter.builder("audit.retention.purged")
+                .description("Number of stored audit events removed by the retention job")
+                .register(meterRegistry);
+
+        this.spaceShipNegativeCacheHitCounter = Counter.builder("spaceship.cache.negative.hits")
+                .description("Number of spaceship lookups answered by a cached miss")
+                .register(meterRegistry);
+
+        this.loginFailedCounter = Counter.builder("login.attempts.failed")
+                .description("Number of failed login attempts")
+                .register(meterRegistry);
+
+        this.loginBlockedCounter = Counter.builder("login.attempts.blocked")
+                .description("Number of logins rejected because the user reached the maximum failed attempts")
+                .register(meterRegistry);
+
+        this.loginAttemptsOverflowCounter = Counter.builder("login.attempts.overflow")
+                .description("Failed logins counted in the count-min sketch because the exact counters were full")
+                .register(meterRegistry);
+
+        // Inicializar timers
         this.externalServiceTimer = Timer.builder("external.service.duration")
                 .description("Duration of external service calls")
                 .register(meterRegistry);
+
+        this.auditOutboxLagTimer = Timer.builder("audit.outbox.relay.lag")
+                .description("Time between an audit event being written to the outbox and its publication")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+
+        this.kafkaSendTimer = Timer.builder("kafka.send.duration")
+                .description("Time from handing a message to the Kafka producer until the broker acknowledges it")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+
+        this.spaceShipImportThroughput = DistributionSummary.builder("spaceship.import.throughput")
+                .description("Rows per second achieved by each streaming import")
+                .baseUnit("rows/s")
+                .register(meterRegistry);
+
+        this.auditBatchSize = DistributionSummary.builder("audit.consumer.batch.size")
+                .description("Audit events stored per consumer batch")
+                .baseUnit("events")
+                .register(meterRegistry);
+
+        this.auditBatchTimer = Timer.builder("audit.consumer.batch.duration")
+                .description("Time to convert and commit a batch of audit messages")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
     }
 
     // Métodos para incrementar contadores
     public void incrementSpaceShipCreated() {
         spaceShipCreatedCounter.increment();
-        log.debug("SpaceShip created counter incremented");
+    }
+
+    public void incrementSpaceShipCreated(int amount) {
+        spaceShipCreatedCounter.increment(amount);
     }
 
     public void incrementSpaceShipUpdated() {
         spaceShipUpdatedCounter.increment();
-        log.debug("SpaceShip updated counter incremented");
+    }
+
+    public void incrementSpaceShipUpdated(int amount) {
+        spaceShipUpdatedCounter.increment(amount);
     }
 
     public void incrementSpaceShipDeleted() {
         spaceShipDeletedCounter.increment();
-        log.debug("SpaceShip deleted counter incremented");
+    }
+
+    public void incrementSpaceShipDeleted(int amount) {
+        spaceShipDeletedCounter.increment(amount);
     }
 
     public void incrementSpaceShipRead() {
         spaceShipReadCounter.increment();
-        log.debug("SpaceShip read counter incremented");
+    }
+
+    public void incrementSpaceShipImported(int amount) {
+        spaceShipImportedCounter.increment(amount);
+    }
+
+    public void recordSpaceShipImportThroughput(double rowsPerSecond) {
+        spaceShipImportThroughput.record(rowsPerSecond);
     }
 
     public void incrementAuditMessagesSent() {
         auditMessagesSentCounter.increment();
-        log.debug("Audit message sent counter incremented");
+    }
+
+    public void incrementAuditMessagesSent(int amount) {
+        auditMessagesSentCounter.increment(amount);
     }
 
     public void incrementKafkaMessagesSent() {
         kafkaMessagesSentCounter.increment();
-        log.debug("Kafka message sent counter incremented");
+    }
+
+    public void incrementKafkaMessagesFailed() {
+        kafkaMessagesFailedCounter.increment();
+    }
+
+    public void incrementKafkaMessagesDropped() {
+        kafkaMessagesDroppedCounter.increment();
+    }
+
+    public void incrementAuditOutboxPublishFailures() {
+        auditOutboxPublishFailuresCounter.increment();
+    }
+
+    public void incrementAuditMessagesRejected() {
+        auditMessagesRejectedCounter.increment();
+    }
+
+    public void incrementAuditMessagesDuplicate(int amount) {
+        auditMessagesDuplicateCounter.increment(amount);
+    }
+
+    public void incrementAuditEventsPurged(int amount) {
+        auditEventsPurgedCounter.increment(amount);
+    }
+
+    public void incrementSpaceShipNegativeCacheHit() {
+        spaceShipNegativeCacheHitCounter.increment();
+    }
+
+    public void incrementLoginFailed() {
+        loginFailedCounter.increment();
+    }
+
+    public void incrementLoginBlocked() {
+        loginBlockedCounter.increment();
+    }
+
+    public void incrementLoginAttemptsOverflow() {
+        loginAttemptsOverflowCounter.increment();
+    }
+
+    public void incrementPasswordHashingRejected(String reason) {
+        Counter.builder("password.hashing.rejected")
+                .description("Credential checks refused because the password hashing pool was saturated or too slow")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void incrementDataSourceRoute(String route, String reason) {
+        Counter.builder("db.datasource.route")
+                .description("Transactions routed to each datasource pool and why")
+                .tag("route", route)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // Registra hits, misses y evictions de una caché Caffeine (requiere recordStats)
+    public void registerCache(String cacheName, Cache<?, ?> cache) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, cacheName);
+    }
+
+    // Devuelve el executor instrumentado: las tareas deben enviarse a él para medir su tiempo en cola
+    public ExecutorService registerExecutor(String executorName, ExecutorService executor) {
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, executorName);
+    }
+
+    public void registerGauge(String name, String description, AtomicLong value) {
+        Gauge.builder(name, value, AtomicLong::get)
+                .description(description)
+                .register(meterRegistry);
+    }
+
+    public void registerGauge(String name, String description, LongSupplier value) {
+        Gauge.builder(name, value, LongSupplier::getAsLong)
+                .description(description)
+                .register(meterRegistry);
     }
 
     // Métodos para medir duración con Timer
-    public void recordDatabaseOperationTime(long duration, TimeUnit timeUnit) {
-        databaseOperationTimer.record(duration, timeUnit);
-        log.debug("Database operation duration recorded: {} {}", duration, timeUnit);
+    public void recordOperationTime(String operationName, Outcome outcome, long duration, TimeUnit timeUnit) {
+        operationTimers.computeIfAbsent(operationName, this::operationTimers)[outcome.ordinal()].record(duration, timeUnit);
     }
 
     public void recordExternalServiceTime(long duration, TimeUnit timeUnit) {
         externalServiceTimer.record(duration, timeUnit);
-        log.debug("External service duration recorded: {} {}", duration, timeUnit);
     }
 
+    public void recordKafkaSendTime(long duration, TimeUnit timeUnit) {
+        kafkaSendTimer.record(duration, timeUnit);
+    }
+
+    public void recordAuditOutboxLag(Duration lag) {
+        auditOutboxLagTimer.record(lag);
+    }
+
+    public void recordAuditBatchConsumed(int storedEvents, long durationNanos) {
+        auditMessagesConsumedCounter.increment(storedEvents);
+        auditBatchSize.record(storedEvents);
+        auditBatchTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Ejecuta la operación dentro de un span y registra su duración en
+     * {@value #OPERATION_TIMER_NAME}, etiquetada por operación y resultado.
+     */
     public <T> T executeWithTracing(String operationName, java.util.function.Supplier<T> operation) {
         Span span = tracer.nextSpan().name(operationName).start();
         long startTime = System.nanoTime();
+        var outcome = Outcome.SUCCESS;
 
         try (Tracer.SpanInScope spanInScope = tracer.withSpan(span)) {
             T result = operation.get();
             span.tag("status", "success");
             return result;
         } catch (Exception e) {
-            span.tag("status", "error");
-            span.tag("error.message", e.getMessage());
+            outcome = outcomeOf(e);
+            span.tag("error.message", String.valueOf(e.getMessage()));
+            if (outcome == Outcome.CLIENT_ERROR) {
+                // Un 4xx no es un fallo del servicio: el muestreo adaptativo lo trata como rutinario salvo que se configure lo contrario
+                span.tag("status", "client_error");
+                span.tag("outcome", outcome.name());
+            } else {
+                // Marca el span como erróneo para que el muestreo adaptativo lo conserve siempre
+                span.tag("status", "error");
+                span.error(e);
+            }
             throw e;
         } finally {
-            long duration = System.nanoTime() - startTime;
-            recordDatabaseOperationTime(duration, TimeUnit.NANOSECONDS);
+            recordOperationTime(operationName, outcome, System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
             span.end();
         }
     }
@@ -137,4 +379,31 @@ public class MetricsService {
             return null;
         });
     }
+
+    private Timer[] operationTimers(String operationName) {
+        var outcomes = Outcome.values();
+        var timers = new Timer[outcomes.length];
+        for (var outcome : outcomes) {
+            timers[outcome.ordinal()] = Timer.builder(OPERATION_TIMER_NAME)
+                    .description("Duration of service operations run through executeWithTracing")
+                    .tag("operation", operationName)
+                    .tag("outcome", outcome.name())
+                    .serviceLevelObjectives(operationSlos)
+                    .register(meterRegistry);
+        }
+        return timers;
+    }
+
+    private static Outcome outcomeOf(Exception e) {
+        // Credenciales incorrectas, usuario bloqueado o sin permisos: Spring Security responde 401/403
+        if (e instanceof AuthenticationException || e instanceof AccessDeniedException) {
+            return Outcome.CLIENT_ERROR;
+        }
+        if (e instanceof ServiceException serviceException
+                && serviceException.getCode() != null
+                && serviceException.getCode() >= 400 && serviceException.getCode() < 500) {
+            return Outcome.CLIENT_ERROR;
+        }
+        return Outcome.SERVER_ERROR;
+    }
 }
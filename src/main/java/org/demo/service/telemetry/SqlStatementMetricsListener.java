@@ -0,0 +1,178 @@
+package org.demo.service.telemetry;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Tracer;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Latencia de cada sentencia JDBC en {@value #STATEMENT_TIMER_NAME}, etiquetada por la forma
+ * normalizada de la SQL (sin comentarios; literales, listas IN y filas VALUES reducidas a "?", lista de columnas
+ * del SELECT omitida). Como mucho hay {@code max-statements} formas distintas: las siguientes se
+ * agrupan en {@value #OTHER_STATEMENT}, así que la cardinalidad está acotada.
+ * Las sentencias más lentas que {@code slow-threshold} se registran en el log con su forma, el
+ * número de parámetros, el tamaño del batch y el traceId, como mucho {@code max-logs-per-minute}
+ * veces por minuto; las que no caben se cuentan y se indican en el siguiente mensaje.
+ * La duración la mide {@code ProxyDataSource} con System.nanoTime (ver DataSourceProxyConfig).
+ */
+@Service
+@Slf4j
+public class SqlStatementMetricsListener implements QueryExecutionListener {
+
+    public static final String STATEMENT_TIMER_NAME = "db.statement.duration";
+    public static final String DEFAULT_STATEMENT_SLO = "PT0.0005S,PT0.001S,PT0.005S,PT0.01S,PT0.05S,PT0.1S,PT0.5S,PT1S";
+    public static final String OTHER_STATEMENT = "other";
+
+    private static final Pattern COMMENT = Pattern.compile("--[^\\n]*|/\\*.*?\\*/", Pattern.DOTALL);
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern VALUES_ROWS = Pattern.compile("(\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\))(?:\\s*,\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\))+");
+    private static final Pattern SELECT_LIST = Pattern.compile("^select\\s+(?:distinct\\s+)?.+?\\s+from\\s", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final MeterRegistry meterRegistry;
+    private final Tracer tracer;
+    private final Duration[] slos;
+    private final long slowThresholdNanos;
+    private final int maxStatements;
+    private final int maxStatementLength;
+    private final int maxLogsPerMinute;
+
+    // SQL tal cual la envía Hibernate -> forma normalizada; evita aplicar las expresiones en cada ejecución
+    private final Cache<String, String> statements = Caffeine.newBuilder().maximumSize(1_000).build();
+    private final Map<String, Timer[]> timers = new ConcurrentHashMap<>();
+    private final Counter slowCounter;
+    private final AtomicLong logWindow = new AtomicLong();
+    private final AtomicInteger logsInWindow = new AtomicInteger();
+    private final AtomicLong suppressedLogs = new AtomicLong();
+
+    public SqlStatementMetricsListener(MeterRegistry meterRegistry,
+                                       Tracer tracer,
+                                       @Value("${ships.metrics.sql.slo:" + DEFAULT_STATEMENT_SLO + "}") List<Duration> slos,
+                                       @Value("${ships.metrics.sql.slow-threshold:PT0.1S}") Duration slowThreshold,
+                                       @Value("${ships.metrics.sql.max-statements:100}") int maxStatements,
+                                       @Value("${ships.metrics.sql.max-statement-length:160}") int maxStatementLength,
+                                       @Value("${ships.metrics.sql.max-logs-per-minute:10}") int maxLogsPerMinute) {
+        this.meterRegistry = meterRegistry;
+        this.tracer = tracer;
+        this.slos = slos.toArray(Duration[]::new);
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.maxStatements = maxStatements;
+        this.maxStatementLength = maxStatementLength;
+        this.maxLogsPerMinute = maxLogsPerMinute;
+        this.slowCounter = Counter.builder("db.statement.slow")
+                .description("Number of JDBC statements slower than ships.metrics.sql.slow-threshold")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        var elapsedNanos = execInfo.getElapsedTime();
+        // Un batch de Statement con varias SQL distintas comparte la duración total
+        for (var queryInfo : queryInfoList) {
+            var statement = statements.get(queryInfo.getQuery(), this::normalize);
+            timers.computeIfAbsent(tagValue(statement), this::statementTimers)[execInfo.isSuccess() ? 0 : 1]
+                    .record(elapsedNanos, TimeUnit.NANOSECONDS);
+            if (elapsedNanos >= slowThresholdNanos) {
+                logSlowStatement(statement, execInfo, queryInfo);
+            }
+        }
+    }
+
+    /**
+     * Forma de la sentencia sin valores concretos, para agrupar todas las ejecuciones de la misma consulta.
+     */
+    public String normalize(String sql) {
+        var normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = COMMENT.matcher(normalized).replaceAll(" ");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        normalized = IN_LIST.matcher(normalized).replaceAll("in (?)");
+        normalized = VALUES_ROWS.matcher(normalized).replaceAll("$1");
+        normalized = SELECT_LIST.matcher(normalized).replaceFirst("select ... from ");
+        if (normalized.length() > maxStatementLength) {
+            // Prefijo legible + hash del resto, para que dos sentencias largas no compartan etiqueta
+            normalized = normalized.substring(0, maxStatementLength) + "...#" + Integer.toHexString(normalized.hashCode());
+        }
+        return normalized;
+    }
+
+    // Pasado el límite de formas distintas, las nuevas se agrupan en "other"
+    private String tagValue(String statement) {
+        if (timers.containsKey(statement) || timers.size() < maxStatements) {
+            return statement;
+        }
+        return OTHER_STATEMENT;
+    }
+
+    private Timer[] statementTimers(String statement) {
+        var command = OTHER_STATEMENT.equals(statement) ? OTHER_STATEMENT : command(statement);
+        return new Timer[]{statementTimer(statement, command, "success"), statementTimer(statement, command, "error")};
+    }
+
+    private Timer statementTimer(String statement, String command, String outcome) {
+        return Timer.builder(STATEMENT_TIMER_NAME)
+                .description("Duration of JDBC statements by normalized SQL")
+                .tag("statement", statement)
+                .tag("command", command)
+                .tag("outcome", outcome)
+                .serviceLevelObjectives(slos)
+                .register(meterRegistry);
+    }
+
+    private void logSlowStatement(String statement, ExecutionInfo execInfo, QueryInfo queryInfo) {
+        slowCounter.increment();
+        if (!acquireLogPermit()) {
+            suppressedLogs.incrementAndGet();
+            return;
+        }
+        var parameters = queryInfo.getParametersList().stream().mapToInt(List::size).sum();
+        var span = tracer.currentSpan();
+        log.warn("Slow SQL {} ms [{}] params={} batch={} traceId={} suppressed={}",
+                TimeUnit.NANOSECONDS.toMillis(execInfo.getElapsedTime()), statement, parameters,
+                execInfo.isBatch() ? execInfo.getBatchSize() : 0,
+                span == null ? "-" : span.context().traceId(), suppressedLogs.getAndSet(0));
+    }
+
+    // Ventana fija de un minuto: se reinicia el contador al cambiar de minuto
+    private boolean acquireLogPermit() {
+        var minute = System.currentTimeMillis() / 60_000;
+        var window = logWindow.get();
+        if (window != minute && logWindow.compareAndSet(window, minute)) {
+            logsInWindow.set(0);
+        }
+        return logsInWindow.incrementAndGet() <= maxLogsPerMinute;
+    }
+
+    private static String command(String statement) {
+        var end = statement.indexOf(' ');
+        var command = (end < 0 ? statement : statement.substring(0, end)).toLowerCase(Locale.ROOT);
+        return switch (command) {
+            case "select", "insert", "update", "delete", "merge", "call" -> command;
+            default -> OTHER_STATEMENT;
+        };
+    }
+}
@@ -7,9 +7,6 @@ public class Constants {
     public static final String AUTH_PATH = "/auth";
     public static final String LOGIN_PATH = "/login";
 
-    //Cache
-    public static final String LOGIN_ATTEMPTS_CACHE = "loginAttempts";
-
     // JWT
     public static final String ISSUER_INFO = "space-api";
     public static final String SUPER_SECRET_KEY = "spaceapi5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437";
@@ -20,9 +17,11 @@ public class Constants {
     //KAFKA
     public static final String SHIPS_CONSUMER_GROUP = "ships-consumer-group";
     public static final String LOGIN_ATTEMPTS_TOPIC = "login-attempts";
+    public static final String LOGIN_LOCKOUTS_TOPIC = "login-lockouts";
 
     //RabbitMQ
     public static final String AUDIT_QUEUE = "audit-queue";
+    public static final String AUDIT_DEAD_LETTER_QUEUE = "audit-queue.dlq";
 
 
 
@@ -0,0 +1,116 @@
+package org.demo.utils;
+
+import org.demo.dto.MovieSpaceShipsDto;
+import org.demo.exception.ServiceException;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * ETags fuertes de las naves a partir de su versión, sin serializar la respuesta.
+ * Una nave usa directamente su versión; un listado usa un hash de los pares (id, versión)
+ * y de los datos de paginación que aparecen en el cuerpo.
+ * Cada formato (JSON, CBOR, Smile) es una representación distinta con su propio ETag: el formato
+ * que elige la negociación según Accept se añade como sufijo ("3-cbor"); JSON, el de por defecto, no lo lleva.
+ */
+public class ETagUtils {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+    private static final String CBOR_SUFFIX = "-cbor";
+    private static final String SMILE_SUFFIX = "-smile";
+
+    private ETagUtils() {
+    }
+
+    /**
+     * @param accept cabecera Accept de la petición, que decide el formato de la respuesta
+     */
+    public static String of(String accept, MovieSpaceShipsDto spaceShip) {
+        return "\"" + spaceShip.getVersion() + formatSuffix(accept) + "\"";
+    }
+
+    /**
+     * @param accept   cabecera Accept de la petición, que decide el formato de la respuesta
+     * @param pageData números de la paginación incluidos en el cuerpo (página, tamaño, total...)
+     */
+    public static String of(String accept, List<MovieSpaceShipsDto> spaceShips, long... pageData) {
+        var hash = FNV_OFFSET_BASIS;
+        for (var value : pageData) {
+            hash = mix(hash, value);
+        }
+        for (var spaceShip : spaceShips) {
+            hash = mix(hash, spaceShip.getId());
+            hash = mix(hash, spaceShip.getVersion());
+        }
+        return "\"" + Long.toHexString(hash) + formatSuffix(accept) + "\"";
+    }
+
+    /**
+     * Versión esperada según la cabecera If-Match; null si no hay cabecera o es "*".
+     * Solo se acepta un ETag fuerte, que es el que devuelven GET y PUT, en cualquiera de los formatos.
+     */
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        var tag = ifMatch.trim();
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            throw new ServiceException("If-Match must contain a single strong ETag", 400);
+        }
+        var value = tag.substring(1, tag.length() - 1);
+        if (value.endsWith(CBOR_SUFFIX) || value.endsWith(SMILE_SUFFIX)) {
+            value = value.substring(0, value.lastIndexOf('-'));
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            // Un ETag que nunca hemos emitido no puede coincidir con la versión actual
+            throw new ServiceException("If-Match " + tag + " does not match the current version", 412);
+        }
+    }
+
+    // Mismo criterio que la negociación de Spring: gana el tipo de mayor calidad y, a igualdad, el primero;
+    // un comodín (*/*, application/*) se resuelve a JSON, el primer converter
+    static String formatSuffix(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return "";
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return "";
+        }
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (var type : accepted) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return "";
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return CBOR_SUFFIX;
+            }
+            if (type.isCompatibleWith(SMILE)) {
+                return SMILE_SUFFIX;
+            }
+        }
+        return "";
+    }
+
+    // FNV-1a sobre los 8 bytes del valor; null cuenta como -1
+    private static long mix(long hash, Long value) {
+        var bits = value == null ? -1L : value;
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash ^= (bits >>> (i * 8)) & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,12 @@
+CREATE SEQUENCE AUDIT_EVENTS_SEQ START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE AUDIT_EVENTS (
+    id BIGINT PRIMARY KEY,
+    operation VARCHAR(20) NOT NULL,
+    ship_id BIGINT,
+    ship_name VARCHAR(100),
+    user_name VARCHAR(100),
+    item_count INT,
+    event_timestamp BIGINT NOT NULL,
+    received_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,10 @@
+-- Cubo diario (días desde epoch en UTC): la retención borra cubos completos.
+-- event_timestamp está en segundos (AuditEventDto)
+ALTER TABLE AUDIT_EVENTS ADD COLUMN event_day INT NOT NULL DEFAULT 0;
+UPDATE AUDIT_EVENTS SET event_day = FLOOR(event_timestamp / 86400);
+
+-- Consultas keyset más recientes primero: (filtro, event_timestamp, id)
+CREATE INDEX IDX_AUDIT_EVENTS_SHIP_TIME ON AUDIT_EVENTS (ship_id, event_timestamp DESC, id DESC);
+CREATE INDEX IDX_AUDIT_EVENTS_USER_TIME ON AUDIT_EVENTS (user_name, event_timestamp DESC, id DESC);
+CREATE INDEX IDX_AUDIT_EVENTS_TIME ON AUDIT_EVENTS (event_timestamp DESC, id DESC);
+CREATE INDEX IDX_AUDIT_EVENTS_DAY ON AUDIT_EVENTS (event_day);
@@ -0,0 +1,3 @@
+-- Id del evento en AUDIT_OUTBOX: una reentrega del mismo mensaje no crea un segundo evento
+ALTER TABLE AUDIT_EVENTS ADD COLUMN event_id BIGINT;
+CREATE UNIQUE INDEX UK_AUDIT_EVENTS_EVENT_ID ON AUDIT_EVENTS (event_id);
@@ -0,0 +1,3 @@
+-- Reserva de filas por instancia del relay: varias instancias pueden vaciar el outbox sin publicar lo mismo
+ALTER TABLE AUDIT_OUTBOX ADD COLUMN claimed_by VARCHAR(64);
+ALTER TABLE AUDIT_OUTBOX ADD COLUMN claimed_until TIMESTAMP;
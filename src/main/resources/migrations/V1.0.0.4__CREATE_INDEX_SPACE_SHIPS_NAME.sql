@@ -0,0 +1 @@
+CREATE INDEX IDX_SPACE_SHIPS_NAME_ID ON SPACE_SHIPS (name, id);
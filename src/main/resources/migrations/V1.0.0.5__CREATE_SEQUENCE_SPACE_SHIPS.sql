@@ -0,0 +1,2 @@
+CREATE SEQUENCE SPACE_SHIPS_SEQ START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE SPACE_SHIPS_SEQ RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM SPACE_SHIPS);
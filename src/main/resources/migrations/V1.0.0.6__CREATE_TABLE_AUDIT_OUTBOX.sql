@@ -0,0 +1,11 @@
+CREATE SEQUENCE AUDIT_OUTBOX_SEQ START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE AUDIT_OUTBOX (
+    id BIGINT PRIMARY KEY,
+    operation VARCHAR(20) NOT NULL,
+    ship_id BIGINT,
+    ship_name VARCHAR(100),
+    user_name VARCHAR(100),
+    event_timestamp BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1 @@
+ALTER TABLE AUDIT_OUTBOX ADD COLUMN item_count INT;
@@ -0,0 +1 @@
+ALTER TABLE SPACE_SHIPS ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1 @@
+CREATE INDEX IDX_USERS_EMAIL ON USERS (email);
@@ -31,7 +31,7 @@ public class MovieShipsSteps {
     public void existUserById(int userId) throws Exception {
         System.out.println("Ejecutado el GIVEN");
 
-        var responseEntity = movieSpaceShipsController.findById(userId);
+        var responseEntity = movieSpaceShipsController.findById(userId, null);
         var resultBody = responseEntity.getBody();
 
         assertThat(resultBody, is(notNullValue()));
@@ -40,7 +40,7 @@ public class MovieShipsSteps {
     @When("el usuario consulta los detalles de la na espacial con ID {int}")
     public void elUsuarioConsultaLosDetallesDelUsuarioConID(int userId) throws Exception {
         System.out.println("Ejecutado el WHEN");
-        resultMovieSpaceShipsDto = movieSpaceShipsController.findById(userId).getBody();
+        resultMovieSpaceShipsDto = movieSpaceShipsController.findById(userId, null).getBody();
     }
 
     @Then("se muestran los detalles de la nave espacial")
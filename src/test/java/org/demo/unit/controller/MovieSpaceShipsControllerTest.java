@@ -0,0 +1,158 @@
+package org.demo.unit.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.demo.controller.MovieSpaceShipsController;
+import org.demo.dto.BulkResultDto;
+import org.demo.dto.MovieSpaceShipsDto;
+import org.demo.service.MovieSpaceShipBulkService;
+import org.demo.service.MovieSpaceShipService;
+import org.demo.service.export.SpaceShipExportService;
+import org.demo.service.importer.SpaceShipImportService;
+import org.demo.utils.ETagUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class MovieSpaceShipsControllerTest {
+
+    private static final String SMILE = "application/x-jackson-smile";
+    private static final List<MovieSpaceShipsDto> SPACE_SHIPS = List.of(
+            new MovieSpaceShipsDto(1L, "X-Wing", "Star Wars", 2L),
+            new MovieSpaceShipsDto(2L, "Nostromo", "Alien", 0L));
+
+    @Mock
+    private MovieSpaceShipService movieSpaceShipService;
+
+    @Mock
+    private MovieSpaceShipBulkService movieSpaceShipBulkService;
+
+    @Mock
+    private SpaceShipExportService spaceShipExportService;
+
+    @Mock
+    private SpaceShipImportService spaceShipImportService;
+
+    private MockMvc mockMvc;
+
+    // Los mismos converters y en el mismo orden que registra BinaryFormatsConfig sobre los de Spring Boot
+    @BeforeEach
+    public void setup() {
+        var controller = new MovieSpaceShipsController(movieSpaceShipService, movieSpaceShipBulkService,
+                spaceShipExportService, spaceShipImportService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setMessageConverters(
+                        new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build()),
+                        new MappingJackson2CborHttpMessageConverter(mapper(MediaType.APPLICATION_CBOR_VALUE)),
+                        new MappingJackson2SmileHttpMessageConverter(mapper(SMILE)))
+                .build();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {MediaType.APPLICATION_CBOR_VALUE, SMILE})
+    public void testListRoundTripsInBinaryFormat(String format) throws Exception {
+        when(movieSpaceShipService.getSpaceShips(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(SPACE_SHIPS, PageRequest.of(0, 10), 2));
+
+        var response = mockMvc.perform(get("/v1/space-ships").header(HttpHeaders.ACCEPT, format))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(format))
+                .andReturn().getResponse();
+
+        JsonNode page = mapper(format).readTree(response.getContentAsByteArray());
+        var content = mapper(format).convertValue(page.get("content"), new TypeReference<List<MovieSpaceShipsDto>>() {
+        });
+        Assertions.assertEquals(SPACE_SHIPS, content);
+        Assertions.assertEquals(2, page.get("totalElements").asInt());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {MediaType.APPLICATION_CBOR_VALUE, SMILE})
+    public void testListETagDependsOnFormat(String format) throws Exception {
+        when(movieSpaceShipService.getSpaceShips(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(SPACE_SHIPS, PageRequest.of(0, 10), 2));
+
+        var jsonETag = mockMvc.perform(get("/v1/space-ships").header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        var binaryETag = mockMvc.perform(get("/v1/space-ships").header(HttpHeaders.ACCEPT, format))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        Assertions.assertNotNull(jsonETag);
+        Assertions.assertNotEquals(jsonETag, binaryETag);
+        // El ETag de JSON no sirve para validar la copia CBOR/Smile de una caché, y viceversa
+        mockMvc.perform(get("/v1/space-ships").header(HttpHeaders.ACCEPT, format).header(HttpHeaders.IF_NONE_MATCH, jsonETag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/v1/space-ships").header(HttpHeaders.ACCEPT, format).header(HttpHeaders.IF_NONE_MATCH, binaryETag))
+                .andExpect(status().isNotModified());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {MediaType.APPLICATION_CBOR_VALUE, SMILE})
+    public void testBulkRoundTripsInBinaryFormat(String format) throws Exception {
+        var result = BulkResultDto.builder().operation("CREATE").requested(2).succeeded(2).items(List.of()).build();
+        when(movieSpaceShipBulkService.saveSpaceShips(any())).thenReturn(result);
+
+        var response = mockMvc.perform(post("/v1/space-ships/bulk")
+                        .contentType(format)
+                        .header(HttpHeaders.ACCEPT, format)
+                        .content(mapper(format).writeValueAsBytes(SPACE_SHIPS)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(format))
+                .andReturn().getResponse();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<MovieSpaceShipsDto>> received = ArgumentCaptor.forClass(List.class);
+        verify(movieSpaceShipBulkService).saveSpaceShips(received.capture());
+        Assertions.assertEquals(SPACE_SHIPS, received.getValue());
+        Assertions.assertEquals(result, mapper(format).readValue(response.getContentAsByteArray(), BulkResultDto.class));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {MediaType.APPLICATION_CBOR_VALUE, SMILE})
+    public void testIfMatchAcceptsETagOfAnyFormat(String format) throws Exception {
+        when(movieSpaceShipService.getSpaceShipById(1)).thenReturn(SPACE_SHIPS.get(0));
+
+        mockMvc.perform(get("/v1/space-ships/1").header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+        var binaryETag = mockMvc.perform(get("/v1/space-ships/1").header(HttpHeaders.ACCEPT, format))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        Assertions.assertEquals(2L, ETagUtils.expectedVersion(binaryETag));
+    }
+
+    private static ObjectMapper mapper(String format) {
+        var factory = MediaType.APPLICATION_CBOR_VALUE.equals(format) ? new CBORFactory() : new SmileFactory();
+        return Jackson2ObjectMapperBuilder.json().factory(factory).build();
+    }
+}
@@ -0,0 +1,45 @@
+package org.demo.unit.service;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import org.demo.config.tracing.AdaptiveSamplingSpanHandler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+public class AdaptiveSamplingSpanHandlerTest {
+
+    // traceId % 10000 = 9999: nunca entra en la proporción de rutinarios
+    private static final TraceContext ROUTINE_DROPPED = TraceContext.newBuilder().traceId(9_999).spanId(1).build();
+
+    @Test
+    public void testServerErrorsAndSlowSpansAreAlwaysKept() {
+        var handler = new AdaptiveSamplingSpanHandler(Duration.ofMillis(500), 0.1, false);
+
+        Assertions.assertTrue(handler.end(ROUTINE_DROPPED, span("status", "error", 0), SpanHandler.Cause.FINISHED));
+        Assertions.assertTrue(handler.end(ROUTINE_DROPPED, span("outcome", "SERVER_ERROR", 0), SpanHandler.Cause.FINISHED));
+        Assertions.assertTrue(handler.end(ROUTINE_DROPPED, span("status", "success", 600_000), SpanHandler.Cause.FINISHED));
+        Assertions.assertFalse(handler.end(ROUTINE_DROPPED, span("status", "success", 0), SpanHandler.Cause.FINISHED));
+    }
+
+    @Test
+    public void testClientErrorsAreRoutineUnlessConfigured() {
+        var clientError = span("outcome", "CLIENT_ERROR", 0);
+        clientError.tag("status", "client_error");
+
+        Assertions.assertFalse(new AdaptiveSamplingSpanHandler(Duration.ofMillis(500), 0.1, false)
+                .end(ROUTINE_DROPPED, clientError, SpanHandler.Cause.FINISHED));
+        Assertions.assertTrue(new AdaptiveSamplingSpanHandler(Duration.ofMillis(500), 0.1, true)
+                .end(ROUTINE_DROPPED, clientError, SpanHandler.Cause.FINISHED));
+    }
+
+    private static MutableSpan span(String tag, String value, long durationMicros) {
+        var span = new MutableSpan();
+        span.tag(tag, value);
+        span.startTimestamp(1_000_000);
+        span.finishTimestamp(1_000_000 + durationMicros);
+        return span;
+    }
+}
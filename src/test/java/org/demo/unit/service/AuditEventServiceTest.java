@@ -0,0 +1,196 @@
+package org.demo.unit.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.demo.dto.AuditEventDto;
+import org.demo.dto.AuditRecordDto;
+import org.demo.exception.ServiceException;
+import org.demo.persistance.entities.AuditEvent;
+import org.demo.persistance.repository.AuditEventRepository;
+import org.demo.service.audit.AuditEventService;
+import org.demo.service.audit.AuditRetentionService;
+import org.demo.service.pagination.AuditEventCursor;
+import org.demo.service.rabbitmq.RabbitMQReceiverService;
+import org.demo.service.telemetry.MetricsService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AuditEventServiceTest {
+
+    private static final Instant FROM = Instant.parse("2026-09-01T00:00:00Z");
+    private static final Instant TO = Instant.parse("2026-10-01T00:00:00Z");
+
+    @Mock
+    private AuditEventRepository auditEventRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Captor
+    private ArgumentCaptor<List<AuditEvent>> savedEvents;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MetricsService metricsService;
+    private AuditEventService auditEventService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metricsService = new MetricsService(meterRegistry, Tracer.NOOP, List.of());
+        auditEventService = new AuditEventService(auditEventRepository, metricsService, 100);
+    }
+
+    @Test
+    void firstPageStartsAtToAndReturnsCursorOfLastRow() {
+        // Se piden size + 1 filas; la extra solo indica que hay página siguiente
+        when(auditEventRepository.findByShipBefore(7L, FROM.getEpochSecond(), TO.getEpochSecond(), Long.MIN_VALUE, 3))
+                .thenReturn(records(3));
+
+        var page = auditEventService.findByShip(7L, FROM, TO, null, 2);
+
+        Assertions.assertEquals(2, page.getSize());
+        Assertions.assertTrue(page.isHasNext());
+        var cursor = AuditEventCursor.decode(page.getNextCursor());
+        var last = page.getContent().getLast();
+        Assertions.assertEquals(last.getTimestamp(), cursor.lastTimestamp());
+        Assertions.assertEquals(last.getId(), cursor.lastId());
+    }
+
+    @Test
+    void nextPageContinuesBeforeTheCursor() {
+        var cursor = new AuditEventCursor(TO.getEpochSecond() - 1, 42L);
+        when(auditEventRepository.findByUserBefore("test@test.com", 0L, cursor.lastTimestamp(), 42L, 11))
+                .thenReturn(records(4));
+
+        var page = auditEventService.findByUser("test@test.com", null, TO, cursor.encode(), 10);
+
+        Assertions.assertEquals(4, page.getSize());
+        Assertions.assertFalse(page.isHasNext());
+        Assertions.assertNull(page.getNextCursor());
+        Assertions.assertEquals(AuditEventService.SORT, page.getSort());
+    }
+
+    @Test
+    void timeRangeRequiresFrom() {
+        var exception = Assertions.assertThrows(ServiceException.class,
+                () -> auditEventService.findByTimeRange(null, TO, null, 10));
+        Assertions.assertEquals(400, exception.getCode().intValue());
+    }
+
+    @Test
+    void rejectsInvalidRangesPageSizesAndCursors() {
+        Assertions.assertThrows(ServiceException.class, () -> auditEventService.findByTimeRange(TO, FROM, null, 10));
+        Assertions.assertThrows(ServiceException.class, () -> auditEventService.findByShip(1L, FROM, TO, null, 0));
+        Assertions.assertThrows(ServiceException.class, () -> auditEventService.findByShip(1L, FROM, TO, null, 101));
+        Assertions.assertThrows(ServiceException.class, () -> auditEventService.findByShip(1L, FROM, TO, "not-a-cursor", 10));
+        verify(auditEventRepository, never()).findByShipBefore(anyLong(), anyLong(), anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void retentionDropsExpiredBucketsOldestFirst() {
+        var now = Instant.parse("2026-10-18T12:00:00Z");
+        var today = AuditEvent.dayOf(now.getEpochSecond());
+        var retention = new AuditRetentionService(auditEventRepository, metricsService,
+                Clock.fixed(now, ZoneOffset.UTC), 30);
+        // Dos cubos caducados (con un hueco entre ellos) y luego el primero que se conserva
+        when(auditEventRepository.findOldestDay())
+                .thenReturn(Optional.of(today - 100))
+                .thenReturn(Optional.of(today - 30))
+                .thenReturn(Optional.of(today - 29));
+        when(auditEventRepository.deleteByDay(today - 100)).thenReturn(5);
+        when(auditEventRepository.deleteByDay(today - 30)).thenReturn(7);
+
+        Assertions.assertEquals(12, retention.purgeExpired());
+        verify(auditEventRepository, never()).deleteByDay(today - 29);
+        Assertions.assertEquals(12, meterRegistry.get("audit.retention.purged").counter().count());
+    }
+
+    @Test
+    void retentionWithEmptyTableDoesNothing() {
+        var retention = new AuditRetentionService(auditEventRepository, metricsService, Clock.systemUTC(), 30);
+        when(auditEventRepository.findOldestDay()).thenReturn(Optional.empty());
+
+        Assertions.assertEquals(0, retention.purgeExpired());
+        verify(auditEventRepository, never()).deleteByDay(anyInt());
+    }
+
+    @Test
+    void dayBucketsFollowUtcDays() {
+        var midnight = Instant.parse("2026-10-18T00:00:00Z").getEpochSecond();
+        Assertions.assertEquals(AuditEvent.dayOf(midnight), AuditEvent.dayOf(midnight + Duration.ofDays(1).toSeconds() - 1));
+        Assertions.assertEquals(AuditEvent.dayOf(midnight) - 1, AuditEvent.dayOf(midnight - 1));
+    }
+
+    @Test
+    void producerTimestampsInSecondsSurviveRetentionAndMatchRangeQueries() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        var messageConverter = new Jackson2JsonMessageConverter();
+        var receiver = new RabbitMQReceiverService(auditEventRepository, messageConverter, transactionTemplate,
+                mock(RabbitTemplate.class), metricsService);
+        // Igual que MovieSpaceShipService y el resto de productores
+        var timestamp = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+        var event = AuditEventDto.builder().operation("CREATE").shipId(7L).user("test@test.com").timestamp(timestamp).build();
+
+        receiver.onMessageBatch(List.of(messageConverter.toMessage(event, new MessageProperties())));
+
+        verify(auditEventRepository).saveAll(savedEvents.capture());
+        var stored = savedEvents.getValue().getFirst();
+        Assertions.assertEquals(AuditEvent.dayOf(Instant.now().getEpochSecond()), stored.getEventDay());
+
+        // El cubo de hoy no caduca
+        var retention = new AuditRetentionService(auditEventRepository, metricsService, Clock.systemUTC(), 30);
+        when(auditEventRepository.findOldestDay()).thenReturn(Optional.of(stored.getEventDay()));
+        Assertions.assertEquals(0, retention.purgeExpired());
+        verify(auditEventRepository, never()).deleteByDay(anyInt());
+
+        // Y cae dentro de [hace una hora, ahora)
+        var from = ArgumentCaptor.forClass(Long.class);
+        var before = ArgumentCaptor.forClass(Long.class);
+        when(auditEventRepository.findBefore(from.capture(), before.capture(), anyLong(), anyInt())).thenReturn(List.of());
+        auditEventService.findByTimeRange(Instant.now().minus(Duration.ofHours(1)), null, null, 10);
+        Assertions.assertTrue(from.getValue() <= stored.getTimestamp());
+        Assertions.assertTrue(stored.getTimestamp() < before.getValue());
+    }
+
+    private static List<AuditRecordDto> records(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(i -> AuditRecordDto.builder()
+                        .id(100 - i)
+                        .operation("UPDATE")
+                        .shipId(7L)
+                        .user("test@test.com")
+                        .timestamp(TO.getEpochSecond() - i)
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,154 @@
+package org.demo.unit.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.demo.dto.AuditEventDto;
+import org.demo.persistance.entities.AuditOutboxEvent;
+import org.demo.persistance.repository.AuditOutboxRepository;
+import org.demo.service.outbox.AuditOutboxRelayService;
+import org.demo.service.rabbitmq.RabbitMQSenderService;
+import org.demo.service.telemetry.MetricsService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.rabbit.core.AmqpNackReceivedException;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.demo.utils.Constants.AUDIT_QUEUE;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AuditOutboxRelayServiceTest {
+
+    @Mock
+    private AuditOutboxRepository auditOutboxRepository;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private RabbitOperations rabbitOperations;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AuditOutboxRelayService relayService;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        var metricsService = new MetricsService(meterRegistry, Tracer.NOOP, List.of());
+        // RabbitMQSenderService real: publica por el canal de invoke() y espera los confirms
+        lenient().when(rabbitTemplate.invoke(any())).thenAnswer(invocation ->
+                invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(rabbitOperations));
+        relayService = new AuditOutboxRelayService(auditOutboxRepository,
+                new RabbitMQSenderService(rabbitTemplate, Duration.ofSeconds(5)), metricsService, 100, Duration.ofSeconds(30));
+        relayService.start();
+    }
+
+    @Test
+    public void testRelay_PublishesWithConfirmsAndDeletesOnlyAfterConfirm() {
+        var events = List.of(event(1L), event(2L));
+        claim(List.of(1L, 2L), events);
+
+        relayService.relay();
+
+        var order = inOrder(rabbitOperations, auditOutboxRepository);
+        var published = ArgumentCaptor.forClass(AuditEventDto.class);
+        order.verify(rabbitOperations, times(2)).convertAndSend(eq(AUDIT_QUEUE), published.capture());
+        order.verify(rabbitOperations).waitForConfirmsOrDie(5000);
+        order.verify(auditOutboxRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        Assertions.assertEquals(List.of(1L, 2L), published.getAllValues().stream().map(AuditEventDto::getEventId).toList());
+        Assertions.assertEquals(2, meterRegistry.get("audit.messages.sent").counter().count());
+        verify(auditOutboxRepository, never()).release(anyCollection(), anyString());
+    }
+
+    @Test
+    public void testRelay_KeepsRowsWhenBrokerNacks() {
+        claim(List.of(1L), List.of(event(1L)));
+        doThrow(new AmqpNackReceivedException("nack", null)).when(rabbitOperations).waitForConfirmsOrDie(5000);
+
+        relayService.relay();
+
+        verify(auditOutboxRepository, never()).deleteAllByIdInBatch(any());
+        verify(auditOutboxRepository).release(eq(List.of(1L)), anyString());
+        Assertions.assertEquals(1, meterRegistry.get("audit.outbox.publish.failures").counter().count());
+    }
+
+    @Test
+    public void testRelay_KeepsRowsWhenConfirmTimesOut() {
+        claim(List.of(1L), List.of(event(1L)));
+        doThrow(new AmqpTimeoutException("no confirm")).when(rabbitOperations).waitForConfirmsOrDie(5000);
+
+        relayService.relay();
+
+        verify(auditOutboxRepository, never()).deleteAllByIdInBatch(any());
+        verify(auditOutboxRepository).release(eq(List.of(1L)), anyString());
+        Assertions.assertEquals(0, meterRegistry.get("audit.messages.sent").counter().count());
+    }
+
+    @Test
+    public void testRelay_SkipsRowsClaimedByAnotherInstance() {
+        when(auditOutboxRepository.findClaimableIds(any(Instant.class), anyInt())).thenReturn(List.of(1L, 2L));
+        when(auditOutboxRepository.claim(eq(List.of(1L, 2L)), anyString(), any(Instant.class), any(Instant.class))).thenReturn(0);
+
+        relayService.relay();
+
+        verify(rabbitTemplate, never()).invoke(any());
+        verify(auditOutboxRepository, never()).findClaimed(anyCollection(), anyString());
+        verify(auditOutboxRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    public void testRelay_ClaimsForTheConfiguredTimeout() {
+        claim(List.of(1L), List.of(event(1L)));
+
+        relayService.relay();
+
+        var now = ArgumentCaptor.forClass(Instant.class);
+        var until = ArgumentCaptor.forClass(Instant.class);
+        verify(auditOutboxRepository).claim(eq(List.of(1L)), anyString(), now.capture(), until.capture());
+        Assertions.assertEquals(Duration.ofSeconds(30), Duration.between(now.getValue(), until.getValue()));
+    }
+
+    @Test
+    public void testRelay_DoesNothingAfterStop() {
+        relayService.stop();
+
+        relayService.relay();
+
+        Assertions.assertFalse(relayService.isRunning());
+        verifyNoInteractions(auditOutboxRepository, rabbitOperations);
+    }
+
+    private void claim(List<Long> ids, List<AuditOutboxEvent> claimed) {
+        when(auditOutboxRepository.findClaimableIds(any(Instant.class), anyInt())).thenReturn(ids);
+        when(auditOutboxRepository.claim(eq(ids), anyString(), any(Instant.class), any(Instant.class))).thenReturn(claimed.size());
+        when(auditOutboxRepository.findClaimed(eq(ids), anyString())).thenReturn(claimed);
+    }
+
+    private static AuditOutboxEvent event(Long id) {
+        return new AuditOutboxEvent(id, "UPDATE", 7L, "Ship 7", "test@test.com", 1_700_000_000L, null,
+                Instant.now().minusSeconds(1), null, null);
+    }
+}
@@ -0,0 +1,91 @@
+package org.demo.unit.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.demo.config.cache.CacheConfig;
+import org.demo.config.security.jwt.JwtTokenVerifier;
+import org.demo.config.security.jwt.VerifiedToken;
+import org.demo.exception.ServiceException;
+import org.demo.service.JwtService;
+import org.demo.service.telemetry.MetricsService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.demo.utils.Constants.SUPER_SECRET_KEY;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtTokenVerifierTest {
+
+    private static final String TEST_USER = "test@test.com";
+
+    @Mock
+    private MetricsService metricsService;
+
+    private Cache<String, VerifiedToken> cache;
+    private JwtTokenVerifier jwtTokenVerifier;
+
+    @BeforeEach
+    public void setup() {
+        cache = new CacheConfig().jwtVerifiedTokenCache(100, Duration.ofHours(1));
+        jwtTokenVerifier = new JwtTokenVerifier(cache, metricsService);
+    }
+
+    @Test
+    public void testVerify_CachesVerifiedToken() {
+        var token = new JwtService().generateToken(new UsernamePasswordAuthenticationToken(TEST_USER, null, List.of()));
+
+        Assertions.assertEquals(TEST_USER, jwtTokenVerifier.verify(token).subject());
+        Assertions.assertEquals(TEST_USER, jwtTokenVerifier.verify(token).subject());
+
+        Assertions.assertEquals(1, cache.stats().hitCount());
+        Assertions.assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    public void testVerify_EntryExpiresWithToken() {
+        var token = signedToken(Instant.now().plusSeconds(30));
+
+        jwtTokenVerifier.verify(token);
+
+        var ttl = cache.policy().expireVariably().orElseThrow()
+                .getExpiresAfter(cache.asMap().keySet().iterator().next(), TimeUnit.SECONDS).orElseThrow();
+        Assertions.assertTrue(ttl <= 30);
+    }
+
+    @Test
+    public void testVerify_TamperedTokenIsRejectedAndNotCached() {
+        var token = new JwtService().generateToken(new UsernamePasswordAuthenticationToken(TEST_USER, null, List.of()));
+        var tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        Assertions.assertThrows(ServiceException.class, () -> jwtTokenVerifier.verify(tampered));
+        Assertions.assertEquals(0, cache.estimatedSize());
+    }
+
+    @Test
+    public void testVerify_ExpiredTokenIsRejected() {
+        var token = signedToken(Instant.now().minusSeconds(5));
+
+        Assertions.assertThrows(ServiceException.class, () -> jwtTokenVerifier.verify(token));
+    }
+
+    private static String signedToken(Instant expiration) {
+        return Jwts.builder()
+                .setSubject(TEST_USER)
+                .setExpiration(Date.from(expiration))
+                .signWith(Keys.hmacShaKeyFor(SUPER_SECRET_KEY.getBytes()), SignatureAlgorithm.HS512)
+                .compact();
+    }
+}
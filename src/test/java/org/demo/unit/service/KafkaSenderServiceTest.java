@@ -0,0 +1,108 @@
+package org.demo.unit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.demo.dto.LoginAttemptDto;
+import org.demo.service.kafka.KafkaSenderService;
+import org.demo.service.telemetry.MetricsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.demo.utils.Constants.LOGIN_ATTEMPTS_TOPIC;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class KafkaSenderServiceTest {
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Mock
+    private MetricsService metricsService;
+
+    private KafkaSenderService kafkaSenderService;
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        kafkaSenderService.stop();
+    }
+
+    @Test
+    public void testSendMessage_DropsWhenQueueFull() {
+        kafkaSenderService = newService(1, KafkaSenderService.BackpressurePolicy.DROP);
+
+        Assertions.assertTrue(kafkaSenderService.sendMessage(LOGIN_ATTEMPTS_TOPIC, loginAttempt()));
+        Assertions.assertFalse(kafkaSenderService.sendMessage(LOGIN_ATTEMPTS_TOPIC, loginAttempt()));
+
+        verify(metricsService, times(1)).incrementKafkaMessagesDropped();
+        verify(kafkaTemplate, never()).send(anyString(), anyString());
+    }
+
+    @Test
+    public void testSendMessage_BlockGivesUpAfterTimeout() {
+        kafkaSenderService = newService(1, KafkaSenderService.BackpressurePolicy.BLOCK);
+
+        kafkaSenderService.sendMessage(LOGIN_ATTEMPTS_TOPIC, loginAttempt());
+        var start = System.nanoTime();
+        Assertions.assertFalse(kafkaSenderService.sendMessage(LOGIN_ATTEMPTS_TOPIC, loginAttempt()));
+
+        Assertions.assertTrue(System.nanoTime() - start >= Duration.ofMillis(50).toNanos());
+        verify(metricsService, times(1)).incrementKafkaMessagesDropped();
+    }
+
+    @Test
+    public void testSendMessage_DeliveredAsynchronously() {
+        when(kafkaTemplate.send(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+        kafkaSenderService = newService(10, KafkaSenderService.BackpressurePolicy.DROP);
+        kafkaSenderService.start();
+
+        kafkaSenderService.sendMessage(LOGIN_ATTEMPTS_TOPIC, loginAttempt());
+
+        verify(kafkaTemplate, timeout(1000).times(1)).send(eq(LOGIN_ATTEMPTS_TOPIC), anyString());
+        verify(metricsService, timeout(1000).times(1)).incrementKafkaMessagesSent();
+        verify(metricsService, timeout(1000).times(1)).recordKafkaSendTime(anyLong(), any());
+    }
+
+    @Test
+    public void testSendMessage_FailedDeliveryIsCounted() {
+        when(kafkaTemplate.send(anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        kafkaSenderService = newService(10, KafkaSenderService.BackpressurePolicy.DROP);
+        kafkaSenderService.start();
+
+        kafkaSenderService.sendMessage(LOGIN_ATTEMPTS_TOPIC, loginAttempt());
+
+        verify(metricsService, timeout(1000).times(1)).incrementKafkaMessagesFailed();
+        verify(metricsService, never()).incrementKafkaMessagesSent();
+    }
+
+    private KafkaSenderService newService(int capacity, KafkaSenderService.BackpressurePolicy policy) {
+        return new KafkaSenderService(kafkaTemplate, new ObjectMapper(), metricsService,
+                Thread.ofPlatform().daemon().factory(), capacity, policy,
+                Duration.ofMillis(50), 100, Duration.ofSeconds(1), 10);
+    }
+
+    private static LoginAttemptDto loginAttempt() {
+        return LoginAttemptDto.builder()
+                .username("test@test.com")
+                .message("User reached maximum login attempts")
+                .attempts(5)
+                .timestamp(0L)
+                .build();
+    }
+}
@@ -0,0 +1,203 @@
+package org.demo.unit.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.demo.service.security.LoginAttemptService;
+import org.demo.service.telemetry.MetricsService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class LoginAttemptServiceTest {
+
+    private static final int THREADS = 16;
+    private static final int FAILURES_PER_THREAD = 4_800;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MetricsService metricsService;
+    private MutableClock clock;
+
+    @BeforeEach
+    public void setup() {
+        // MetricsService real: un mock registraría cada una de las invocaciones concurrentes
+        meterRegistry = new SimpleMeterRegistry();
+        metricsService = new MetricsService(meterRegistry, Tracer.NOOP, List.of());
+        clock = new MutableClock();
+    }
+
+    @Test
+    public void testRecordFailure_SlidingWindowExpiresOldAttempts() {
+        var service = service(10);
+
+        service.recordFailure("user");
+        clock.advance(Duration.ofMinutes(40));
+        service.recordFailure("user");
+        Assertions.assertEquals(2, service.attempts("user"));
+
+        // El primer fallo sale de la ventana de una hora; el segundo sigue dentro
+        clock.advance(Duration.ofMinutes(25));
+        Assertions.assertEquals(1, service.attempts("user"));
+
+        service.reset("user");
+        Assertions.assertEquals(0, service.attempts("user"));
+        Assertions.assertEquals(0, overflowCount());
+    }
+
+    @Test
+    public void testRecordFailure_OverflowStillBlocks() {
+        // Un solo contador exacto: el resto de usuarios va al sketch
+        var service = service(1);
+        service.recordFailure("tracked");
+
+        for (int i = 0; i < 5; i++) {
+            service.recordFailure("attacked");
+        }
+
+        Assertions.assertTrue(service.isBlocked(service.attempts("attacked")));
+        Assertions.assertFalse(service.isBlocked(service.attempts("innocent")));
+        Assertions.assertEquals(5, overflowCount());
+    }
+
+    @Test
+    public void testRecordFailure_OverflowTrafficDoesNotBlockTrackedUser() {
+        var service = service(1);
+        service.recordFailure("victim");
+
+        // Fallos repartidos entre muchos nombres hasta llenar todas las celdas del sketch (anchura 1024)
+        for (int i = 0; i < 20_000; i++) {
+            service.recordFailure("flood-" + i);
+        }
+
+        Assertions.assertTrue(service.isBlocked(service.attempts("never-seen")), "sketch should be saturated");
+        Assertions.assertEquals(1, service.attempts("victim"));
+        Assertions.assertEquals(2, service.recordFailure("victim"));
+        Assertions.assertFalse(service.isBlocked(service.attempts("victim")));
+    }
+
+    @Test
+    public void testRecordFailure_ConcurrentFailuresAreNotLost() throws Exception {
+        var service = service(THREADS / 2);
+        for (int user = 0; user < THREADS / 2; user++) {
+            service.recordFailure("user-" + user);
+        }
+        runConcurrently(thread -> {
+            // Todos los hilos fallan sobre los mismos usuarios: los ocho primeros con contador exacto, el resto en el sketch
+            for (int i = 0; i < FAILURES_PER_THREAD; i++) {
+                service.recordFailure("user-" + (i % THREADS));
+            }
+        });
+
+        // Cada usuario recibe FAILURES_PER_THREAD / THREADS fallos de cada uno de los THREADS hilos
+        var expected = FAILURES_PER_THREAD;
+        for (int user = 0; user < THREADS; user++) {
+            var attempts = service.attempts("user-" + user);
+            if (user < THREADS / 2) {
+                Assertions.assertEquals(expected + 1, attempts, "exact counter for user-" + user);
+            } else {
+                // El sketch puede sobrestimar por colisiones pero nunca perder incrementos
+                Assertions.assertTrue(attempts >= expected, "sketch estimate for user-" + user + " was " + attempts);
+            }
+        }
+    }
+
+    @Test
+    public void testRecordFailure_ConcurrentWithEvictionAndReset() throws Exception {
+        var service = service(THREADS);
+        var stop = new AtomicBoolean();
+        var sweeper = new Thread(() -> {
+            while (!stop.get()) {
+                service.evictExpired();
+                service.reset("other");
+            }
+        });
+        sweeper.start();
+        try {
+            runConcurrently(thread -> {
+                for (int i = 0; i < FAILURES_PER_THREAD; i++) {
+                    service.recordFailure("user");
+                }
+            });
+        } finally {
+            stop.set(true);
+            sweeper.join();
+        }
+
+        Assertions.assertEquals(THREADS * FAILURES_PER_THREAD, service.attempts("user"));
+    }
+
+    private double overflowCount() {
+        return meterRegistry.get("login.attempts.overflow").counter().count();
+    }
+
+    private LoginAttemptService service(int maxTracked) {
+        clock.set(Instant.parse("2024-01-01T10:00:00Z"));
+        return new LoginAttemptService(metricsService, clock, 5, Duration.ofHours(1), 12, maxTracked, 4, 1024);
+    }
+
+    private static void runConcurrently(ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            var start = new CountDownLatch(1);
+            var futures = new ArrayList<Future<?>>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                var index = thread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(index);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (var future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        void run(int thread);
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now = Instant.EPOCH;
+
+        void set(Instant instant) {
+            now = instant;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
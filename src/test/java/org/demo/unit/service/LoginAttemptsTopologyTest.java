@@ -0,0 +1,144 @@
+package org.demo.unit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.demo.dto.LoginAttemptDto;
+import org.demo.dto.LoginLockoutDto;
+import org.demo.service.kafka.streams.LoginAttemptsTopology;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Properties;
+
+import static org.demo.utils.Constants.LOGIN_ATTEMPTS_TOPIC;
+import static org.demo.utils.Constants.LOGIN_LOCKOUTS_TOPIC;
+
+public class LoginAttemptsTopologyTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T10:00:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    private Path stateDir;
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, String> attempts;
+    private TestOutputTopic<String, String> lockouts;
+
+    @BeforeEach
+    public void setup() {
+        var builder = new StreamsBuilder();
+        new LoginAttemptsTopology(objectMapper, Duration.ofMinutes(15), Duration.ofMinutes(1), 3, 4).build(builder);
+
+        var props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "login-attempts-test");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+        driver = new TopologyTestDriver(builder.build(), props, START);
+        attempts = driver.createInputTopic(LOGIN_ATTEMPTS_TOPIC, new StringSerializer(), new StringSerializer());
+        lockouts = driver.createOutputTopic(LOGIN_LOCKOUTS_TOPIC, new StringDeserializer(), new StringDeserializer());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        driver.close();
+    }
+
+    @Test
+    public void testUserReachingThresholdIsLockedOut() throws Exception {
+        send("alice", "10.0.0.1", START);
+        send("alice", "10.0.0.2", START.plusSeconds(60));
+        Assertions.assertTrue(lockouts.isEmpty());
+
+        send("alice", "10.0.0.3", START.plusSeconds(120));
+
+        var record = lockouts.readKeyValue();
+        Assertions.assertEquals("USER:alice", record.key);
+        var decision = objectMapper.readValue(record.value, LoginLockoutDto.class);
+        Assertions.assertEquals(LoginLockoutDto.Type.USER, decision.getType());
+        Assertions.assertEquals(3L, decision.getAttempts());
+        Assertions.assertTrue(decision.getLocked());
+        Assertions.assertEquals(START.toEpochMilli(), decision.getWindowStart());
+        Assertions.assertEquals(START.plus(Duration.ofMinutes(15)).toEpochMilli(), decision.getWindowEnd());
+
+        // La decisión llega a la GlobalKTable consultable desde cualquier nodo
+        var globalStore = driver.<String, String>getKeyValueStore(LoginAttemptsTopology.LOCKOUTS_STORE);
+        Assertions.assertEquals(record.value, globalStore.get("USER:alice"));
+    }
+
+    @Test
+    public void testSourceSprayingUsernamesRaisesAlert() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            send("user-" + i, "203.0.113.7", START.plusSeconds(i));
+        }
+
+        var record = lockouts.readKeyValue();
+        Assertions.assertEquals("SOURCE:203.0.113.7", record.key);
+        Assertions.assertEquals(4L, objectMapper.readValue(record.value, LoginLockoutDto.class).getAttempts());
+        Assertions.assertTrue(lockouts.isEmpty());
+
+        var sourceCounts = driver.<String, Long>getWindowStore(LoginAttemptsTopology.SOURCE_COUNTS_STORE);
+        Assertions.assertEquals(4L, sourceCounts.fetch("203.0.113.7", START.toEpochMilli()));
+    }
+
+    @Test
+    public void testAttemptsInDifferentWindowsAreNotAdded() throws Exception {
+        send("bob", null, START);
+        send("bob", null, START.plusSeconds(60));
+        send("bob", null, START.plus(Duration.ofMinutes(16)));
+        attempts.pipeInput("not-json", START.plus(Duration.ofMinutes(16)));
+
+        Assertions.assertTrue(lockouts.isEmpty());
+        var userCounts = driver.<String, Long>getWindowStore(LoginAttemptsTopology.USER_COUNTS_STORE);
+        Assertions.assertEquals(2L, userCounts.fetch("bob", START.toEpochMilli()));
+        Assertions.assertEquals(1L, userCounts.fetch("bob", START.plus(Duration.ofMinutes(15)).toEpochMilli()));
+    }
+
+    @Test
+    public void testBlockedRejectionsDoNotExtendLockout() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            send("carol", "10.0.0.9", START.plusSeconds(i));
+        }
+        Assertions.assertEquals("USER:carol", lockouts.readKeyValue().key);
+
+        // Sigue intentándolo ya bloqueada, y también al empezar la ventana siguiente
+        for (int i = 0; i < 5; i++) {
+            send("carol", "10.0.0.9", START.plusSeconds(10 + i), LoginAttemptDto.Outcome.BLOCKED);
+            send("carol", "10.0.0.9", START.plus(Duration.ofMinutes(15)).plusSeconds(i), LoginAttemptDto.Outcome.BLOCKED);
+        }
+
+        Assertions.assertTrue(lockouts.isEmpty());
+        var userCounts = driver.<String, Long>getWindowStore(LoginAttemptsTopology.USER_COUNTS_STORE);
+        Assertions.assertEquals(3L, userCounts.fetch("carol", START.toEpochMilli()));
+        Assertions.assertNull(userCounts.fetch("carol", START.plus(Duration.ofMinutes(15)).toEpochMilli()));
+    }
+
+    private void send(String username, String source, Instant timestamp) throws Exception {
+        send(username, source, timestamp, LoginAttemptDto.Outcome.FAILED);
+    }
+
+    private void send(String username, String source, Instant timestamp, LoginAttemptDto.Outcome outcome) throws Exception {
+        var attempt = LoginAttemptDto.builder()
+                .username(username)
+                .source(source)
+                .message("Incorrect username or password")
+                .outcome(outcome)
+                .attempts(1)
+                .timestamp(timestamp.getEpochSecond())
+                .build();
+        attempts.pipeInput(objectMapper.writeValueAsString(attempt), timestamp);
+    }
+}
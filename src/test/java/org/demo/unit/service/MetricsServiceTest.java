@@ -0,0 +1,63 @@
+package org.demo.unit.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.demo.exception.ServiceException;
+import org.demo.service.telemetry.MetricsService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.time.Duration;
+import java.util.List;
+
+public class MetricsServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MetricsService metricsService;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        metricsService = new MetricsService(meterRegistry, Tracer.NOOP,
+                List.of(Duration.ofMillis(10), Duration.ofMillis(100)));
+    }
+
+    @Test
+    public void testExecuteWithTracing_TimerTaggedByOperationAndOutcome() {
+        metricsService.executeWithTracing("getSpaceShips", () -> "ok");
+        metricsService.executeWithTracing("getSpaceShips", () -> "ok");
+        Assertions.assertThrows(ServiceException.class, () -> metricsService.executeWithTracing("getSpaceShipById", () -> {
+            throw new ServiceException("SpaceShip not found", 404);
+        }));
+        Assertions.assertThrows(IllegalStateException.class, () -> metricsService.executeWithTracing("getSpaceShipById", () -> {
+            throw new IllegalStateException("database down");
+        }));
+        Assertions.assertThrows(BadCredentialsException.class, () -> metricsService.executeWithTracing("login", () -> {
+            throw new BadCredentialsException("Number of possible attempts reached!");
+        }));
+
+        Assertions.assertEquals(2, timerCount("getSpaceShips", MetricsService.Outcome.SUCCESS));
+        Assertions.assertEquals(1, timerCount("getSpaceShipById", MetricsService.Outcome.CLIENT_ERROR));
+        Assertions.assertEquals(1, timerCount("getSpaceShipById", MetricsService.Outcome.SERVER_ERROR));
+        Assertions.assertEquals(0, timerCount("getSpaceShipById", MetricsService.Outcome.SUCCESS));
+        Assertions.assertEquals(1, timerCount("login", MetricsService.Outcome.CLIENT_ERROR));
+    }
+
+    @Test
+    public void testExecuteWithTracing_SloBucketsPublished() {
+        metricsService.executeWithTracing("getSpaceShips", () -> "ok");
+
+        var timer = meterRegistry.get(MetricsService.OPERATION_TIMER_NAME).tag("operation", "getSpaceShips").timer();
+        Assertions.assertEquals(2, timer.takeSnapshot().histogramCounts().length);
+    }
+
+    private long timerCount(String operation, MetricsService.Outcome outcome) {
+        return meterRegistry.get(MetricsService.OPERATION_TIMER_NAME)
+                .tag("operation", operation)
+                .tag("outcome", outcome.name())
+                .timer()
+                .count();
+    }
+}
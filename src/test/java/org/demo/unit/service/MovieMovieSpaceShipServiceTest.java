@@ -1,32 +1,48 @@
 package org.demo.unit.service;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.demo.dto.MovieSpaceShipsDto;
 import org.demo.exception.ServiceException;
 import org.demo.persistance.entities.MovieSpaceShip;
 import org.demo.persistance.repository.MovieSpaceShipRepository;
 import org.demo.service.MovieSpaceShipService;
+import org.demo.service.cache.SpaceShipCacheService;
+import org.demo.service.counter.SpaceShipCounterService;
 import org.demo.service.mapper.SpaceShipMapper;
-import org.demo.service.rabbitmq.RabbitMQSenderService;
+import org.demo.service.outbox.AuditOutboxService;
+import org.demo.service.search.SpaceShipSearchIndexService;
+import org.demo.service.telemetry.MetricsService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.demo.dto.AuditEventDto;
 import java.time.LocalDateTime;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -39,20 +55,49 @@ public class MovieMovieSpaceShipServiceTest {
     private MovieSpaceShipRepository movieSpaceShipRepository;
 
     @Mock
-    private RabbitMQSenderService rabbitMQSenderService;
+    private AuditOutboxService auditOutboxService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private MetricsService metricsService;
+
+    @Mock
+    private SpaceShipCounterService spaceShipCounterService;
+
+    @Mock
+    private SpaceShipSearchIndexService spaceShipSearchIndexService;
+
+    @Spy
+    private SpaceShipCacheService spaceShipCacheService = new SpaceShipCacheService(
+            Caffeine.newBuilder().build(), Caffeine.newBuilder().build(), Mockito.mock(MetricsService.class));
 
-    @InjectMocks
     private MovieSpaceShipService movieSpaceShipService;
 
+    private static final int MAX_PAGE_SIZE = 100;
     private static final long TEST_ID = 1;
     private static final String TEST_NAME = "Test SpaceShip";
     private static final String TEST_MOVIE = "Test Movie";
     private static final MovieSpaceShip TEST_SPACE_SHIP_DTO = new MovieSpaceShip(TEST_ID, TEST_NAME, TEST_MOVIE);
+    // Lo que devuelven las consultas de proyección de lectura
+    private static final MovieSpaceShipsDto TEST_SPACE_SHIP_PROJECTION = new MovieSpaceShipsDto(TEST_ID, TEST_NAME, TEST_MOVIE, 0L);
 
     @BeforeEach
     public void setup() {
         reset(movieSpaceShipRepository);
-        reset(rabbitMQSenderService);
+        reset(auditOutboxService);
+        spaceShipCacheService.clear();
+        movieSpaceShipService = new MovieSpaceShipService(movieSpaceShipRepository, auditOutboxService, transactionTemplate,
+                metricsService, spaceShipCacheService, spaceShipCounterService, spaceShipSearchIndexService, MAX_PAGE_SIZE);
+        lenient().when(metricsService.executeWithTracing(any(String.class), any(Supplier.class)))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+        lenient().doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(1)).run();
+            return null;
+        }).when(metricsService).executeWithTracing(any(String.class), any(Runnable.class));
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
         // Mockear el usuario autenticado para todos los tests
         SecurityContextHolder.getContext().setAuthentication(
             new UsernamePasswordAuthenticationToken("usuarioTest", null)
@@ -61,13 +106,75 @@ public class MovieMovieSpaceShipServiceTest {
 
     @Test
     public void testGetSpaceShips() {
-        Page<MovieSpaceShip> page = new PageImpl<>(Collections.singletonList(TEST_SPACE_SHIP_DTO));
-        when(movieSpaceShipRepository.findAll(any(Pageable.class))).thenReturn(page);
-        when(movieSpaceShipRepository.count()).thenReturn(1L);
+        Slice<MovieSpaceShipsDto> page = new SliceImpl<>(Collections.singletonList(TEST_SPACE_SHIP_PROJECTION));
+        when(movieSpaceShipRepository.findAllProjectedBy(any(Pageable.class))).thenReturn(page);
+        when(spaceShipCounterService.get()).thenReturn(1L);
         Page<MovieSpaceShipsDto> result = movieSpaceShipService.getSpaceShips(Pageable.unpaged());
         Assertions.assertEquals(1, result.getContent().size());
         Assertions.assertEquals(TEST_NAME, result.getContent().getFirst().getName());
         Assertions.assertEquals(1, result.getTotalElements());
+        verify(movieSpaceShipRepository, times(0)).count();
+    }
+
+    @Test
+    public void testGetSpaceShipsWithoutTotal() {
+        when(movieSpaceShipRepository.findAllProjectedBy(any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Collections.singletonList(TEST_SPACE_SHIP_PROJECTION)));
+        Slice<MovieSpaceShipsDto> result = movieSpaceShipService.getSpaceShipsWithoutTotal(Pageable.unpaged());
+        Assertions.assertEquals(TEST_NAME, result.getContent().getFirst().getName());
+        verify(movieSpaceShipRepository, times(0)).count();
+        verify(spaceShipCounterService, times(0)).get();
+    }
+
+    @Test
+    public void testGetSpaceShipsAfter_ById() {
+        var second = new MovieSpaceShipsDto(2L, "Second", TEST_MOVIE, 0L);
+        when(movieSpaceShipRepository.findProjectedAfterId(eq(0L), eq(2)))
+                .thenReturn(List.of(TEST_SPACE_SHIP_PROJECTION, second));
+
+        var result = movieSpaceShipService.getSpaceShipsAfter(null, "id", 1);
+
+        Assertions.assertEquals(1, result.getContent().size());
+        Assertions.assertTrue(result.isHasNext());
+        verify(movieSpaceShipRepository, times(0)).count();
+
+        when(movieSpaceShipRepository.findProjectedAfterId(eq(TEST_ID), eq(2)))
+                .thenReturn(List.of(second));
+
+        var next = movieSpaceShipService.getSpaceShipsAfter(result.getNextCursor(), "id", 1);
+
+        Assertions.assertEquals("Second", next.getContent().getFirst().getName());
+        Assertions.assertFalse(next.isHasNext());
+        Assertions.assertNull(next.getNextCursor());
+    }
+
+    @Test
+    public void testGetSpaceShipsAfter_ByName() {
+        when(movieSpaceShipRepository.findProjectedFirstOrderedByName(eq(2)))
+                .thenReturn(List.of(TEST_SPACE_SHIP_PROJECTION, new MovieSpaceShipsDto(2L, "Z", TEST_MOVIE, 0L)));
+        var first = movieSpaceShipService.getSpaceShipsAfter("", "name", 1);
+
+        when(movieSpaceShipRepository.findProjectedAfterNameAndId(eq(TEST_NAME), eq(TEST_ID), eq(2)))
+                .thenReturn(Collections.emptyList());
+        var next = movieSpaceShipService.getSpaceShipsAfter(first.getNextCursor(), "name", 1);
+
+        Assertions.assertTrue(next.getContent().isEmpty());
+        Assertions.assertThrows(ServiceException.class, () -> movieSpaceShipService.getSpaceShipsAfter(first.getNextCursor(), "id", 1));
+    }
+
+    @Test
+    public void testGetSpaceShipsAfter_PageSizeOutOfRange() {
+        for (var size : new int[]{0, MAX_PAGE_SIZE + 1, Integer.MAX_VALUE}) {
+            var exception = Assertions.assertThrows(ServiceException.class,
+                    () -> movieSpaceShipService.getSpaceShipsAfter(null, "id", size));
+            Assertions.assertEquals(400, exception.getCode());
+        }
+        verify(movieSpaceShipRepository, times(0)).findProjectedAfterId(anyLong(), anyInt());
+    }
+
+    @Test
+    public void testGetSpaceShipsAfter_InvalidCursor() {
+        Assertions.assertThrows(ServiceException.class, () -> movieSpaceShipService.getSpaceShipsAfter("not a cursor", "id", 10));
     }
 
     @Test
@@ -84,9 +191,61 @@ public class MovieMovieSpaceShipServiceTest {
         Assertions.assertThrows(ServiceException.class, () -> movieSpaceShipService.getSpaceShipById(TEST_ID));
     }
 
+    @Test
+    public void testGetSpaceShipById_Cached() {
+        when(movieSpaceShipRepository.findById(eq(TEST_ID))).thenReturn(Optional.of(TEST_SPACE_SHIP_DTO));
+
+        movieSpaceShipService.getSpaceShipById(TEST_ID);
+        MovieSpaceShipsDto result = movieSpaceShipService.getSpaceShipById(TEST_ID);
+
+        Assertions.assertEquals(TEST_NAME, result.getName());
+        verify(movieSpaceShipRepository, times(1)).findById(eq(TEST_ID));
+    }
+
+    @Test
+    public void testGetSpaceShipById_NotFoundIsCached() {
+        when(movieSpaceShipRepository.findById(eq(TEST_ID))).thenReturn(Optional.empty());
+
+        Assertions.assertThrows(ServiceException.class, () -> movieSpaceShipService.getSpaceShipById(TEST_ID));
+        Assertions.assertThrows(ServiceException.class, () -> movieSpaceShipService.getSpaceShipById(TEST_ID));
+
+        verify(movieSpaceShipRepository, times(1)).findById(eq(TEST_ID));
+    }
+
+    @Test
+    public void testSaveSpaceShip_EvictsCachedMiss() {
+        when(movieSpaceShipRepository.findById(eq(TEST_ID)))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(TEST_SPACE_SHIP_DTO));
+        when(movieSpaceShipRepository.save(any())).thenAnswer(invocation -> {
+            MovieSpaceShip spaceShip = invocation.getArgument(0);
+            spaceShip.setId(TEST_ID);
+            return spaceShip;
+        });
+
+        Assertions.assertThrows(ServiceException.class, () -> movieSpaceShipService.getSpaceShipById(TEST_ID));
+        movieSpaceShipService.saveSpaceShip(SpaceShipMapper.MAPPER.mapToDto(TEST_SPACE_SHIP_DTO));
+
+        Assertions.assertEquals(TEST_NAME, movieSpaceShipService.getSpaceShipById(TEST_ID).getName());
+    }
+
+    @Test
+    public void testGetSpaceShipByName_EvictedOnUpdate() {
+        when(movieSpaceShipRepository.findProjectedByNameContaining(eq("Ship"))).thenReturn(List.of(TEST_SPACE_SHIP_PROJECTION));
+        when(movieSpaceShipRepository.findById(eq(TEST_ID))).thenReturn(Optional.of(TEST_SPACE_SHIP_DTO));
+
+        movieSpaceShipService.getSpaceShipByName("Ship");
+        movieSpaceShipService.getSpaceShipByName("Ship");
+        verify(movieSpaceShipRepository, times(1)).findProjectedByNameContaining(eq("Ship"));
+
+        movieSpaceShipService.updateSpaceShip(SpaceShipMapper.MAPPER.mapToDto(TEST_SPACE_SHIP_DTO));
+        movieSpaceShipService.getSpaceShipByName("Ship");
+        verify(movieSpaceShipRepository, times(2)).findProjectedByNameContaining(eq("Ship"));
+    }
+
     @Test
     public void testGetSpaceShipByName() {
-        when(movieSpaceShipRepository.findByNameContaining(eq(TEST_NAME))).thenReturn(Collections.singleton(TEST_SPACE_SHIP_DTO));
+        when(movieSpaceShipRepository.findProjectedByNameContaining(eq(TEST_NAME))).thenReturn(List.of(TEST_SPACE_SHIP_PROJECTION));
 
         MovieSpaceShipsDto result = movieSpaceShipService.getSpaceShipByName(TEST_NAME).iterator().next();
 
@@ -94,6 +253,19 @@ public class MovieMovieSpaceShipServiceTest {
         Assertions.assertEquals(TEST_NAME, result.getName());
     }
 
+    @Test
+    public void testGetSpaceShipByName_FromIndex() {
+        var other = new MovieSpaceShipsDto(2L, "Test Other", TEST_MOVIE, 0L);
+        when(spaceShipSearchIndexService.candidates(eq("SpaceShip"))).thenReturn(Optional.of(new long[]{TEST_ID, 2L}));
+        when(movieSpaceShipRepository.findProjectedByIdIn(eq(List.of(TEST_ID, 2L)))).thenReturn(List.of(TEST_SPACE_SHIP_PROJECTION, other));
+
+        var result = movieSpaceShipService.getSpaceShipByName("SpaceShip");
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(TEST_NAME, result.iterator().next().getName());
+        verify(movieSpaceShipRepository, times(0)).findProjectedByNameContaining(any());
+    }
+
     @Test
     public void testSaveSpaceShip() {
         // Mock para que el save devuelva la entidad con ID generado
@@ -106,7 +278,9 @@ public class MovieMovieSpaceShipServiceTest {
         movieSpaceShipService.saveSpaceShip((SpaceShipMapper.MAPPER.mapToDto(TEST_SPACE_SHIP_DTO)));
 
         verify(movieSpaceShipRepository, times(1)).save(any());
-        verify(rabbitMQSenderService, times(1)).sendAuditMessage(
+        verify(spaceShipCounterService, times(1)).increment();
+        verify(spaceShipSearchIndexService, times(1)).add(eq(TEST_ID), eq(TEST_NAME));
+        verify(auditOutboxService, times(1)).enqueue(
                 org.mockito.ArgumentMatchers.argThat(auditEvent ->
                         auditEvent.getUser().equals("usuarioTest") &&
                                 auditEvent.getShipId().equals(TEST_ID) &&
@@ -124,7 +298,8 @@ public class MovieMovieSpaceShipServiceTest {
         movieSpaceShipService.deleteSpaceShip(TEST_ID);
 
         verify(movieSpaceShipRepository, times(1)).deleteById(eq(TEST_ID));
-        verify(rabbitMQSenderService, times(1)).sendAuditMessage(
+        verify(spaceShipCounterService, times(1)).decrement();
+        verify(auditOutboxService, times(1)).enqueue(
             org.mockito.ArgumentMatchers.argThat(auditEvent ->
                 auditEvent.getUser().equals("usuarioTest") &&
                 auditEvent.getShipId().equals(TEST_ID) &&
@@ -141,8 +316,9 @@ public class MovieMovieSpaceShipServiceTest {
 
         movieSpaceShipService.updateSpaceShip(SpaceShipMapper.MAPPER.mapToDto(TEST_SPACE_SHIP_DTO));
 
-        verify(movieSpaceShipRepository, times(1)).save(any());
-        verify(rabbitMQSenderService, times(1)).sendAuditMessage(
+        // Se modifica la entidad gestionada; sin save() de una copia desacoplada
+        verify(movieSpaceShipRepository, times(0)).save(any());
+        verify(auditOutboxService, times(1)).enqueue(
                 org.mockito.ArgumentMatchers.argThat(auditEvent ->
                         auditEvent.getUser().equals("usuarioTest") &&
                                 auditEvent.getShipId().equals(TEST_ID) &&
@@ -153,6 +329,44 @@ public class MovieMovieSpaceShipServiceTest {
         );
     }
 
+    @Test
+    public void testUpdateSpaceShip_MatchingVersion() {
+        var existing = new MovieSpaceShip(TEST_ID, "Old", TEST_MOVIE, 3L);
+        when(movieSpaceShipRepository.findById(eq(TEST_ID))).thenReturn(Optional.of(existing));
+
+        var result = movieSpaceShipService.updateSpaceShip(new MovieSpaceShipsDto(TEST_ID, "New", TEST_MOVIE), 3L);
+
+        Assertions.assertEquals("New", existing.getName());
+        Assertions.assertEquals("New", result.getName());
+        verify(spaceShipSearchIndexService, times(1)).update(eq(TEST_ID), eq("Old"), eq("New"));
+    }
+
+    @Test
+    public void testUpdateSpaceShip_StaleVersion() {
+        var existing = new MovieSpaceShip(TEST_ID, "Old", TEST_MOVIE, 4L);
+        when(movieSpaceShipRepository.findById(eq(TEST_ID))).thenReturn(Optional.of(existing));
+
+        var exception = Assertions.assertThrows(ServiceException.class, () ->
+                movieSpaceShipService.updateSpaceShip(new MovieSpaceShipsDto(TEST_ID, "New", TEST_MOVIE), 3L));
+
+        Assertions.assertEquals(412, exception.getCode());
+        Assertions.assertEquals("Old", existing.getName());
+        verify(auditOutboxService, times(0)).enqueue(any());
+    }
+
+    @Test
+    public void testUpdateSpaceShip_ConcurrentCommit() {
+        // El UPDATE ... WHERE version = ? del commit no encuentra la fila: otro editor se adelantó
+        Mockito.doThrow(new ObjectOptimisticLockingFailureException(MovieSpaceShip.class, TEST_ID))
+                .when(transactionTemplate).execute(any());
+
+        var exception = Assertions.assertThrows(ServiceException.class, () ->
+                movieSpaceShipService.updateSpaceShip(new MovieSpaceShipsDto(TEST_ID, "New", TEST_MOVIE)));
+
+        Assertions.assertEquals(412, exception.getCode());
+        verify(spaceShipSearchIndexService, times(0)).update(anyLong(), any(), any());
+    }
+
     @Test
     public void testUpdateSpaceShip_NotFound() {
         when(movieSpaceShipRepository.findById(eq(TEST_ID))).thenReturn(Optional.empty());
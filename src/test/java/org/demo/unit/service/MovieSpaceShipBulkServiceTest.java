@@ -0,0 +1,186 @@
+package org.demo.unit.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.demo.dto.BulkItemResultDto;
+import org.demo.dto.MovieSpaceShipsDto;
+import org.demo.exception.ServiceException;
+import org.demo.persistance.entities.MovieSpaceShip;
+import org.demo.persistance.repository.MovieSpaceShipRepository;
+import org.demo.service.MovieSpaceShipBulkService;
+import org.demo.service.cache.SpaceShipCacheService;
+import org.demo.service.counter.SpaceShipCounterService;
+import org.demo.service.outbox.AuditOutboxService;
+import org.demo.service.search.SpaceShipSearchIndexService;
+import org.demo.service.telemetry.MetricsService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class MovieSpaceShipBulkServiceTest {
+
+    @Mock
+    private MovieSpaceShipRepository movieSpaceShipRepository;
+
+    @Mock
+    private AuditOutboxService auditOutboxService;
+
+    @Mock
+    private MetricsService metricsService;
+
+    @Mock
+    private SpaceShipCounterService spaceShipCounterService;
+
+    @Mock
+    private SpaceShipSearchIndexService spaceShipSearchIndexService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private MovieSpaceShipBulkService movieSpaceShipBulkService;
+
+    @BeforeEach
+    public void setup() {
+        var spaceShipCacheService = new SpaceShipCacheService(
+                Caffeine.newBuilder().build(), Caffeine.newBuilder().build(), Mockito.mock(MetricsService.class));
+        movieSpaceShipBulkService = new MovieSpaceShipBulkService(movieSpaceShipRepository, auditOutboxService,
+                metricsService, spaceShipCacheService, spaceShipCounterService, spaceShipSearchIndexService,
+                transactionTemplate, 2, 10);
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("usuarioTest", null)
+        );
+        lenient().when(metricsService.executeWithTracing(any(String.class), any(Supplier.class)))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    @Test
+    public void testSaveSpaceShips_PartialFailure() {
+        var ids = new long[]{100L};
+        when(movieSpaceShipRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<MovieSpaceShip> entities = invocation.getArgument(0);
+            entities.forEach(entity -> entity.setId(ids[0]++));
+            return entities;
+        });
+
+        var result = movieSpaceShipBulkService.saveSpaceShips(List.of(
+                new MovieSpaceShipsDto(null, "A", "Movie A"),
+                new MovieSpaceShipsDto(null, "", "Movie B"),
+                new MovieSpaceShipsDto(null, "C", "Movie C"),
+                new MovieSpaceShipsDto(null, "D", "Movie D")));
+
+        Assertions.assertEquals(4, result.getRequested());
+        Assertions.assertEquals(3, result.getSucceeded());
+        Assertions.assertEquals(BulkItemResultDto.STATUS_ERROR, result.getItems().get(1).getStatus());
+        Assertions.assertEquals(400, result.getItems().get(1).getCode());
+        Assertions.assertEquals(101L, result.getItems().get(2).getId());
+        // 3 válidos con batch-size 2 -> 2 transacciones, cada una con sus eventos en el outbox
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(spaceShipCounterService, times(1)).add(eq(3L));
+        verify(auditOutboxService, times(1)).enqueueAll(argThat(events -> events.size() == 2));
+        verify(auditOutboxService, times(1)).enqueueAll(argThat(events -> events.size() == 1
+                && events.getFirst().getOperation().equals("CREATE")));
+    }
+
+    @Test
+    public void testSaveSpaceShips_FailedChunk() {
+        when(movieSpaceShipRepository.saveAll(anyList()))
+                .thenThrow(new IllegalStateException("constraint violation"))
+                .thenAnswer(invocation -> {
+                    List<MovieSpaceShip> entities = invocation.getArgument(0);
+                    entities.forEach(entity -> entity.setId(7L));
+                    return entities;
+                });
+
+        var result = movieSpaceShipBulkService.saveSpaceShips(List.of(
+                new MovieSpaceShipsDto(null, "A", "Movie A"),
+                new MovieSpaceShipsDto(null, "B", "Movie B"),
+                new MovieSpaceShipsDto(null, "C", "Movie C")));
+
+        Assertions.assertEquals(1, result.getSucceeded());
+        Assertions.assertEquals(500, result.getItems().getFirst().getCode());
+        // El detalle del error solo va al log
+        Assertions.assertEquals("Batch failed", result.getItems().getFirst().getMessage());
+        Assertions.assertEquals(BulkItemResultDto.STATUS_OK, result.getItems().get(2).getStatus());
+    }
+
+    @Test
+    public void testUpdateSpaceShips_NotFound() {
+        when(movieSpaceShipRepository.findAllById(anyList()))
+                .thenReturn(new ArrayList<>(List.of(new MovieSpaceShip(1L, "Old", "Movie"))));
+
+        var result = movieSpaceShipBulkService.updateSpaceShips(List.of(
+                new MovieSpaceShipsDto(1L, "New", "Movie"),
+                new MovieSpaceShipsDto(2L, "Other", "Movie")));
+
+        Assertions.assertEquals(1, result.getSucceeded());
+        Assertions.assertEquals(404, result.getItems().get(1).getCode());
+        verify(spaceShipSearchIndexService, times(1)).update(eq(1L), eq("Old"), eq("New"));
+    }
+
+    @Test
+    public void testUpdateSpaceShips_VersionMismatch() {
+        var first = new MovieSpaceShip(1L, "Old", "Movie");
+        first.setVersion(3L);
+        var second = new MovieSpaceShip(2L, "Other", "Movie");
+        second.setVersion(5L);
+        when(movieSpaceShipRepository.findAllById(anyList())).thenReturn(new ArrayList<>(List.of(first, second)));
+
+        var result = movieSpaceShipBulkService.updateSpaceShips(List.of(
+                new MovieSpaceShipsDto(1L, "New", "Movie", 3L),
+                new MovieSpaceShipsDto(2L, "Stale", "Movie", 4L)));
+
+        Assertions.assertEquals(1, result.getSucceeded());
+        Assertions.assertEquals(412, result.getItems().get(1).getCode());
+        Assertions.assertEquals("Other", second.getName());
+        verify(spaceShipSearchIndexService, never()).update(eq(2L), any(), any());
+        verify(auditOutboxService, times(1)).enqueueAll(argThat(events -> events.size() == 1));
+    }
+
+    @Test
+    public void testDeleteSpaceShips() {
+        when(movieSpaceShipRepository.findAllById(anyList()))
+                .thenReturn(new ArrayList<>(List.of(new MovieSpaceShip(1L, "Old", "Movie"))));
+
+        var result = movieSpaceShipBulkService.deleteSpaceShips(List.of(new MovieSpaceShipsDto(1L, null, null)));
+
+        Assertions.assertEquals(1, result.getSucceeded());
+        verify(movieSpaceShipRepository, times(1)).deleteAll(anyList());
+        verify(spaceShipCounterService, times(1)).add(eq(-1L));
+    }
+
+    @Test
+    public void testBulk_TooManyItems() {
+        var spaceShips = new ArrayList<MovieSpaceShipsDto>();
+        for (int i = 0; i < 11; i++) {
+            spaceShips.add(new MovieSpaceShipsDto(null, "Ship " + i, "Movie"));
+        }
+
+        Assertions.assertThrows(ServiceException.class, () -> movieSpaceShipBulkService.saveSpaceShips(spaceShips));
+        verify(transactionTemplate, never()).execute(any());
+    }
+}
@@ -0,0 +1,123 @@
+package org.demo.unit.service;
+
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.demo.exception.ServiceException;
+import org.demo.service.security.PasswordVerificationService;
+import org.demo.service.telemetry.MetricsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class PasswordVerificationServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch interrupted = new CountDownLatch(1);
+    private PasswordVerificationService passwordVerificationService;
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        passwordVerificationService.shutdown();
+    }
+
+    @Test
+    public void testMatches_RunsOnHashingPool() throws Exception {
+        passwordVerificationService = service(new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return Thread.currentThread().getName().startsWith("password-hashing-") && rawPassword.toString().equals(encodedPassword);
+            }
+        }, Duration.ofSeconds(5));
+
+        Assertions.assertTrue(passwordVerificationService.matches("secret", "secret"));
+        Assertions.assertFalse(passwordVerificationService.matches("secret", "other"));
+        // El pool cuenta la tarea como completada después de entregar el resultado
+        var completed = meterRegistry.get("executor.completed").tag("name", PasswordVerificationService.EXECUTOR_NAME).functionCounter();
+        for (int i = 0; i < 100 && completed.count() < 2; i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(2, completed.count());
+    }
+
+    @Test
+    public void testMatches_SaturatedPoolFailsFastWith429() throws Exception {
+        passwordVerificationService = service(blockingEncoder(), Duration.ofSeconds(5));
+
+        // Un hilo ocupado y un hueco en la cola: la tercera comprobación se rechaza sin esperar
+        var running = CompletableFuture.runAsync(() -> passwordVerificationService.matches("a", "a"));
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        var queued = CompletableFuture.runAsync(() -> passwordVerificationService.matches("b", "b"));
+        awaitQueued();
+
+        var exception = Assertions.assertThrows(ServiceException.class, () -> passwordVerificationService.matches("c", "c"));
+        Assertions.assertEquals(429, exception.getCode());
+        Assertions.assertEquals(1, meterRegistry.get("password.hashing.rejected").tag("reason", "saturated").counter().count());
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testMatches_SlowVerificationTimesOutWith503() throws Exception {
+        passwordVerificationService = service(blockingEncoder(), Duration.ofMillis(50));
+
+        var exception = Assertions.assertThrows(ServiceException.class, () -> passwordVerificationService.matches("a", "a"));
+        Assertions.assertEquals(503, exception.getCode());
+        Assertions.assertEquals(1, meterRegistry.get("password.hashing.rejected").tag("reason", "timeout").counter().count());
+
+        // La comprobación abandonada se cancela e interrumpe el hilo del pool en vez de seguir ocupándolo
+        Assertions.assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    private PasswordVerificationService service(PasswordEncoder passwordEncoder, Duration timeout) {
+        var metricsService = new MetricsService(meterRegistry, Tracer.NOOP, List.of());
+        return new PasswordVerificationService(passwordEncoder, metricsService, ContextSnapshotFactory.builder().build(),
+                1, 1, timeout);
+    }
+
+    private PasswordEncoder blockingEncoder() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                started.countDown();
+                try {
+                    return release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        };
+    }
+
+    private void awaitQueued() throws InterruptedException {
+        var queued = meterRegistry.get("executor.queued").tag("name", PasswordVerificationService.EXECUTOR_NAME).gauge();
+        for (int i = 0; i < 500 && queued.value() < 1; i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(1, queued.value());
+    }
+}
@@ -0,0 +1,193 @@
+package org.demo.unit.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.demo.dto.AuditEventDto;
+import org.demo.persistance.entities.AuditEvent;
+import org.demo.persistance.repository.AuditEventRepository;
+import org.demo.service.rabbitmq.RabbitMQReceiverService;
+import org.demo.service.telemetry.MetricsService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.demo.utils.Constants.AUDIT_DEAD_LETTER_QUEUE;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class RabbitMQReceiverServiceTest {
+
+    @Mock
+    private AuditEventRepository auditEventRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    private final Jackson2JsonMessageConverter messageConverter = new Jackson2JsonMessageConverter();
+    private SimpleMeterRegistry meterRegistry;
+    private RabbitMQReceiverService receiverService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        var metricsService = new MetricsService(meterRegistry, Tracer.NOOP, List.of());
+        receiverService = new RabbitMQReceiverService(auditEventRepository, messageConverter, transactionTemplate,
+                rabbitTemplate, metricsService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void storesWholeBatchInOneTransaction() {
+        runTransactionCallbacks();
+
+        receiverService.onMessageBatch(List.of(message("CREATE", 1L), message("UPDATE", 2L), message("DELETE", 3L)));
+
+        ArgumentCaptor<List<AuditEvent>> saved = ArgumentCaptor.forClass(List.class);
+        verify(auditEventRepository).saveAll(saved.capture());
+        Assertions.assertEquals(List.of("CREATE", "UPDATE", "DELETE"),
+                saved.getValue().stream().map(AuditEvent::getOperation).toList());
+        Assertions.assertTrue(saved.getValue().stream().allMatch(event -> event.getReceivedAt() != null));
+        Assertions.assertEquals(3, meterRegistry.get("audit.messages.consumed").counter().count());
+        Assertions.assertEquals(1, meterRegistry.get("audit.consumer.batch.size").summary().count());
+        Assertions.assertEquals(3, meterRegistry.get("audit.consumer.batch.size").summary().totalAmount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void discardsUnreadableMessagesAndKeepsTheRest() {
+        runTransactionCallbacks();
+        var malformed = new Message("not json".getBytes(StandardCharsets.UTF_8), jsonProperties());
+        var withoutOperation = messageConverter.toMessage(AuditEventDto.builder().timestamp(1L).build(), new MessageProperties());
+
+        receiverService.onMessageBatch(List.of(malformed, message("CREATE", 1L), withoutOperation));
+
+        ArgumentCaptor<List<AuditEvent>> saved = ArgumentCaptor.forClass(List.class);
+        verify(auditEventRepository).saveAll(saved.capture());
+        Assertions.assertEquals(1, saved.getValue().size());
+        Assertions.assertEquals(2, meterRegistry.get("audit.messages.rejected").counter().count());
+        Assertions.assertEquals(1, meterRegistry.get("audit.messages.consumed").counter().count());
+    }
+
+    @Test
+    void batchWithoutValidEventsSkipsTheTransaction() {
+        var malformed = new Message("not json".getBytes(StandardCharsets.UTF_8), jsonProperties());
+
+        receiverService.onMessageBatch(List.of(malformed));
+
+        verify(transactionTemplate, never()).execute(any());
+        verify(auditEventRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void failedCommitPropagatesSoTheBatchIsRequeued() {
+        runTransactionCallbacks();
+        when(auditEventRepository.saveAll(anyList())).thenThrow(new DataAccessResourceFailureException("db down"));
+
+        Assertions.assertThrows(DataAccessResourceFailureException.class,
+                () -> receiverService.onMessageBatch(List.of(message("CREATE", 1L))));
+        Assertions.assertEquals(0, meterRegistry.get("audit.messages.consumed").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void redeliveredEventsAreDroppedByEventId() {
+        runTransactionCallbacks();
+        when(auditEventRepository.findStoredEventIds(List.of(10L, 11L, 11L))).thenReturn(List.of(10L));
+
+        receiverService.onMessageBatch(List.of(message("CREATE", 1L, 10L), message("UPDATE", 1L, 11L),
+                message("UPDATE", 1L, 11L), message("DELETE", 2L)));
+
+        ArgumentCaptor<List<AuditEvent>> saved = ArgumentCaptor.forClass(List.class);
+        verify(auditEventRepository).saveAll(saved.capture());
+        Assertions.assertEquals(List.of("UPDATE", "DELETE"), saved.getValue().stream().map(AuditEvent::getOperation).toList());
+        Assertions.assertEquals(11L, saved.getValue().getFirst().getEventId());
+        Assertions.assertEquals(2, meterRegistry.get("audit.messages.duplicate").counter().count());
+        Assertions.assertEquals(2, meterRegistry.get("audit.messages.consumed").counter().count());
+    }
+
+    @Test
+    void constraintViolationStoresRowByRowAndDeadLettersOnlyTheOffendingMessage() {
+        runTransactionCallbacks();
+        when(auditEventRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("value too long"));
+        when(auditEventRepository.save(any())).thenAnswer(invocation -> {
+            AuditEvent event = invocation.getArgument(0);
+            if (event.getShipId() == 2L || event.getShipId() == 3L) {
+                throw new DataIntegrityViolationException(event.getShipId() == 2L ? "value too long" : "duplicate event_id");
+            }
+            return event;
+        });
+        // El 3 lo ha guardado otro consumidor entre la comprobación y el insert
+        when(auditEventRepository.existsByEventId(12L)).thenReturn(false);
+        when(auditEventRepository.existsByEventId(13L)).thenReturn(true);
+        var offending = message("UPDATE", 2L, 12L);
+
+        receiverService.onMessageBatch(List.of(message("CREATE", 1L, 11L), offending, message("DELETE", 3L, 13L)));
+
+        verify(auditEventRepository, times(3)).save(any());
+        verify(rabbitTemplate).send(AUDIT_DEAD_LETTER_QUEUE, offending);
+        Assertions.assertEquals("value too long", offending.getMessageProperties().getHeader("x-exception-message"));
+        Assertions.assertEquals(1, meterRegistry.get("audit.messages.consumed").counter().count());
+        Assertions.assertEquals(1, meterRegistry.get("audit.messages.rejected").counter().count());
+        Assertions.assertEquals(1, meterRegistry.get("audit.messages.duplicate").counter().count());
+    }
+
+    private void runTransactionCallbacks() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private Message message(String operation, Long shipId) {
+        return message(operation, shipId, null);
+    }
+
+    private Message message(String operation, Long shipId, Long eventId) {
+        var event = AuditEventDto.builder()
+                .eventId(eventId)
+                .operation(operation)
+                .shipId(shipId)
+                .shipName("Ship " + shipId)
+                .user("test@test.com")
+                .timestamp(LocalDateTime.now().toEpochSecond(ZoneOffset.UTC))
+                .build();
+        return messageConverter.toMessage(event, new MessageProperties());
+    }
+
+    private static MessageProperties jsonProperties() {
+        var properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        return properties;
+    }
+}
@@ -0,0 +1,144 @@
+package org.demo.unit.service;
+
+import org.demo.dto.AuditEventDto;
+import org.demo.dto.MovieSpaceShipsDto;
+import org.demo.exception.ServiceException;
+import org.demo.reactive.persistance.ReactiveAuditOutboxRepository;
+import org.demo.reactive.persistance.ReactiveSpaceShipRepository;
+import org.demo.reactive.service.ReactiveSpaceShipService;
+import org.demo.service.telemetry.MetricsService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveSpaceShipServiceTest {
+
+    @Mock
+    private ReactiveSpaceShipRepository spaceShipRepository;
+
+    @Mock
+    private ReactiveAuditOutboxRepository auditOutboxRepository;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private MetricsService metricsService;
+
+    private ReactiveSpaceShipService spaceShipService;
+
+    private static final long TEST_ID = 1;
+    private static final MovieSpaceShipsDto TEST_SPACE_SHIP = new MovieSpaceShipsDto(TEST_ID, "Test SpaceShip", "Test Movie", 3L);
+
+    @BeforeEach
+    public void setup() {
+        lenient().when(transactionalOperator.transactional(any(Mono.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(auditOutboxRepository.insert(any())).thenReturn(Mono.empty());
+        spaceShipService = new ReactiveSpaceShipService(spaceShipRepository, auditOutboxRepository,
+                transactionalOperator, metricsService, 100);
+    }
+
+    @Test
+    public void testGetSpaceShipsZipsPageAndTotal() {
+        when(spaceShipRepository.findPage(20, 10)).thenReturn(Flux.just(TEST_SPACE_SHIP));
+        when(spaceShipRepository.count()).thenReturn(Mono.just(21L));
+
+        var page = spaceShipService.getSpaceShips(PageRequest.of(2, 10)).block();
+
+        Assertions.assertNotNull(page);
+        Assertions.assertEquals(List.of(TEST_SPACE_SHIP), page.getContent());
+        Assertions.assertEquals(21, page.getTotalElements());
+    }
+
+    @Test
+    public void testGetSpaceShipsWithoutTotalFetchesOneExtraRow() {
+        when(spaceShipRepository.findPage(0, 2)).thenReturn(Flux.just(TEST_SPACE_SHIP, TEST_SPACE_SHIP));
+
+        var slice = spaceShipService.getSpaceShipsWithoutTotal(PageRequest.of(0, 1)).block();
+
+        Assertions.assertNotNull(slice);
+        Assertions.assertEquals(1, slice.getContent().size());
+        Assertions.assertTrue(slice.hasNext());
+        verify(spaceShipRepository, never()).count();
+    }
+
+    @Test
+    public void testGetSpaceShipsAfterRejectsPageSizeAboveMax() {
+        var exception = Assertions.assertThrows(ServiceException.class,
+                () -> spaceShipService.getSpaceShipsAfter(null, "id", Integer.MAX_VALUE).block());
+        Assertions.assertEquals(400, exception.getCode());
+        verify(spaceShipRepository, never()).findAfterId(anyLong(), anyInt());
+    }
+
+    @Test
+    public void testGetSpaceShipByIdNotFound() {
+        when(spaceShipRepository.findById(TEST_ID)).thenReturn(Mono.empty());
+
+        var exception = Assertions.assertThrows(ServiceException.class,
+                () -> spaceShipService.getSpaceShipById(TEST_ID).block());
+        Assertions.assertEquals(404, exception.getCode());
+    }
+
+    @Test
+    public void testUpdateSpaceShipWritesOutboxEventWithContextUser() {
+        when(spaceShipRepository.findById(TEST_ID)).thenReturn(Mono.just(TEST_SPACE_SHIP));
+        when(spaceShipRepository.update(TEST_ID, "Renamed", "Test Movie", 3L)).thenReturn(Mono.just(1L));
+
+        var updated = spaceShipService.updateSpaceShip(new MovieSpaceShipsDto(TEST_ID, "Renamed", "Test Movie", null), 3L)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(
+                        new UsernamePasswordAuthenticationToken("usuarioTest", null, List.of())))
+                .block();
+
+        Assertions.assertNotNull(updated);
+        Assertions.assertEquals(4L, updated.getVersion());
+        var event = ArgumentCaptor.forClass(AuditEventDto.class);
+        verify(auditOutboxRepository).insert(event.capture());
+        Assertions.assertEquals("UPDATE", event.getValue().getOperation());
+        Assertions.assertEquals("usuarioTest", event.getValue().getUser());
+        verify(metricsService).incrementSpaceShipUpdated();
+    }
+
+    @Test
+    public void testUpdateSpaceShipWithStaleVersion() {
+        when(spaceShipRepository.findById(TEST_ID)).thenReturn(Mono.just(TEST_SPACE_SHIP));
+
+        var exception = Assertions.assertThrows(ServiceException.class,
+                () -> spaceShipService.updateSpaceShip(TEST_SPACE_SHIP, 2L)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(
+                                new UsernamePasswordAuthenticationToken("usuarioTest", null, List.of())))
+                        .block());
+        Assertions.assertEquals(412, exception.getCode());
+        verify(spaceShipRepository, never()).update(anyLong(), any(), any(), anyLong());
+        verify(auditOutboxRepository, never()).insert(any());
+    }
+
+    @Test
+    public void testSaveSpaceShipWithoutAuthenticatedUser() {
+        var exception = Assertions.assertThrows(ServiceException.class,
+                () -> spaceShipService.saveSpaceShip(TEST_SPACE_SHIP).block());
+        Assertions.assertEquals(403, exception.getCode());
+        verify(spaceShipRepository, never()).insert(any(), any());
+    }
+}
@@ -0,0 +1,212 @@
+package org.demo.unit.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.demo.service.cache.SpaceShipCacheService;
+import org.demo.service.datasource.DataSourceRoute;
+import org.demo.service.datasource.ReadWriteRoutingService;
+import org.demo.service.telemetry.MetricsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReadWriteRoutingServiceTest {
+
+    private static final String LAG_QUERY = "SELECT lag FROM replica_status";
+
+    @Mock
+    private JdbcTemplate replicaJdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MetricsService metricsService;
+    private MutableClock clock;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metricsService = new MetricsService(meterRegistry, Tracer.NOOP, List.of());
+        clock = new MutableClock();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("test@test.com", null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplicaAndEverythingElseToThePrimary() {
+        var routing = routing("");
+
+        Assertions.assertEquals(DataSourceRoute.PRIMARY, routing.route());
+        Assertions.assertEquals(DataSourceRoute.PRIMARY, routeIn(routing, false));
+        Assertions.assertEquals(DataSourceRoute.REPLICA, routeIn(routing, true));
+        Assertions.assertEquals(1, routeCount("primary", "no-transaction"));
+        Assertions.assertEquals(1, routeCount("replica", "read-only"));
+    }
+
+    @Test
+    void committedWritesPinTheUserToThePrimaryDuringTheWindow() {
+        var routing = routing("");
+
+        routeAndCommit(routing);
+
+        Assertions.assertEquals(DataSourceRoute.PRIMARY, routeIn(routing, true));
+        Assertions.assertEquals(1, routeCount("primary", "read-your-writes"));
+
+        // Otro usuario sigue leyendo de la réplica
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("other@test.com", null, List.of()));
+        Assertions.assertEquals(DataSourceRoute.REPLICA, routeIn(routing, true));
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("test@test.com", null, List.of()));
+        clock.advance(Duration.ofSeconds(6));
+        Assertions.assertEquals(DataSourceRoute.REPLICA, routeIn(routing, true));
+    }
+
+    @Test
+    void rolledBackWritesDoNotPinTheUser() {
+        var routing = routing("");
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        Assertions.assertEquals(DataSourceRoute.PRIMARY, routing.route());
+        TransactionSynchronizationManager.clearSynchronization();
+
+        Assertions.assertEquals(DataSourceRoute.REPLICA, routeIn(routing, true));
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhileTheReplicaLagIsUnknownOrTooHigh() {
+        var routing = routing(LAG_QUERY);
+        Assertions.assertEquals(ReadWriteRoutingService.LAG_UNKNOWN, routing.getReplicaLagMillis());
+        Assertions.assertEquals(DataSourceRoute.PRIMARY, routeIn(routing, true));
+
+        when(replicaJdbcTemplate.queryForObject(LAG_QUERY, Double.class)).thenReturn(0.5);
+        routing.checkReplicaLag();
+        Assertions.assertEquals(500, routing.getReplicaLagMillis());
+        Assertions.assertEquals(DataSourceRoute.REPLICA, routeIn(routing, true));
+
+        when(replicaJdbcTemplate.queryForObject(LAG_QUERY, Double.class)).thenReturn(3.0);
+        routing.checkReplicaLag();
+        Assertions.assertEquals(DataSourceRoute.PRIMARY, routeIn(routing, true));
+
+        when(replicaJdbcTemplate.queryForObject(LAG_QUERY, Double.class)).thenReturn(null);
+        routing.checkReplicaLag();
+        Assertions.assertEquals(ReadWriteRoutingService.LAG_UNKNOWN, routing.getReplicaLagMillis());
+
+        when(replicaJdbcTemplate.queryForObject(LAG_QUERY, Double.class))
+                .thenThrow(new DataAccessResourceFailureException("replica down"));
+        routing.checkReplicaLag();
+        Assertions.assertEquals(ReadWriteRoutingService.LAG_UNKNOWN, routing.getReplicaLagMillis());
+        Assertions.assertEquals(DataSourceRoute.PRIMARY, routeIn(routing, true));
+        Assertions.assertEquals(3, routeCount("primary", "replica-lag"));
+        Assertions.assertEquals(-1, meterRegistry.get("db.replica.lag.millis").gauge().value());
+    }
+
+    @Test
+    void cacheMissesAreLoadedFromThePrimary() {
+        var routing = routing("");
+        var cache = new SpaceShipCacheService(Caffeine.newBuilder().build(), Caffeine.newBuilder().build(), metricsService);
+        var routes = new ArrayList<DataSourceRoute>();
+
+        cache.getById(1L, id -> {
+            routes.add(routeIn(routing, true));
+            return Optional.empty();
+        });
+        cache.search("falcon", term -> {
+            routes.add(routeIn(routing, true));
+            return Set.of();
+        });
+
+        Assertions.assertEquals(List.of(DataSourceRoute.PRIMARY, DataSourceRoute.PRIMARY), routes);
+        Assertions.assertEquals(2, routeCount("primary", "cache-load"));
+        // Fuera de la carga de la caché se vuelve a la réplica
+        Assertions.assertEquals(DataSourceRoute.REPLICA, routeIn(routing, true));
+    }
+
+    private ReadWriteRoutingService routing(String lagQuery) {
+        return new ReadWriteRoutingService(replicaJdbcTemplate, metricsService, clock, lagQuery,
+                Duration.ofSeconds(2), Duration.ofSeconds(5), 100);
+    }
+
+    private static DataSourceRoute routeIn(ReadWriteRoutingService routing, boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        try {
+            return routing.route();
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    private static void routeAndCommit(ReadWriteRoutingService routing) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            Assertions.assertEquals(DataSourceRoute.PRIMARY, routing.route());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+    private double routeCount(String route, String reason) {
+        return meterRegistry.get("db.datasource.route").tags("route", route, "reason", reason).counter().count();
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now = Instant.EPOCH;
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.demo.unit.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.demo.dto.MovieSpaceShipsDto;
+import org.demo.service.cache.SpaceShipCacheService;
+import org.demo.service.telemetry.MetricsService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SpaceShipCacheServiceTest {
+
+    private static final MovieSpaceShipsDto OLD = new MovieSpaceShipsDto(1L, "Wing", "Star Wars", 0L);
+    private static final MovieSpaceShipsDto NEW = new MovieSpaceShipsDto(1L, "X-Wing", "Star Wars", 1L);
+
+    private SpaceShipCacheService spaceShipCacheService;
+
+    @BeforeEach
+    public void setup() {
+        spaceShipCacheService = new SpaceShipCacheService(Caffeine.newBuilder().build(), Caffeine.newBuilder().build(),
+                Mockito.mock(MetricsService.class));
+    }
+
+    @Test
+    public void testSearchLoadOverlappingEvictIsNotCached() throws Exception {
+        var loading = new CountDownLatch(1);
+        var evicted = new CountDownLatch(1);
+        // La carga lee la tabla antes del commit y guarda su resultado después de la invalidación
+        var staleLoad = CompletableFuture.supplyAsync(() -> spaceShipCacheService.search("Wing", term -> {
+            loading.countDown();
+            await(evicted);
+            return Set.of(OLD);
+        }));
+        Assertions.assertTrue(loading.await(5, TimeUnit.SECONDS));
+        spaceShipCacheService.evict(1L, "Wing", "X-Wing");
+        evicted.countDown();
+
+        Assertions.assertEquals(Set.of(OLD), staleLoad.get(5, TimeUnit.SECONDS));
+        var loads = new AtomicInteger();
+        var result = spaceShipCacheService.search("Wing", term -> {
+            loads.incrementAndGet();
+            return Set.of(NEW);
+        });
+        Assertions.assertEquals(Set.of(NEW), result);
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testNormalizeTermKeepsSpaces() {
+        Assertions.assertEquals(" Wing", SpaceShipCacheService.normalizeTerm(" Wing"));
+        Assertions.assertEquals("", SpaceShipCacheService.normalizeTerm(null));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
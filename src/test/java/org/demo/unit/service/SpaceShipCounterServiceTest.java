@@ -0,0 +1,61 @@
+package org.demo.unit.service;
+
+import org.demo.persistance.repository.MovieSpaceShipRepository;
+import org.demo.service.counter.SpaceShipCounterService;
+import org.demo.service.telemetry.MetricsService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class SpaceShipCounterServiceTest {
+
+    @Mock
+    private MovieSpaceShipRepository movieSpaceShipRepository;
+
+    @Mock
+    private MetricsService metricsService;
+
+    private SpaceShipCounterService spaceShipCounterService;
+
+    @BeforeEach
+    public void setup() {
+        spaceShipCounterService = new SpaceShipCounterService(movieSpaceShipRepository, metricsService);
+    }
+
+    @Test
+    public void testReconcileReplacesDrift() {
+        when(movieSpaceShipRepository.count()).thenReturn(10L, 7L);
+
+        Assertions.assertEquals(10, spaceShipCounterService.get());
+        spaceShipCounterService.increment();
+        spaceShipCounterService.reconcile();
+
+        Assertions.assertEquals(7, spaceShipCounterService.get());
+    }
+
+    @Test
+    public void testReconcileAppliesOnlyDeltasAfterCount() {
+        when(movieSpaceShipRepository.count()).thenReturn(10L);
+        spaceShipCounterService.reconcile();
+
+        // Dos altas y una baja que ya han hecho commit cuando el count(*) las ve
+        when(movieSpaceShipRepository.count()).thenAnswer(invocation -> {
+            spaceShipCounterService.increment();
+            spaceShipCounterService.increment();
+            spaceShipCounterService.decrement();
+            return 11L;
+        });
+        spaceShipCounterService.reconcile();
+        Assertions.assertEquals(11, spaceShipCounterService.get());
+
+        // Lo que llega después de leer el count(*) sí se suma
+        spaceShipCounterService.increment();
+        Assertions.assertEquals(12, spaceShipCounterService.get());
+    }
+}
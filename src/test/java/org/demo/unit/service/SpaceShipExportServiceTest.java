@@ -0,0 +1,101 @@
+package org.demo.unit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.demo.exception.ServiceException;
+import org.demo.persistance.entities.MovieSpaceShip;
+import org.demo.persistance.repository.MovieSpaceShipRepository;
+import org.demo.service.export.ExportFormat;
+import org.demo.service.export.SpaceShipExportService;
+import org.demo.service.telemetry.MetricsService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class SpaceShipExportServiceTest {
+
+    @Mock
+    private MovieSpaceShipRepository movieSpaceShipRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private MetricsService metricsService;
+
+    private SpaceShipExportService spaceShipExportService;
+
+    @BeforeEach
+    public void setup() {
+        spaceShipExportService = new SpaceShipExportService(movieSpaceShipRepository, entityManager,
+                new ObjectMapper(), metricsService, 2);
+        lenient().when(metricsService.executeWithTracing(any(String.class), any(Supplier.class)))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+    }
+
+    @Test
+    public void testExport_Ndjson() {
+        when(movieSpaceShipRepository.streamAllOrderedById()).thenReturn(ships(5));
+        var out = new ByteArrayOutputStream();
+
+        var exported = spaceShipExportService.export(ExportFormat.NDJSON, out);
+
+        var lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        Assertions.assertEquals(5, exported);
+        Assertions.assertEquals(6, lines.length);
+        Assertions.assertEquals("{\"id\":1,\"name\":\"Ship 1\",\"movie\":\"Movie 1\"}", lines[0]);
+        Assertions.assertEquals("", lines[5]);
+        // Se vacía el contexto de persistencia cada 2 filas
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    public void testExport_CsvEscapesFields() {
+        when(movieSpaceShipRepository.streamAllOrderedById()).thenReturn(Stream.of(
+                new MovieSpaceShip(1L, "X-Wing", "Star Wars"),
+                new MovieSpaceShip(2L, "Ship, \"The\" One", "Line\nBreak")));
+        var out = new ByteArrayOutputStream();
+
+        spaceShipExportService.export(ExportFormat.CSV, out);
+
+        Assertions.assertEquals("id,name,movie\n"
+                        + "1,X-Wing,Star Wars\n"
+                        + "2,\"Ship, \"\"The\"\" One\",\"Line\nBreak\"\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testExport_EmptyCatalogue() {
+        when(movieSpaceShipRepository.streamAllOrderedById()).thenReturn(Stream.empty());
+        var out = new ByteArrayOutputStream();
+
+        Assertions.assertEquals(0, spaceShipExportService.export(ExportFormat.NDJSON, out));
+        Assertions.assertEquals(0, out.size());
+    }
+
+    @Test
+    public void testExportFormat_Unsupported() {
+        Assertions.assertEquals(ExportFormat.CSV, ExportFormat.from("CSV"));
+        Assertions.assertThrows(ServiceException.class, () -> ExportFormat.from("xml"));
+    }
+
+    private static Stream<MovieSpaceShip> ships(int count) {
+        return LongStream.rangeClosed(1, count).mapToObj(id -> new MovieSpaceShip(id, "Ship " + id, "Movie " + id));
+    }
+}
@@ -0,0 +1,206 @@
+package org.demo.unit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.demo.dto.AuditEventDto;
+import org.demo.persistance.entities.MovieSpaceShip;
+import org.demo.persistance.repository.MovieSpaceShipRepository;
+import org.demo.service.cache.SpaceShipCacheService;
+import org.demo.service.counter.SpaceShipCounterService;
+import org.demo.service.export.ExportFormat;
+import org.demo.service.importer.SpaceShipImportService;
+import org.demo.service.outbox.AuditOutboxService;
+import org.demo.service.search.SpaceShipSearchIndexService;
+import org.demo.service.telemetry.MetricsService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class SpaceShipImportServiceTest {
+
+    @Mock
+    private MovieSpaceShipRepository movieSpaceShipRepository;
+
+    @Mock
+    private AuditOutboxService auditOutboxService;
+
+    @Mock
+    private MetricsService metricsService;
+
+    @Mock
+    private SpaceShipCounterService spaceShipCounterService;
+
+    @Mock
+    private SpaceShipSearchIndexService spaceShipSearchIndexService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private SpaceShipImportService spaceShipImportService;
+
+    private final List<Integer> savedBatchSizes = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        var spaceShipCacheService = new SpaceShipCacheService(
+                Caffeine.newBuilder().build(), Caffeine.newBuilder().build(), Mockito.mock(MetricsService.class));
+        spaceShipImportService = new SpaceShipImportService(movieSpaceShipRepository, auditOutboxService,
+                metricsService, spaceShipCacheService, spaceShipCounterService, spaceShipSearchIndexService,
+                transactionTemplate, new ObjectMapper(), 2, 10);
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("usuarioTest", null)
+        );
+        lenient().when(metricsService.executeWithTracing(any(String.class), any(Supplier.class)))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        var ids = new long[]{100L};
+        lenient().when(movieSpaceShipRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<MovieSpaceShip> entities = invocation.getArgument(0);
+            savedBatchSizes.add(entities.size());
+            entities.forEach(entity -> entity.setId(ids[0]++));
+            return entities;
+        });
+    }
+
+    @Test
+    public void testImportNdjson_BatchesWithSummaryEvent() {
+        var input = """
+                {"id":1,"name":"A","movie":"Movie A"}
+                {"name":"B","movie":"Movie B"}
+                {"name":"","movie":"Movie C"}
+                {"name":"D","movie":"Movie D"}
+                """;
+
+        var result = spaceShipImportService.importSpaceShips(ExportFormat.NDJSON, stream(input));
+
+        Assertions.assertEquals(4, result.getRead());
+        Assertions.assertEquals(3, result.getImported());
+        Assertions.assertEquals(1, result.getRejected());
+        Assertions.assertEquals(2, result.getBatches());
+        Assertions.assertEquals(2, result.getErrors().getFirst().getIndex());
+        Assertions.assertEquals(List.of(2, 1), savedBatchSizes);
+
+        // Un único evento resumen por bloque, no uno por nave
+        var events = ArgumentCaptor.forClass(AuditEventDto.class);
+        verify(auditOutboxService, times(2)).enqueue(events.capture());
+        Assertions.assertEquals(SpaceShipImportService.IMPORT_OPERATION, events.getAllValues().getFirst().getOperation());
+        Assertions.assertEquals(2, events.getAllValues().getFirst().getItemCount());
+        Assertions.assertEquals(100L, events.getAllValues().getFirst().getShipId());
+        verify(auditOutboxService, never()).enqueueAll(anyList());
+
+        verify(spaceShipCounterService, times(1)).add(eq(2L));
+        verify(spaceShipCounterService, times(1)).add(eq(1L));
+        verify(spaceShipSearchIndexService, times(1)).add(eq(102L), eq("D"));
+        verify(metricsService, times(1)).recordSpaceShipImportThroughput(Mockito.anyDouble());
+    }
+
+    @Test
+    public void testImportCsv_HeaderAndQuotedFields() {
+        var input = "id,name,movie\n"
+                + "1,\"Millennium Falcon, The\",Star Wars\n"
+                + ",X-Wing,\"Star \"\"Wars\"\"\"\n";
+
+        var result = spaceShipImportService.importSpaceShips(ExportFormat.CSV, stream(input));
+
+        Assertions.assertEquals(2, result.getImported());
+        Assertions.assertEquals(0, result.getRejected());
+        verify(spaceShipSearchIndexService, times(1)).add(eq(100L), eq("Millennium Falcon, The"));
+        verify(spaceShipSearchIndexService, times(1)).add(eq(101L), eq("X-Wing"));
+    }
+
+    @Test
+    public void testImportNdjson_MalformedInputAborts() {
+        var input = """
+                {"name":"A","movie":"Movie A"}
+                {"name":"B","movie":
+                """;
+
+        var result = spaceShipImportService.importSpaceShips(ExportFormat.NDJSON, stream(input));
+
+        Assertions.assertTrue(result.isAborted());
+        // Lo leído antes del error se guarda igualmente
+        Assertions.assertEquals(1, result.getImported());
+        Assertions.assertEquals(1, result.getRejected());
+    }
+
+    @Test
+    public void testImportNdjson_MalformedFirstRecordAborts() {
+        var result = spaceShipImportService.importSpaceShips(ExportFormat.NDJSON, stream("{\"name\":}\n"));
+
+        Assertions.assertTrue(result.isAborted());
+        Assertions.assertEquals(0, result.getImported());
+        Assertions.assertEquals(400, result.getErrors().getFirst().getCode());
+        verify(movieSpaceShipRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    public void testImportCsv_MalformedHeaderAborts() {
+        var result = spaceShipImportService.importSpaceShips(ExportFormat.CSV, stream("\"id,name,movie\n1,A,Movie A\n"));
+
+        Assertions.assertTrue(result.isAborted());
+        Assertions.assertEquals(0, result.getImported());
+        verify(movieSpaceShipRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    public void testImportFormatFromContentType() {
+        Assertions.assertEquals(ExportFormat.CSV, ExportFormat.fromContentType("text/csv;charset=UTF-8"));
+        Assertions.assertEquals(ExportFormat.NDJSON, ExportFormat.fromContentType("application/x-ndjson"));
+        Assertions.assertEquals(ExportFormat.NDJSON, ExportFormat.fromContentType(null));
+    }
+
+    @Test
+    public void testImport_FailedBatchDoesNotStopImport() {
+        when(movieSpaceShipRepository.saveAll(anyList()))
+                .thenThrow(new IllegalStateException("constraint violation"))
+                .thenAnswer(invocation -> {
+                    List<MovieSpaceShip> entities = invocation.getArgument(0);
+                    entities.forEach(entity -> entity.setId(7L));
+                    return entities;
+                });
+        var input = """
+                {"name":"A","movie":"Movie A"}
+                {"name":"B","movie":"Movie B"}
+                {"name":"C","movie":"Movie C"}
+                """;
+
+        var result = spaceShipImportService.importSpaceShips(ExportFormat.NDJSON, stream(input));
+
+        Assertions.assertEquals(1, result.getFailedBatches());
+        Assertions.assertEquals(1, result.getImported());
+        Assertions.assertEquals(2, result.getRejected());
+        Assertions.assertEquals(500, result.getErrors().getFirst().getCode());
+        Assertions.assertFalse(result.isAborted());
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,58 @@
+package org.demo.unit.service;
+
+import org.demo.service.search.SpaceShipNameIndex;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SpaceShipNameIndexTest {
+
+    private SpaceShipNameIndex index;
+
+    @BeforeEach
+    public void setup() {
+        index = new SpaceShipNameIndex();
+        index.append(3, "USS Enterprise");
+        index.append(1, "USS Excelsior");
+        index.append(2, "Millennium Falcon");
+        index.seal();
+    }
+
+    @Test
+    public void testCandidates() {
+        Assertions.assertArrayEquals(new long[]{1, 3}, index.candidates("USS"));
+        Assertions.assertArrayEquals(new long[]{3}, index.candidates("Enter"));
+        Assertions.assertArrayEquals(new long[0], index.candidates("uss"));
+        Assertions.assertArrayEquals(new long[0], index.candidates("Nostromo"));
+    }
+
+    @Test
+    public void testAddAndRemove() {
+        index.add(4, "USS Voyager");
+        Assertions.assertArrayEquals(new long[]{1, 3, 4}, index.candidates("USS"));
+
+        index.remove(3, "USS Enterprise");
+        Assertions.assertArrayEquals(new long[]{1, 4}, index.candidates("USS"));
+        Assertions.assertArrayEquals(new long[0], index.candidates("Enter"));
+    }
+
+    @Test
+    public void testManyTrigramsSurviveGrowthAndRemovals() {
+        for (int i = 0; i < 5000; i++) {
+            index.add(100 + i, "Ship-" + i);
+        }
+        for (int i = 0; i < 5000; i += 2) {
+            index.remove(100 + i, "Ship-" + i);
+        }
+
+        Assertions.assertArrayEquals(new long[]{100 + 4321}, index.candidates("Ship-4321"));
+        Assertions.assertArrayEquals(new long[0], index.candidates("Ship-4320"));
+        Assertions.assertArrayEquals(new long[]{1, 3}, index.candidates("USS"));
+    }
+
+    @Test
+    public void testIsIndexable() {
+        Assertions.assertFalse(SpaceShipNameIndex.isIndexable("US"));
+        Assertions.assertTrue(SpaceShipNameIndex.isIndexable("USS"));
+    }
+}
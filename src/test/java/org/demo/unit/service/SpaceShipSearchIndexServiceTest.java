@@ -0,0 +1,54 @@
+package org.demo.unit.service;
+
+import org.demo.dto.MovieSpaceShipsDto;
+import org.demo.persistance.repository.MovieSpaceShipRepository;
+import org.demo.service.search.SpaceShipSearchIndexService;
+import org.demo.service.telemetry.MetricsService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class SpaceShipSearchIndexServiceTest {
+
+    @Mock
+    private MovieSpaceShipRepository movieSpaceShipRepository;
+
+    @Mock
+    private MetricsService metricsService;
+
+    private SpaceShipSearchIndexService spaceShipSearchIndexService;
+
+    @BeforeEach
+    public void setup() {
+        spaceShipSearchIndexService = new SpaceShipSearchIndexService(movieSpaceShipRepository, metricsService, 2);
+    }
+
+    @Test
+    public void testWritesDuringBuildAreReplayed() {
+        when(movieSpaceShipRepository.findProjectedAfterId(eq(0L), eq(2))).thenAnswer(invocation -> {
+            // Escrituras que llegan mientras se recorre la tabla: una fila ya leída que cambia
+            // de nombre y un alta que el recorrido no va a ver
+            spaceShipSearchIndexService.update(1L, "USS Enterprise", "USS Defiant");
+            spaceShipSearchIndexService.add(9L, "USS Voyager");
+            return List.of(new MovieSpaceShipsDto(1L, "USS Enterprise", "Star Trek", 0L),
+                    new MovieSpaceShipsDto(2L, "Millennium Falcon", "Star Wars", 0L));
+        });
+        when(movieSpaceShipRepository.findProjectedAfterId(eq(2L), eq(2))).thenReturn(List.of());
+
+        Assertions.assertTrue(spaceShipSearchIndexService.candidates("USS").isEmpty());
+        spaceShipSearchIndexService.build();
+
+        Assertions.assertArrayEquals(new long[]{1, 9}, spaceShipSearchIndexService.candidates("USS").orElseThrow());
+        Assertions.assertArrayEquals(new long[]{1}, spaceShipSearchIndexService.candidates("Defiant").orElseThrow());
+        Assertions.assertArrayEquals(new long[0], spaceShipSearchIndexService.candidates("Enterprise").orElseThrow());
+    }
+}
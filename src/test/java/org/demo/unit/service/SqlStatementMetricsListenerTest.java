@@ -0,0 +1,107 @@
+package org.demo.unit.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.demo.service.telemetry.SqlStatementMetricsListener;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.demo.service.telemetry.SqlStatementMetricsListener.STATEMENT_TIMER_NAME;
+
+public class SqlStatementMetricsListenerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SqlStatementMetricsListener listener;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        listener = new SqlStatementMetricsListener(meterRegistry, Tracer.NOOP,
+                List.of(Duration.ofMillis(1), Duration.ofMillis(10)), Duration.ofMillis(100), 3, 80, 1);
+    }
+
+    @Test
+    void normalizesLiteralsInListsAndSelectColumns() {
+        Assertions.assertEquals("select ... from spaceships m1_0 where m1_0.id in (?) and m1_0.name=?",
+                listener.normalize("select m1_0.id,m1_0.name,\n  m1_0.movie from spaceships m1_0 where m1_0.id in (1, 2, 3) and m1_0.name='It''s'"));
+        Assertions.assertEquals("insert into audit_events (id,operation) values (?,?)",
+                listener.normalize("insert into audit_events (id,operation) values (?,?),(?, ?),(?,?)"));
+        Assertions.assertEquals("select ... from users u1_0 where u1_0.email=?",
+                listener.normalize("select u1_0.id,u1_0.email from users u1_0 where u1_0.email=?"));
+        Assertions.assertEquals("ALTER TABLE AUDIT_EVENTS ADD COLUMN event_day INT NOT NULL DEFAULT ?",
+                listener.normalize("-- Cubo diario\nALTER TABLE AUDIT_EVENTS /* UTC */ ADD COLUMN event_day INT NOT NULL DEFAULT 0"));
+    }
+
+    @Test
+    void longStatementsKeepPrefixAndDistinctHash() {
+        var first = listener.normalize("update spaceships set name=?, movie=?, version=? where id=? and version=? and name <> ? and movie <> ?");
+        var second = listener.normalize("update spaceships set name=?, movie=?, version=? where id=? and version=? and name <> ? and movie = ?");
+
+        Assertions.assertTrue(first.startsWith("update spaceships set name=?"));
+        Assertions.assertTrue(first.contains("...#"));
+        Assertions.assertNotEquals(first, second);
+    }
+
+    @Test
+    void recordsDurationByStatementCommandAndOutcome() {
+        listener.afterQuery(execution(2, true), queries("select s1_0.id from spaceships s1_0 where s1_0.id=7"));
+        listener.afterQuery(execution(4, true), queries("select s1_0.id from spaceships s1_0 where s1_0.id=8"));
+        listener.afterQuery(execution(1, false), queries("delete from users where id=?"));
+
+        var select = meterRegistry.get(STATEMENT_TIMER_NAME)
+                .tag("statement", "select ... from spaceships s1_0 where s1_0.id=?")
+                .tag("command", "select")
+                .tag("outcome", "success")
+                .timer();
+        Assertions.assertEquals(2, select.count());
+        Assertions.assertEquals(6, select.totalTime(TimeUnit.MILLISECONDS), 0.001);
+        Assertions.assertEquals(1, meterRegistry.get(STATEMENT_TIMER_NAME)
+                .tags("command", "delete", "outcome", "error").timer().count());
+    }
+
+    @Test
+    void cardinalityIsBoundedByOtherStatement() {
+        for (int table = 0; table < 10; table++) {
+            listener.afterQuery(execution(1, true), queries("select * from t" + "abcdefghij".charAt(table)));
+        }
+
+        var statements = meterRegistry.get(STATEMENT_TIMER_NAME).timers().stream()
+                .map(timer -> timer.getId().getTag("statement"))
+                .distinct()
+                .toList();
+        Assertions.assertEquals(4, statements.size());
+        Assertions.assertEquals(7, meterRegistry.get(STATEMENT_TIMER_NAME)
+                .tags("statement", SqlStatementMetricsListener.OTHER_STATEMENT, "outcome", "success").timer().count());
+    }
+
+    @Test
+    void countsEverySlowStatementEvenWhenTheLogIsRateLimited() {
+        listener.afterQuery(execution(150, true), queries("select * from spaceships"));
+        listener.afterQuery(execution(250, true), queries("select * from spaceships"));
+        listener.afterQuery(execution(50, true), queries("select * from spaceships"));
+
+        Assertions.assertEquals(2, meterRegistry.get("db.statement.slow").counter().count());
+    }
+
+    private static ExecutionInfo execution(long millis, boolean success) {
+        var execution = new ExecutionInfo();
+        execution.setElapsedTime(TimeUnit.MILLISECONDS.toNanos(millis));
+        execution.setSuccess(success);
+        return execution;
+    }
+
+    private static List<QueryInfo> queries(String sql) {
+        var query = new QueryInfo(sql);
+        query.setParametersList(new ArrayList<>(List.<List<ParameterSetOperation>>of(List.of())));
+        return List.of(query);
+    }
+}
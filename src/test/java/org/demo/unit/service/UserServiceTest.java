@@ -0,0 +1,73 @@
+package org.demo.unit.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.demo.persistance.entities.User;
+import org.demo.persistance.repository.UserRepository;
+import org.demo.service.UserService;
+import org.demo.service.telemetry.MetricsService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Base64;
+import java.util.Set;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class UserServiceTest {
+
+    private static final String EMAIL = "test@test.com";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private MetricsService metricsService;
+
+    private UserService userService;
+
+    @BeforeEach
+    public void setup() {
+        userService = new UserService(userRepository, Caffeine.newBuilder().build(), metricsService);
+    }
+
+    @Test
+    public void testLoadUserByUsername_CachedAfterFirstLookup() {
+        var encoded = Base64.getEncoder().encodeToString("hash".getBytes());
+        when(userRepository.findByEmail(EMAIL)).thenReturn(new User(1, EMAIL, encoded, "ADMIN"));
+
+        var first = userService.loadUserByUsername(EMAIL);
+        var second = userService.loadUserByUsername(EMAIL);
+
+        Assertions.assertEquals("hash", first.getPassword());
+        Assertions.assertEquals(Set.of("ROLE_ADMIN"), first.getAuthorities());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> first.getAuthorities().add("ROLE_USER"));
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+
+        // Cada llamada recibe su propia copia: cambiarla no altera la entrada de la caché
+        Assertions.assertNotSame(first, second);
+        first.setPassword("changed");
+        Assertions.assertEquals("hash", userService.loadUserByUsername(EMAIL).getPassword());
+    }
+
+    @Test
+    public void testLoadUserByUsername_UnknownUserCachedAndInvalidated() {
+        Assertions.assertNull(userService.loadUserByUsername(EMAIL));
+        Assertions.assertNull(userService.loadUserByUsername(EMAIL));
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+
+        // Alta del usuario: tras invalidar se vuelve a consultar
+        var encoded = Base64.getEncoder().encodeToString("hash".getBytes());
+        when(userRepository.findByEmail(EMAIL)).thenReturn(new User(1, EMAIL, encoded, "ADMIN"));
+        userService.invalidate(EMAIL);
+
+        Assertions.assertNotNull(userService.loadUserByUsername(EMAIL));
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+    }
+}